@@ -0,0 +1,48 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.GridFiller;
+import com.example.sudoku.model.SudokuGrid;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tableros de prueba compartidos por los benchmarks, generados con una semilla fija
+ * para que dos ejecuciones midan exactamente el mismo trabajo.
+ */
+final class BenchBoards {
+
+    static final long SEED = 42;
+
+    private BenchBoards() {
+    }
+
+    /**
+     * Genera un tablero resuelto
+     * @param geometry geometria del tablero
+     * @param random generador de numeros aleatorios
+     * @return las celdas del tablero
+     */
+    static int[] solved(BoardGeometry geometry, SplittableRandom random) {
+        SudokuGrid grid = new SudokuGrid(geometry);
+        new GridFiller(geometry, random).fill(grid);
+        return grid.toArray();
+    }
+
+    /**
+     * Copia un tablero resuelto dejando solo una proporcion de sus celdas
+     * @param solution tablero resuelto
+     * @param fillRatio proporcion de celdas que conservan su numero
+     * @param random generador de numeros aleatorios
+     * @return el tablero parcial
+     */
+    static int[] partial(int[] solution, double fillRatio, SplittableRandom random) {
+        int[] cells = solution.clone();
+        for (int i = 0; i < cells.length; i++) {
+            if (random.nextDouble() >= fillRatio) {
+                cells[i] = 0;
+            }
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.sudoku.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Punto de entrada de los benchmarks. Ejecuta JMH agregando, si no se indicaron, las opciones para
+ * guardar los resultados en JSON (jmh-result.json) y perfilar el GC y la memoria asignada, de modo que
+ * los resultados de dos compilaciones se puedan comparar.
+ *
+ * Acepta las mismas opciones que org.openjdk.jmh.Main, por ejemplo:
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ModelBenchmark -p size=9 -rff antes.json
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        addDefault(options, "-rf", "json");
+        addDefault(options, "-rff", "jmh-result.json");
+        addDefault(options, "-prof", "gc");
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+
+    private static void addDefault(List<String> options, String flag, String value) {
+        if (!options.contains(flag)) {
+            options.add(flag);
+            options.add(value);
+        }
+    }
+}
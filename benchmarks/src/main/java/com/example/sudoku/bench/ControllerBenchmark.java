@@ -0,0 +1,71 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.controller.SudokuController;
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.SudokuGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la revision de fin de juego del controlador, que compara el tablero resuelto con
+ * el intento del jugador. fillRatio es la proporcion de celdas que el jugador ya lleno bien; con 1.0
+ * se recorre el tablero completo.
+ *
+ * El controlador se crea fuera del toolkit de JavaFX, sin FXML ni Platform.startup. Funciona porque el
+ * constructor solo crea el GridPane vacio, que no necesita el toolkit, y todo lo demas (preparador de
+ * puzzles, controles, banco) se arma en initialize(), que aqui no se llama. isGameOver no usa ningun
+ * campo del controlador. Si el constructor empieza a crear controles o a usar Platform, este benchmark
+ * tiene que iniciar el toolkit antes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+
+    @Param({"6", "9", "16"})
+    public int size;
+
+    @Param({"0.5", "0.9", "1.0"})
+    public double fillRatio;
+
+    private SudokuController controller;
+    private ArrayList<ArrayList<Integer>> board;
+    private ArrayList<ArrayList<Integer>> attempt;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(BenchBoards.SEED);
+        BoardGeometry geometry = BoardGeometry.of(size);
+        int[] solution = BenchBoards.solved(geometry, random);
+        controller = new SudokuController();
+        board = SudokuGrid.toList(solution, size);
+        // Las celdas llenas se ponen primero para que la comparacion recorra esa proporcion del tablero
+        int[] cells = solution.clone();
+        int filled = (int) Math.round(fillRatio * cells.length);
+        for (int i = filled; i < cells.length; i++) {
+            cells[i] = 0;
+        }
+        attempt = SudokuGrid.toList(cells, size);
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return controller.isGameOver(board, attempt);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.GridFiller;
+import com.example.sudoku.model.SudokuGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribucion del tiempo de llenado de un tablero resuelto. Mide cada llamada por separado, asi JMH
+ * informa los percentiles (p99, p99.9 y maximo) y no solo el promedio de
+ * {@link ModelBenchmark#fillBoard}: la cola lenta de los tableros grandes es la que define la latencia
+ * de una partida nueva.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 4)
+@Fork(1)
+public class FillLatencyBenchmark {
+
+    @Param({"9", "16", "25"})
+    public int size;
+
+    private GridFiller filler;
+    private SudokuGrid grid;
+
+    @Setup
+    public void setup() {
+        BoardGeometry geometry = BoardGeometry.of(size);
+        filler = new GridFiller(geometry, new SplittableRandom(BenchBoards.SEED));
+        grid = new SudokuGrid(geometry);
+    }
+
+    @Benchmark
+    public SudokuGrid fill() {
+        filler.fill(grid);
+        return grid;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.GenerationMode;
+import com.example.sudoku.model.GridCanonicalizer;
+import com.example.sudoku.model.SudokuModel;
+import com.example.sudoku.util.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Compara la variedad de los tableros resueltos de cada {@link GenerationMode} del modelo.
+ *
+ * Para cada modo genera N tableros y mide:
+ * <ul>
+ * <li>tableros distintos y clases distintas bajo simetrias ({@link GridCanonicalizer});</li>
+ * <li>chi cuadrado por celda contra una distribucion uniforme de los numeros, dividido por sus grados
+ * de libertad: cerca de 1 si cada celda recibe cada numero con la misma frecuencia;</li>
+ * <li>fraccion de celdas iguales entre tableros consecutivos, que deberia estar cerca de 1/size.</li>
+ * </ul>
+ * Termina con codigo 1 si el modo TRANSFORM se aleja de lo esperado o de SEARCH, para poder usarlo en
+ * scripts.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.example.sudoku.bench.GenerationDiversityCheck --size 9 --count 20000
+ * </pre>
+ */
+public class GenerationDiversityCheck {
+
+    private static final double MAX_CHI_SQUARE_RATIO = 1.2; // Chi cuadrado / grados de libertad aceptado
+    private static final double MAX_MATCH_DEVIATION = 0.01; // Distancia aceptada a 1/size
+    private static final double MIN_DISTINCT_RATIO = 0.99; // Tableros distintos respecto a SEARCH
+
+    public static void main(String[] args) {
+        int size = 9;
+        int count = 20_000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--size":
+                    size = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--count":
+                    count = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opcion desconocida: " + args[i]);
+            }
+        }
+        BoardGeometry geometry = BoardGeometry.of(size);
+        System.out.printf(Locale.ROOT, "%s, %d tableros por modo%n", geometry, count);
+        System.out.printf(Locale.ROOT, "%-10s %10s %10s %10s %10s %10s%n",
+                "modo", "us/tablero", "distintos", "clases", "chi2/gl", "iguales");
+        Stats search = null;
+        Stats transform = null;
+        for (GenerationMode mode : GenerationMode.values()) {
+            Stats stats = measure(geometry, mode, count);
+            System.out.printf(Locale.ROOT, "%-10s %10.1f %10d %10d %10.3f %10.4f%n", mode,
+                    stats.micros, stats.distinct, stats.classes, stats.chiSquareRatio, stats.matchRate);
+            if (mode == GenerationMode.SEARCH) {
+                search = stats;
+            } else {
+                transform = stats;
+            }
+        }
+        // En tableros chicos hay repeticiones por azar, por eso los distintos se comparan con SEARCH
+        boolean ok = transform.distinct >= MIN_DISTINCT_RATIO * search.distinct
+                && transform.chiSquareRatio < MAX_CHI_SQUARE_RATIO
+                && Math.abs(transform.matchRate - 1.0 / size) < MAX_MATCH_DEVIATION;
+        System.out.printf(Locale.ROOT, "esperado: distintos como SEARCH, chi2/gl cerca de 1, iguales cerca de %.4f -> %s%n",
+                1.0 / size, ok ? "OK" : "FALLA");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static Stats measure(BoardGeometry geometry, GenerationMode mode, int count) {
+        int size = geometry.size();
+        int cells = geometry.cellCount();
+        SudokuModel model = new SudokuModel(geometry);
+        model.setGenerationMode(mode);
+        GridCanonicalizer canonicalizer = new GridCanonicalizer(geometry);
+        LongHashSet grids = new LongHashSet(count);
+        LongHashSet classes = new LongHashSet(count);
+        long[] frequency = new long[cells * (size + 1)];
+        int[] previous = null;
+        long matches = 0;
+        long generationNanos = 0;
+
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            ArrayList<ArrayList<Integer>> board = model.generateSudoku();
+            generationNanos += System.nanoTime() - start;
+            int[] grid = new int[cells];
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    grid[row * size + col] = board.get(row).get(col);
+                }
+            }
+            grids.add(hash(grid));
+            classes.add(canonicalizer.fingerprint(grid));
+            for (int cell = 0; cell < cells; cell++) {
+                frequency[cell * (size + 1) + grid[cell]]++;
+                if (previous != null && previous[cell] == grid[cell]) {
+                    matches++;
+                }
+            }
+            previous = grid;
+        }
+
+        double expected = (double) count / size;
+        double chiSquare = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            for (int num = 1; num <= size; num++) {
+                double diff = frequency[cell * (size + 1) + num] - expected;
+                chiSquare += diff * diff / expected;
+            }
+        }
+        Stats stats = new Stats();
+        stats.micros = generationNanos / 1e3 / count;
+        stats.distinct = grids.size();
+        stats.classes = classes.size();
+        stats.chiSquareRatio = chiSquare / ((double) cells * (size - 1));
+        stats.matchRate = (double) matches / ((double) (count - 1) * cells);
+        return stats;
+    }
+
+    private static long hash(int[] grid) {
+        long h = 0x9e3779b97f4a7c15L;
+        for (int num : grid) {
+            h = (h ^ num) * 0x100000001b3L;
+            h ^= h >>> 29;
+        }
+        return h != 0 ? h : 1;
+    }
+
+    private static final class Stats {
+        private double micros;
+        private int distinct;
+        private int classes;
+        private double chiSquareRatio;
+        private double matchRate;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.GridFiller;
+import com.example.sudoku.model.GridTransformer;
+import com.example.sudoku.model.SudokuGrid;
+import com.example.sudoku.model.SudokuModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de las operaciones del modelo: generacion del tablero resuelto (por busqueda y por
+ * transformacion de semillas), revision de colocaciones, revision de valores correctos y revision de
+ * fin de juego. Ninguna depende de cuanto esta lleno el tablero; la revision de colocaciones sobre
+ * tableros a medio llenar esta en {@link PlacementBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+
+    private static final int PROBES = 1024; // Consultas precalculadas por invocacion
+
+    @Param({"6", "9", "16"})
+    public int size;
+
+    private BoardGeometry geometry;
+    private GridFiller filler;
+    private GridTransformer transformer;
+    private SudokuGrid fillTarget;
+    private SudokuModel model;
+    private int[] probeRows;
+    private int[] probeCols;
+    private int[] probeNums;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(BenchBoards.SEED);
+        geometry = BoardGeometry.of(size);
+        filler = new GridFiller(geometry, random.split());
+        transformer = new GridTransformer(geometry, random.split());
+        fillTarget = new SudokuGrid(geometry);
+        model = new SudokuModel(geometry);
+        probeRows = new int[PROBES];
+        probeCols = new int[PROBES];
+        probeNums = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeRows[i] = random.nextInt(size);
+            probeCols[i] = random.nextInt(size);
+            probeNums[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    /**
+     * Genera un tablero resuelto completo
+     */
+    @Benchmark
+    public void fillBoard(Blackhole blackhole) {
+        filler.fill(fillTarget);
+        blackhole.consume(fillTarget);
+    }
+
+    /**
+     * Genera un tablero resuelto transformando una semilla, sin busqueda
+     */
+    @Benchmark
+    public void transformBoard(Blackhole blackhole) {
+        transformer.fill(fillTarget);
+        blackhole.consume(fillTarget);
+    }
+
+    /**
+     * Revisa colocaciones a traves de ISudokuModel
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void isValidPlacement(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            blackhole.consume(model.isValidPlacement(probeRows[i], probeCols[i], probeNums[i]));
+        }
+    }
+
+    /**
+     * Cambia una celda del intento y revisa si el juego termino, como en cada tecla del jugador
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void setAttemptAndCheck(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            model.setAttempt(probeRows[i], probeCols[i], probeNums[i]);
+            blackhole.consume(model.isSolved());
+        }
+    }
+
+    /**
+     * Compara valores con la solucion
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void isCorrectValue(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            blackhole.consume(model.isCorrectValue(probeRows[i], probeCols[i], probeNums[i]));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.PuzzleGenerator;
+import com.example.sudoku.model.solver.DancingLinksSolver;
+import com.example.sudoku.model.solver.ParallelSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el resolvedor en paralelo con el serial en tableros grandes: probar que un puzzle tiene
+ * solucion unica (contar hasta 2) y contar soluciones de un puzzle al que se le quitaron pistas.
+ * threads es el tamaño del pool; con threads = 1 se ve el costo de repartir sin ganancia.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ParallelSolverBenchmark -p size=16
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSolverBenchmark {
+
+    private static final int PUZZLES = 8;
+    private static final int MANY_SOLUTIONS = 1000; // Limite al contar soluciones de un puzzle abierto
+    private static final double REMOVED_CLUES = 0.25; // Pistas que se quitan para tener varias soluciones
+
+    @Param({"16", "25"})
+    public int size;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private DancingLinksSolver serial;
+    private ParallelSolver parallel;
+    private int[][] unique;
+    private int[][] open;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(BenchBoards.SEED);
+        BoardGeometry geometry = BoardGeometry.of(size);
+        pool = new ForkJoinPool(threads);
+        serial = new DancingLinksSolver(geometry);
+        parallel = new ParallelSolver(geometry, pool);
+        PuzzleGenerator generator = new PuzzleGenerator(geometry, random.split());
+        unique = new int[PUZZLES][];
+        open = new int[PUZZLES][];
+        for (int i = 0; i < PUZZLES; i++) {
+            unique[i] = generator.generate(Difficulty.HARD).getGivens();
+            open[i] = unique[i].clone();
+            for (int cell = 0; cell < open[i].length; cell++) {
+                if (open[i][cell] != 0 && random.nextDouble() < REMOVED_CLUES) {
+                    open[i][cell] = 0;
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % PUZZLES;
+        return next;
+    }
+
+    @Benchmark
+    public int uniquenessSerial() {
+        return serial.countSolutions(unique[nextIndex()], 2);
+    }
+
+    @Benchmark
+    public int uniquenessParallel() {
+        return parallel.countSolutions(unique[nextIndex()], 2);
+    }
+
+    @Benchmark
+    public int countSerial() {
+        return serial.countSolutions(open[nextIndex()], MANY_SOLUTIONS);
+    }
+
+    @Benchmark
+    public int countParallel() {
+        return parallel.countSolutions(open[nextIndex()], MANY_SOLUTIONS);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.SudokuGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la revision de colocaciones sobre un tablero parcialmente lleno, la consulta que hace la
+ * busqueda. fillRatio es la proporcion de celdas del tablero que tienen numero.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+
+    private static final int PROBES = 1024; // Consultas precalculadas por invocacion
+
+    @Param({"6", "9", "16"})
+    public int size;
+
+    @Param({"0.25", "0.5", "0.75"})
+    public double fillRatio;
+
+    private SudokuGrid partial;
+    private int[] probeRows;
+    private int[] probeCols;
+    private int[] probeNums;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(BenchBoards.SEED);
+        BoardGeometry geometry = BoardGeometry.of(size);
+        partial = new SudokuGrid(geometry);
+        partial.load(BenchBoards.partial(BenchBoards.solved(geometry, random), fillRatio, random));
+        probeRows = new int[PROBES];
+        probeCols = new int[PROBES];
+        probeNums = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeRows[i] = random.nextInt(size);
+            probeCols[i] = random.nextInt(size);
+            probeNums[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    /**
+     * Revisa colocaciones sobre un tablero parcialmente lleno (lo que usa la busqueda)
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void placementCheck(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            blackhole.consume(partial.canPlace(probeRows[i], probeCols[i], probeNums[i]));
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.server.SudokuServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prueba de carga del servicio HTTP ({@link SudokuServer}) contra localhost.
+ *
+ * Cada cliente juega partidas completas: crea una partida, alterna jugadas al azar, consultas de estado
+ * y ayudas hasta resolverla, y la borra. Se mide la latencia de cada peticion y al final se reportan
+ * las peticiones por segundo y los percentiles p50 y p99, en total y por tipo de peticion.
+ *
+ * Si no se indica --url, se inicia un servidor en el mismo proceso en un puerto libre.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.example.sudoku.bench.ServerLoadTest --clients 32 --seconds 20 --size 9
+ * </pre>
+ */
+public class ServerLoadTest {
+
+    private static final String[] KINDS = {"new", "cell", "hint", "status", "delete"};
+    private static final int NEW = 0;
+    private static final int CELL = 1;
+    private static final int HINT = 2;
+    private static final int STATUS = 3;
+    private static final int DELETE = 4;
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int clients = 16;
+        int seconds = 10;
+        int size = 9;
+        String difficulty = "medium";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--url":
+                    url = value;
+                    break;
+                case "--clients":
+                    clients = Integer.parseInt(value);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(value);
+                    break;
+                case "--size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "--difficulty":
+                    difficulty = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opcion desconocida: " + args[i]);
+            }
+        }
+
+        SudokuServer server = null;
+        if (url == null) {
+            server = new SudokuServer(0, BoardGeometry.of(size), Math.max(4, clients));
+            server.start();
+            url = "http://localhost:" + server.getPort();
+        }
+        try {
+            run(url, clients, seconds, difficulty);
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    private static void run(String url, int clients, int seconds, String difficulty) throws Exception {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        SplittableRandom root = new SplittableRandom(42);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<Client>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(http, url, difficulty, root.split());
+            results.add(pool.submit(() -> client.run(end)));
+        }
+        Latencies[] total = new Latencies[KINDS.length];
+        for (int k = 0; k < KINDS.length; k++) {
+            total[k] = new Latencies();
+        }
+        long errors = 0;
+        long games = 0;
+        for (Future<Client> result : results) {
+            Client client = result.get();
+            for (int k = 0; k < KINDS.length; k++) {
+                total[k].addAll(client.latencies[k]);
+            }
+            errors += client.errors;
+            games += client.games;
+        }
+        pool.shutdown();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        Latencies all = new Latencies();
+        for (Latencies kind : total) {
+            all.addAll(kind);
+        }
+        System.out.printf(Locale.ROOT, "%s: %d clientes, %.1f s, %d partidas, %d errores%n",
+                url, clients, elapsed, games, errors);
+        System.out.printf(Locale.ROOT, "%-8s %10s %10s %10s %10s%n", "peticion", "total", "req/s", "p50 us", "p99 us");
+        print("todas", all, elapsed);
+        for (int k = 0; k < KINDS.length; k++) {
+            print(KINDS[k], total[k], elapsed);
+        }
+    }
+
+    private static void print(String name, Latencies latencies, double elapsed) {
+        latencies.sort();
+        System.out.printf(Locale.ROOT, "%-8s %10d %10.0f %10.0f %10.0f%n", name, latencies.size,
+                latencies.size / elapsed, latencies.percentile(0.50) / 1e3, latencies.percentile(0.99) / 1e3);
+    }
+
+    /**
+     * Un cliente que juega partidas en su propio hilo
+     */
+    private static final class Client {
+        private final HttpClient http;
+        private final String url;
+        private final String difficulty;
+        private final SplittableRandom random;
+        private final Latencies[] latencies = new Latencies[KINDS.length];
+        private long errors;
+        private long games;
+
+        Client(HttpClient http, String url, String difficulty, SplittableRandom random) {
+            this.http = http;
+            this.url = url;
+            this.difficulty = difficulty;
+            this.random = random;
+            for (int k = 0; k < KINDS.length; k++) {
+                latencies[k] = new Latencies();
+            }
+        }
+
+        Client run(long end) {
+            while (System.nanoTime() < end) {
+                try {
+                    play(end);
+                    games++;
+                } catch (Exception e) {
+                    errors++;
+                }
+            }
+            return this;
+        }
+
+        private void play(long end) throws Exception {
+            String created = send(NEW, "POST", "/games?difficulty=" + difficulty);
+            long id = Long.parseLong(field(created, "id"));
+            int size = Integer.parseInt(field(created, "size"));
+            String givens = field(created, "givens");
+            String game = "/games/" + id;
+            boolean solved = false;
+            while (!solved && System.nanoTime() < end) {
+                int cell;
+                do {
+                    cell = random.nextInt(size * size);
+                } while (givens.charAt(cell) != '0');
+                send(CELL, "POST", game + "/cell?row=" + cell / size + "&col=" + cell % size
+                        + "&value=" + (1 + random.nextInt(size)));
+                send(STATUS, "GET", game);
+                // Dos ayudas por jugada: arreglan la celda al azar y avanzan la partida
+                send(HINT, "POST", game + "/hint");
+                solved = field(send(HINT, "POST", game + "/hint"), "row") == null;
+            }
+            send(DELETE, "DELETE", game);
+        }
+
+        /**
+         * Envia una peticion y mide su latencia
+         * @return el cuerpo de la respuesta
+         */
+        private String send(int kind, String method, String path) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + path))
+                    .method(method, HttpRequest.BodyPublishers.noBody())
+                    .build();
+            long start = System.nanoTime();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies[kind].add(System.nanoTime() - start);
+            if (response.statusCode() >= 400 && response.statusCode() != 409) {
+                errors++;
+            }
+            return response.body();
+        }
+    }
+
+    /**
+     * Busca un campo en una respuesta JSON plana
+     * @return el valor sin comillas, o null si no esta
+     */
+    private static String field(String json, String name) {
+        String key = "\"" + name + "\":";
+        int start = json.indexOf(key);
+        if (start < 0) {
+            return null;
+        }
+        start += key.length();
+        int end = start;
+        while (end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '}') {
+            end++;
+        }
+        String value = json.substring(start, end);
+        return value.startsWith("\"") ? value.substring(1, value.length() - 1) : value;
+    }
+
+    /**
+     * Lista de latencias en nanosegundos sobre un arreglo primitivo
+     */
+    private static final class Latencies {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Latencies other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        long percentile(double p) {
+            return size == 0 ? 0 : values[Math.min(size - 1, (int) (p * size))];
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzleGenerator;
+import com.example.sudoku.model.solver.DancingLinksSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks del resolvedor Dancing Links y del generador de puzzles con solucion unica.
+ * Los puzzles a resolver se generan una vez con semilla fija y se recorren en ciclo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    private static final int PUZZLES = 64;
+
+    @Param({"6", "9"})
+    public int size;
+
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public Difficulty difficulty;
+
+    private DancingLinksSolver solver;
+    private PuzzleGenerator generator;
+    private int[][] puzzles;
+    private int[] work;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(BenchBoards.SEED);
+        BoardGeometry geometry = BoardGeometry.of(size);
+        solver = new DancingLinksSolver(geometry);
+        generator = new PuzzleGenerator(geometry, random.split());
+        PuzzleGenerator setupGenerator = new PuzzleGenerator(geometry, random.split());
+        puzzles = new int[PUZZLES][];
+        for (int i = 0; i < PUZZLES; i++) {
+            puzzles[i] = setupGenerator.generate(difficulty).getGivens();
+        }
+        work = new int[geometry.cellCount()];
+    }
+
+    private int[] nextPuzzle() {
+        next = (next + 1) % PUZZLES;
+        return puzzles[next];
+    }
+
+    @Benchmark
+    public int[] solve() {
+        System.arraycopy(nextPuzzle(), 0, work, 0, work.length);
+        solver.solve(work);
+        return work;
+    }
+
+    @Benchmark
+    public int countSolutions() {
+        return solver.countSolutions(nextPuzzle(), 2);
+    }
+
+    @Benchmark
+    public Puzzle generatePuzzle() {
+        return generator.generate(difficulty);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.metrics.StartupProbe;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el arranque en frio de la aplicacion de escritorio con {@link StartupProbe}.
+ *
+ * Lanza la imagen jlink del perfil fast-start varias veces, cada una en un proceso nuevo con
+ * sudoku.probe=true, y lee la linea con el tiempo al primer cuadro y el tiempo hasta poder jugar. Se
+ * mide la imagen sin el archivo AppCDS de la aplicacion y, si existe lib/sudoku.jsa, tambien con el.
+ * Sin variable DISPLAY la aplicacion se lanza con xvfb-run, asi corre en servidores sin pantalla.
+ *
+ * Termina con codigo 1 si la mediana de alguna medicion supera los limites dados, para detectar
+ * regresiones del arranque en scripts.
+ * <pre>
+ * mvn -P fast-start package
+ * java -cp benchmarks/target/benchmarks.jar com.example.sudoku.bench.StartupBenchmark --image target/app --runs 10 --max-playable 2500
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final String MAIN = "com.example.sudoku/com.example.sudoku.main";
+    private static final long TIMEOUT_SECONDS = 60; // Por corrida; una ventana que no llega a jugable es una falla
+
+    public static void main(String[] args) throws Exception {
+        Path image = Paths.get("target", "app");
+        int runs = 10;
+        long maxFirstFrame = Long.MAX_VALUE;
+        long maxPlayable = Long.MAX_VALUE;
+        String prefix = System.getenv("DISPLAY") == null ? "xvfb-run -a" : "";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--image":
+                    image = Paths.get(value);
+                    break;
+                case "--runs":
+                    runs = Integer.parseInt(value);
+                    break;
+                case "--max-first-frame":
+                    maxFirstFrame = Long.parseLong(value);
+                    break;
+                case "--max-playable":
+                    maxPlayable = Long.parseLong(value);
+                    break;
+                case "--prefix":
+                    prefix = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opcion desconocida: " + args[i]);
+            }
+        }
+        Path java = image.resolve("bin").resolve("java");
+        if (!Files.isExecutable(java)) {
+            throw new IllegalArgumentException("No hay una imagen jlink en " + image + " (mvn -P fast-start package)");
+        }
+        Path archive = image.resolve("lib").resolve("sudoku.jsa");
+        Path save = Files.createTempDirectory("sudoku-startup"); // Las partidas de prueba no van a la carpeta del usuario
+
+        System.out.printf(Locale.ROOT, "%s, %d corridas por modo%n", image, runs);
+        System.out.printf(Locale.ROOT, "%-8s %14s %14s %14s %14s%n",
+                "modo", "cuadro p50 ms", "cuadro max ms", "jugable p50 ms", "jugable max ms");
+        boolean ok = measure("sin CDS", command(prefix, java, save, null), runs, maxFirstFrame, maxPlayable);
+        if (Files.isRegularFile(archive)) {
+            ok &= measure("AppCDS", command(prefix, java, save, archive), runs, maxFirstFrame, maxPlayable);
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static List<String> command(String prefix, Path java, Path save, Path archive) {
+        List<String> command = new ArrayList<>();
+        if (!prefix.isBlank()) {
+            command.addAll(Arrays.asList(prefix.trim().split("\\s+")));
+        }
+        command.add(java.toString());
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.add("-D" + StartupProbe.PROPERTY + "=true");
+        command.add("-Dsudoku.save=" + save);
+        command.add("-m");
+        command.add(MAIN);
+        return command;
+    }
+
+    /**
+     * Lanza la aplicacion varias veces y escribe las medianas y los maximos
+     * @return true si las medianas no superan los limites
+     */
+    private static boolean measure(String name, List<String> command, int runs, long maxFirstFrame,
+                                   long maxPlayable) throws IOException, InterruptedException {
+        long[] firstFrame = new long[runs];
+        long[] playable = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            long[] times = launch(command);
+            firstFrame[run] = times[0];
+            playable[run] = times[1];
+        }
+        Arrays.sort(firstFrame);
+        Arrays.sort(playable);
+        long firstFrameMedian = firstFrame[runs / 2];
+        long playableMedian = playable[runs / 2];
+        boolean ok = firstFrameMedian <= maxFirstFrame && playableMedian <= maxPlayable;
+        System.out.printf(Locale.ROOT, "%-8s %14d %14d %14d %14d%s%n", name, firstFrameMedian,
+                firstFrame[runs - 1], playableMedian, playable[runs - 1], ok ? "" : "  FALLA");
+        return ok;
+    }
+
+    /**
+     * Lanza una corrida y lee la linea de {@link StartupProbe}
+     * @return milisegundos al primer cuadro y hasta poder jugar
+     */
+    private static long[] launch(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        // Si la corrida se cuelga se mata el proceso, lo que cierra su salida y termina la lectura
+        process.onExit().orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS).exceptionally(e -> process.destroyForcibly());
+        long[] times = null;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.startsWith(StartupProbe.PREFIX)) {
+                    times = new long[]{field(line, "firstFrameMs"), field(line, "playableMs")};
+                }
+            }
+        }
+        process.waitFor();
+        if (times == null) {
+            throw new IllegalStateException("La aplicacion termino sin escribir los tiempos de arranque: " + command);
+        }
+        return times;
+    }
+
+    private static long field(String line, String name) {
+        int start = line.indexOf(name + "=") + name.length() + 1;
+        int end = line.indexOf(' ', start);
+        return Long.parseLong(line.substring(start, end < 0 ? line.length() : end));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.GridTransformer;
+import com.example.sudoku.model.SudokuGrid;
+import com.example.sudoku.model.batch.GridBatch;
+import com.example.sudoku.model.batch.GridValidators;
+import com.example.sudoku.model.batch.IGridValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de la validacion en bloque de tableros completos, con el validador escalar y con el de la
+ * API de vectores. El proceso de medicion se inicia con --add-modules jdk.incubator.vector para que el
+ * validador vectorial este disponible. Un cuarto de los tableros tiene un error, para que la salida
+ * temprana de los tableros invalidos tambien cuente.
+ *
+ * Los tiempos son por tablero; tableros por minuto = 6e10 / ns por tablero.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=" + GridValidators.VECTOR_MODULE)
+public class ValidationBenchmark {
+
+    private static final int GRIDS = 4096; // Tableros por lote
+
+    @Param({"9", "16", "25"})
+    public int size;
+
+    @Param({"scalar", "vector"})
+    public String validator;
+
+    private IGridValidator target;
+    private GridBatch grids;
+    private GridBatch solutions;
+    private boolean[] results;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(BenchBoards.SEED);
+        BoardGeometry geometry = BoardGeometry.of(size);
+        if (validator.equals("vector")) {
+            if (!GridValidators.isVectorAvailable()) {
+                throw new IllegalStateException("Falta el modulo " + GridValidators.VECTOR_MODULE);
+            }
+            target = GridValidators.create(geometry);
+        } else {
+            target = GridValidators.scalar(geometry);
+        }
+        GridTransformer transformer = new GridTransformer(geometry, random.split());
+        SudokuGrid solved = new SudokuGrid(geometry);
+        int[] grid = new int[geometry.cellCount()];
+        grids = new GridBatch(geometry, GRIDS);
+        solutions = new GridBatch(geometry, GRIDS);
+        for (int i = 0; i < GRIDS; i++) {
+            transformer.fill(solved);
+            solved.copyTo(grid);
+            solutions.add(grid);
+            if (random.nextInt(4) == 0) {
+                int cell = random.nextInt(grid.length);
+                grid[cell] = grid[cell] % size + 1;
+            }
+            grids.add(grid);
+        }
+        results = new boolean[GRIDS];
+    }
+
+    /**
+     * Revisa filas, columnas y subcuadriculas de cada tablero
+     */
+    @Benchmark
+    @OperationsPerInvocation(GRIDS)
+    public int validate() {
+        return target.validate(grids, results);
+    }
+
+    /**
+     * Compara cada tablero con su solucion
+     */
+    @Benchmark
+    @OperationsPerInvocation(GRIDS)
+    public int matches() {
+        return target.matches(grids, solutions, results);
+    }
+}
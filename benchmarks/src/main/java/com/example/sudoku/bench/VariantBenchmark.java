@@ -0,0 +1,135 @@
+package com.example.sudoku.bench;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.SudokuModel;
+import com.example.sudoku.model.variant.AntiKnightConstraint;
+import com.example.sudoku.model.variant.DiagonalConstraint;
+import com.example.sudoku.model.variant.VariantRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks del modelo con reglas clasicas y con variantes. Con rules=classic el modelo se crea igual
+ * que antes de las variantes, asi que sirve para comprobar que el camino clasico no se hizo mas lento;
+ * las demas filas muestran cuanto cuestan las restricciones extra en la revision de colocaciones, la
+ * resolucion y la generacion.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariantBenchmark {
+
+    private static final int PROBES = 1024; // Consultas precalculadas por invocacion
+    private static final int PUZZLES = 16;
+
+    @Param({"6", "9"})
+    public int size;
+
+    @Param({"classic", "diagonal", "antiknight"})
+    public String rules;
+
+    private SudokuModel model;
+    private int[][] puzzles;
+    private int[] work;
+    private int next;
+    private int[] probeRows;
+    private int[] probeCols;
+    private int[] probeNums;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(BenchBoards.SEED);
+        BoardGeometry geometry = BoardGeometry.of(size);
+        model = createModel(geometry);
+        puzzles = new int[PUZZLES][];
+        for (int i = 0; i < PUZZLES; i++) {
+            model.generateSudoku();
+            puzzles[i] = model.createPuzzle(Difficulty.MEDIUM).getGivens();
+        }
+        work = new int[geometry.cellCount()];
+        probeRows = new int[PROBES];
+        probeCols = new int[PROBES];
+        probeNums = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeRows[i] = random.nextInt(size);
+            probeCols[i] = random.nextInt(size);
+            probeNums[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    private SudokuModel createModel(BoardGeometry geometry) {
+        switch (rules) {
+            case "classic":
+                return new SudokuModel(geometry);
+            case "diagonal":
+                return new SudokuModel(VariantRules.compile(geometry, new DiagonalConstraint()));
+            case "antiknight":
+                return new SudokuModel(VariantRules.compile(geometry, new AntiKnightConstraint()));
+            default:
+                throw new IllegalArgumentException("Reglas desconocidas: " + rules);
+        }
+    }
+
+    private int[] nextPuzzle() {
+        next = (next + 1) % PUZZLES;
+        return puzzles[next];
+    }
+
+    /**
+     * Revisa colocaciones a traves de ISudokuModel
+     */
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void isValidPlacement(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            blackhole.consume(model.isValidPlacement(probeRows[i], probeCols[i], probeNums[i]));
+        }
+    }
+
+    /**
+     * Resuelve un puzzle con el resolvedor que corresponde a las reglas
+     */
+    @Benchmark
+    public int[] solve() {
+        System.arraycopy(nextPuzzle(), 0, work, 0, work.length);
+        model.solve(work);
+        return work;
+    }
+
+    /**
+     * Genera un tablero resuelto nuevo
+     */
+    @Benchmark
+    public ArrayList<ArrayList<Integer>> generateSudoku() {
+        return model.generateSudoku();
+    }
+
+    /**
+     * Genera un tablero resuelto y quita pistas hasta un puzzle de solucion unica
+     */
+    @Benchmark
+    public Puzzle createPuzzle() {
+        model.generateSudoku();
+        return model.createPuzzle(Difficulty.MEDIUM);
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.sudoku.cli;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.GridCanonicalizer;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzleGenerator;
+import com.example.sudoku.model.bank.PuzzleBankFormat;
+import com.example.sudoku.model.bank.PuzzleBankWriter;
+import com.example.sudoku.model.logic.DifficultyRater;
+import com.example.sudoku.util.LongHashSet;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modo de linea de comandos, sin interfaz grafica, para generar lotes de puzzles.
+ *
+ * Cada hilo trabajador tiene su propio {@link PuzzleGenerator} con un {@link SplittableRandom}
+ * separado del generador raiz, asi no comparten estado. Los puzzles pasan por una cola acotada
+ * hacia un unico hilo escritor: si el disco es mas lento que la generacion, los trabajadores se
+ * bloquean en vez de acumular puzzles en memoria.
+ *
+ * Con --format text se escribe una linea por puzzle ({@link Puzzle#toLine()}); con --format bank se
+ * escribe un banco binario de {@link PuzzleBankFormat}. Con --difficulty all se reparten los puzzles
+ * entre todas las dificultades. Con --rated true cada puzzle se califica por las tecnicas que necesita
+ * y se busca que corresponda al nivel pedido ({@link PuzzleGenerator#generateRated(Difficulty)}). Es
+ * un mejor esfuerzo: si el generador no acierta en sus intentos o su tiempo devuelve el ultimo puzzle,
+ * que se escribe igual; al final se informa cuantos quedaron en otro nivel.
+ * Con --dedupe true se descartan los puzzles que son iguales a uno ya generado bajo simetrias del tablero:
+ * cada trabajador calcula la huella de la forma canonica de las pistas ({@link GridCanonicalizer}) y
+ * un indice compartido de huellas decide si el puzzle es nuevo.
+ *
+ * Uso:
+ * <pre>
+ * java -cp target/classes com.example.sudoku.cli.SudokuCli --count 100000 --size 9 --difficulty medium --output puzzles.txt
+ * </pre>
+ * Opciones: --count, --size, --difficulty (easy, medium, hard, all), --format (text, bank), --rated,
+ * --dedupe, --output, --threads, --seed.
+ */
+public class SudokuCli {
+
+    private static final int QUEUE_CAPACITY = 4096; // Lineas en espera por escribir
+    private static final byte[] END = new byte[0]; // Marca de fin para el escritor
+    private static final int MAX_DUPLICATES_IN_A_ROW = 10_000; // Duplicados seguidos antes de rendirse
+
+    private long count = 1000;
+    private int size = 6;
+    private Difficulty difficulty = Difficulty.MEDIUM; // null para todas las dificultades
+    private boolean bankFormat = false;
+    private boolean rated = false;
+    private boolean dedupe = false;
+    private Path output = Paths.get("puzzles.txt");
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long seed = System.nanoTime();
+    private volatile IOException writeError; // Error del hilo escritor, si lo hubo
+
+    public static void main(String[] args) throws Exception {
+        SudokuCli cli = new SudokuCli();
+        try {
+            cli.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: SudokuCli [--count N] [--size N] [--difficulty easy|medium|hard|all]"
+                    + " [--format text|bank] [--rated true|false] [--dedupe true|false] [--output archivo]"
+                    + " [--threads N] [--seed N]");
+            System.exit(2);
+        }
+        try {
+            cli.run();
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir " + cli.output + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lee las opciones de la linea de comandos
+     * @param args argumentos del programa
+     */
+    void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--count":
+                    count = Long.parseLong(value);
+                    break;
+                case "--size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "--difficulty":
+                    difficulty = value.equalsIgnoreCase("all")
+                            ? null : Difficulty.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "--format":
+                    if (!value.equals("text") && !value.equals("bank")) {
+                        throw new IllegalArgumentException("Formato desconocido: " + value);
+                    }
+                    bankFormat = value.equals("bank");
+                    break;
+                case "--rated":
+                    rated = Boolean.parseBoolean(value);
+                    break;
+                case "--dedupe":
+                    dedupe = Boolean.parseBoolean(value);
+                    break;
+                case "--output":
+                    output = Paths.get(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opcion desconocida: " + option);
+            }
+        }
+        if (count < 0 || threads < 1) {
+            throw new IllegalArgumentException("--count y --threads deben ser positivos");
+        }
+    }
+
+    /**
+     * Genera los puzzles en paralelo y los escribe en el archivo de salida
+     */
+    void run() throws Exception {
+        BoardGeometry geometry = BoardGeometry.of(size);
+        BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicLong next = new AtomicLong();
+        SplittableRandom root = new SplittableRandom(seed);
+        PuzzleBankFormat format = new PuzzleBankFormat(geometry);
+        Difficulty[] levels = Difficulty.values();
+        // El indice de huellas solo hace falta al descartar duplicados
+        LongHashSet seen = dedupe ? new LongHashSet((int) Math.min(count, 1 << 24)) : null;
+        AtomicLong duplicates = new AtomicLong();
+        AtomicLong mismatched = new AtomicLong(); // Puzzles calificados en otro nivel que el pedido
+
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            PuzzleGenerator generator = new PuzzleGenerator(geometry, root.split());
+            GridCanonicalizer canonicalizer = dedupe ? new GridCanonicalizer(geometry) : null;
+            DifficultyRater rater = rated ? new DifficultyRater(geometry) : null;
+            tasks.add(workers.submit(() -> {
+                long index;
+                // Si el escritor fallo no tiene sentido seguir generando puzzles que se van a descartar
+                while (writeError == null && (index = next.getAndIncrement()) < count) {
+                    Difficulty level = difficulty != null ? difficulty : levels[(int) (index % levels.length)];
+                    Puzzle puzzle = rated ? generator.generateRated(level) : generator.generate(level);
+                    int repeated = 0;
+                    while (canonicalizer != null && !isNew(seen, canonicalizer.fingerprint(puzzle.getGivens()))) {
+                        duplicates.incrementAndGet();
+                        if (++repeated == MAX_DUPLICATES_IN_A_ROW) {
+                            throw new IllegalStateException("No se encuentran mas puzzles distintos " + geometry
+                                    + " despues de " + seen.size());
+                        }
+                        puzzle = rated ? generator.generateRated(level) : generator.generate(level);
+                    }
+                    if (rater != null && rater.rate(puzzle.getGivens()).getDifficulty() != level) {
+                        mismatched.incrementAndGet();
+                    }
+                    if (bankFormat) {
+                        // El primer byte indica la dificultad del registro
+                        byte[] record = new byte[1 + format.getRecordBytes()];
+                        record[0] = (byte) level.ordinal();
+                        format.encode(puzzle.getGivens(), puzzle.getSolution(), record, 1);
+                        queue.put(record);
+                    } else {
+                        queue.put((puzzle.toLine() + '\n').getBytes(StandardCharsets.US_ASCII));
+                    }
+                }
+                return null;
+            }));
+        }
+        workers.shutdown();
+
+        Thread writer = new Thread(() -> {
+            if (bankFormat) {
+                writeBank(queue, geometry);
+            } else {
+                write(queue);
+            }
+        }, "sudoku-writer");
+        writer.start();
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            workers.shutdownNow();
+            queue.put(END);
+            writer.join();
+        }
+        if (writeError != null) {
+            throw writeError;
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "%d puzzles %s %s en %.2f s (%.1f puzzles/s, %d hilos) -> %s%n",
+                count, geometry, difficulty != null ? difficulty : "ALL", seconds, count / seconds, threads, output);
+        if (dedupe) {
+            System.out.printf(Locale.ROOT, "%d duplicados descartados%n", duplicates.get());
+        }
+        if (rated) {
+            System.out.printf(Locale.ROOT, "%d puzzles calificados en otro nivel que el pedido%n", mismatched.get());
+        }
+    }
+
+    /**
+     * Agrega una huella al indice compartido
+     * @return true si la huella no estaba
+     */
+    private static boolean isNew(LongHashSet seen, long fingerprint) {
+        synchronized (seen) {
+            return seen.add(fingerprint);
+        }
+    }
+
+    /**
+     * Ciclo del hilo escritor: vacia la cola en el archivo hasta recibir la marca de fin
+     * @param queue cola de lineas a escribir
+     */
+    private void write(BlockingQueue<byte[]> queue) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16)) {
+            while (true) {
+                byte[] line = queue.take();
+                if (line == END) {
+                    return;
+                }
+                out.write(line);
+            }
+        } catch (IOException e) {
+            writeError = e; // Los trabajadores lo ven y dejan de generar
+            discardUntilEnd(queue); // Se sigue vaciando la cola para no dejar bloqueados a los trabajadores
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ciclo del hilo escritor para bancos binarios
+     * @param queue cola de registros, cada uno precedido por el ordinal de su dificultad
+     * @param geometry geometria de los puzzles
+     */
+    private void writeBank(BlockingQueue<byte[]> queue, BoardGeometry geometry) {
+        Difficulty[] levels = Difficulty.values();
+        try (PuzzleBankWriter out = new PuzzleBankWriter(output, geometry)) {
+            while (true) {
+                byte[] record = queue.take();
+                if (record == END) {
+                    return;
+                }
+                out.addRecord(levels[record[0]], record, 1);
+            }
+        } catch (IOException e) {
+            writeError = e;
+            discardUntilEnd(queue);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void discardUntilEnd(BlockingQueue<byte[]> queue) {
+        try {
+            while (queue.take() != END) {
+                // Se descartan las lineas que ya no se pueden escribir
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
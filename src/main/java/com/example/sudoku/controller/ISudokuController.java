@@ -1,5 +1,7 @@
 package com.example.sudoku.controller;
 
+import com.example.sudoku.model.Difficulty;
+
 import java.util.ArrayList;
 
 /**
@@ -29,16 +31,25 @@ public interface ISudokuController {
 
     /**
      * Muestra una pista al usuario sobre el estado del juego.
+     *
+     * @return true si se dio la pista, false si no hay celdas en las que dar ayuda.
      */
-    void showHelp();
+    boolean showHelp();
 
     /**
-     * Inicia un nuevo juego con la dificultad especificada.
+     * Inicia un nuevo juego dejando la cantidad de pistas indicada.
      *
-     * @param difficulty El nivel de dificultad del juego.
+     * @param difficulty La cantidad de pistas del juego.
      */
     void startGame(int difficulty);
 
+    /**
+     * Inicia un nuevo juego con un nivel de dificultad.
+     *
+     * @param difficulty El nivel de dificultad del juego.
+     */
+    void startGame(Difficulty difficulty);
+
     /**
      * Verifica si el juego ha terminado comparando el tablero y los intentos del usuario.
      *
@@ -1,28 +1,76 @@
 package com.example.sudoku.controller;
 
+import com.example.sudoku.metrics.HintEvent;
+import com.example.sudoku.metrics.StartupProbe;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.metrics.ValidationEvent;
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzlePrefetcher;
 import com.example.sudoku.model.SudokuModel;
 import com.example.sudoku.model.ISudokuModel;
+import com.example.sudoku.model.bank.PuzzleBank;
+import com.example.sudoku.model.logic.Hint;
+import com.example.sudoku.model.save.GameJournal;
+import com.example.sudoku.model.save.SavedGame;
+import com.example.sudoku.view.SudokuCanvas;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.VBox;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
 import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 public class SudokuController implements ISudokuController {
 
+    private static final int PREFETCH_DEPTH = 2; // Puzzles preparados por nivel de dificultad
+    private static final int CANVAS_MIN_SIZE = 16; // Tamaño desde el que el tablero se dibuja en un Canvas
+    private static final double MAX_CANVAS_SIDE = 800; // Lado maximo del Canvas; las celdas se achican para caber
+
     // Modelo del Sudoku que gestiona la lógica del juego
     private ISudokuModel sudokuModel;
+    // Tamaño del tablero y forma de las subcuadriculas
+    private BoardGeometry geometry = BoardGeometry.of(Integer.getInteger("sudoku.size", SudokuModel.DEFAULT_SIZE));
     private boolean gameOver = false;
+    // Banco de puzzles opcional, indicado con la propiedad sudoku.bank
+    private PuzzleBank bank;
+    private final SplittableRandom random = new SplittableRandom();
+    // Genera los puzzles fuera del hilo de JavaFX
+    private PuzzlePrefetcher prefetcher;
+    // Partida guardada: instantanea mas diario de jugadas, en sudoku.save o en ~/.sudoku
+    private final Path saveDirectory = Paths.get(System.getProperty("sudoku.save",
+            Paths.get(System.getProperty("user.home"), ".sudoku").toString()));
+    private GameJournal journal;
+    private PauseTransition journalFlush; // Escribe el diario un rato despues de la ultima jugada
+    private boolean shutDown; // Ya se guardo la partida al salir
+    // Avisos del arranque: primer cuadro y primer tablero dibujado. Los usa la medicion del arranque
+    private Runnable onFirstFrame = () -> { };
+    private Runnable onPlayable = () -> { };
+    private List<Node> difficultySelection; // Controles de la pantalla inicial, para volver a ella si falla la generacion
 
     @FXML
     private VBox sudokuBase; // Contenedor base de la interfaz gráfica
@@ -36,48 +84,128 @@ public class SudokuController implements ISudokuController {
     @FXML
     private Button helpButton; //Boton de ayuda
 
+    @FXML
+    private Button resumeButton; //Boton para continuar la partida guardada
+
 
     @FXML
-    GridPane grid = new GridPane(); // Cuadrícula de 6x6 del Sudoku
+    GridPane grid = new GridPane(); // Cuadrícula del Sudoku
+    private TextField[][] cells; // Indice de los TextField por fila y columna
+    private int[] conflictChanges = new int[ISudokuModel.MAX_CONFLICT_CHANGES]; // Celdas que cambiaron de conflicto en la ultima jugada
+    private SudokuCanvas canvas; // Tablero dibujado, en lugar de cells en tableros grandes
+    // Inicio de la construccion del tablero y de la ultima tecla, 0 si ya se midio en un pulso
+    private long buildStart;
+    private long frameStart;
+    private boolean measuringPulses;
 
     /**
-     * initializeGame() crea un modelo SudokuModel
+     * initializeGame() crea el preparador de puzzles, que empieza a generar despues del primer cuadro
      * oculta el boton y el indicador de ayuda
+     * El modelo se crea al elegir la dificultad, asi la ventana no espera a que se genere un tablero
      */
     public void initializeGame() {
-        sudokuModel = new SudokuModel();
+        int threads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+        prefetcher = new PuzzlePrefetcher(geometry, PREFETCH_DEPTH, threads);
+        sudokuBase.sceneProperty().addListener((observable, before, scene) -> measurePulses());
+        bank = openBank();
+        difficultySelection = new ArrayList<>(sudokuBase.getChildren());
+        boolean saved = GameJournal.hasSave(saveDirectory);
+        resumeButton.setVisible(saved);
+        resumeButton.setManaged(saved);
         helpButton.setVisible(false);
         helpLabel.setVisible(false);
     }
 
     /**
-     * Pone la dificultad en dificil y le da 8 pistas al jugador
+     * Abre el banco de puzzles indicado con la propiedad del sistema sudoku.bank, si existe y
+     * tiene la geometria del juego. Si no, los puzzles se generan al momento.
+     * @return el banco abierto o null
+     */
+    private PuzzleBank openBank() {
+        String location = System.getProperty("sudoku.bank");
+        if (location == null) {
+            return null;
+        }
+        Path path = Paths.get(location);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            PuzzleBank opened = new PuzzleBank(path);
+            if (opened.getGeometry().equals(geometry)) {
+                return opened;
+            }
+            opened.close();
+        } catch (IOException | IllegalArgumentException e) {
+            // Una cabecera con una geometria imposible falla al crear la BoardGeometry del banco
+            System.err.println("No se pudo abrir el banco de puzzles: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Empieza un juego de nivel dificil: el puzzle necesita las tecnicas mas avanzadas y deja la menor
+     * proporcion de pistas (ver {@link Difficulty#targetClues})
      * @param event pulsar el boton del usuario
      */
     @FXML
     void setDifficultyHard(ActionEvent event) {
         removeButtons();
-        startGame(8);
+        startGame(Difficulty.HARD);
     }
 
     /**
-     * Pone la dificultad en dificil y le da 14 pistas al jugador
+     * Empieza un juego de nivel intermedio, calificado por las tecnicas que necesita
      * @param event pulsar el boton del usuario
      */
     @FXML
     void setDifficultyMedium(ActionEvent event) {
         removeButtons();
-        startGame(14);
+        startGame(Difficulty.MEDIUM);
     }
 
     /**
-     * Pone la dificultad en dificil y le da 20 pistas al jugador
+     * Empieza un juego de nivel facil: se resuelve con tecnicas simples y deja la mayor proporcion de
+     * pistas
      * @param event pulsar el boton del usuario
      */
     @FXML
     void setDifficultyEasy(ActionEvent event) {
         removeButtons();
-        startGame(20);
+        startGame(Difficulty.EASY);
+    }
+
+    /**
+     * Continua la partida guardada al salir del juego la ultima vez
+     * @param event pulsar el boton del usuario
+     */
+    @FXML
+    void resumeGame(ActionEvent event) {
+        removeButtons();
+        SavedGame saved = null;
+        try {
+            saved = GameJournal.load(saveDirectory);
+        } catch (IOException e) {
+            System.err.println("No se pudo leer la partida guardada: " + e.getMessage());
+        }
+        if (saved == null || !saved.getPuzzle().getGeometry().equals(geometry)) {
+            startGame(Difficulty.MEDIUM); // No hay una partida que se pueda continuar
+            return;
+        }
+        Puzzle puzzle = saved.getPuzzle();
+        sudokuModel = new SudokuModel(puzzle);
+        createGrid();
+        int[] attempt = saved.getAttempt();
+        for (int cell = 0; cell < attempt.length; cell++) {
+            int row = geometry.row(cell);
+            int col = geometry.col(cell);
+            if (attempt[cell] != 0 && !puzzle.isGiven(row, col)) {
+                String value = String.valueOf(attempt[cell]);
+                setTextFieldValue(row, col, value);
+                handleCellInput(row, col, value);
+            }
+        }
+        showPuzzle(puzzle);
     }
 
     /**
@@ -88,31 +216,282 @@ public class SudokuController implements ISudokuController {
     }
 
     /**
-     * Genera un GridPane de tamaño 6x6 y en cada casilla agrega un Textfield
-     * Se muestran la cantiad de casillas que indique difficulty
-     * @param difficulty cantidad de pistas
+     * Vuelve a mostrar los botones de dificultad y su letrero, para que el usuario pueda elegir otra vez
+     */
+    private void restoreButtons() {
+        sudokuBase.getChildren().setAll(difficultySelection);
+    }
+
+    /**
+     * Inicia un juego con una cantidad fija de pistas, sin calificar su dificultad. El puzzle con solucion
+     * unica se genera en segundo plano y el tablero se arma cuando esta listo. Los botones del juego usan
+     * {@link #startGame(Difficulty)}, que elige las pistas segun el nivel y el tamaño del tablero
+     * @param difficulty cantidad de pistas que se dejan, no un nivel
      */
     @Override
     public void startGame(int difficulty) {
+        startWhenReady(prefetcher.create(difficulty));
+    }
+
+    /**
+     * Inicia un juego de un nivel de dificultad. Si hay banco de puzzles con puzzles de ese nivel,
+     * se toma uno del banco; si no, se usa el siguiente puzzle preparado en segundo plano, calificado
+     * en ese nivel por las tecnicas que necesita.
+     * @param difficulty nivel de dificultad
+     */
+    @Override
+    public void startGame(Difficulty difficulty) {
+        if (bank == null || bank.size(difficulty) == 0) {
+            startWhenReady(prefetcher.next(difficulty));
+            return;
+        }
+        try {
+            sudokuModel = SudokuModel.fromBank(bank, difficulty, random);
+        } catch (IllegalArgumentException e) {
+            // Registro dañado en el banco: se usa un puzzle generado
+            System.err.println("No se pudo leer el puzzle del banco: " + e.getMessage());
+            startWhenReady(prefetcher.next(difficulty));
+            return;
+        }
+        createGrid();
+        showPuzzle(sudokuModel.getPuzzle());
+    }
+
+    /**
+     * Muestra el juego cuando el modelo este listo. El futuro puede completarse en un hilo de
+     * generacion, asi que la interfaz se actualiza con Platform.runLater
+     * @param future futuro con el modelo del juego
+     */
+    private void startWhenReady(CompletableFuture<ISudokuModel> future) {
+        future.whenComplete((model, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("No se pudo generar el puzzle: " + error.getMessage());
+                if (!shutDown) {
+                    restoreButtons();
+                    new Alert(Alert.AlertType.ERROR, "No se pudo generar el puzzle. Elige la dificultad otra vez.").show();
+                }
+                return;
+            }
+            sudokuModel = model;
+            createGrid();
+            showPuzzle(model.getPuzzle());
+        }));
+    }
+
+    /**
+     * Crea un TextField por cada casilla y agrega la cuadricula al VBox. En tableros de CANVAS_MIN_SIZE
+     * o mas, o con la propiedad sudoku.renderer=canvas, se usa un solo {@link SudokuCanvas} que se pinta
+     * a partir del modelo; sudoku.renderer=fields obliga a usar TextFields
+     */
+    private void createGrid() {
+        buildStart = System.nanoTime();
+        measurePulses();
+        loadCongratsImage();
+        if (useCanvas()) {
+            double cellSize = Math.min(SudokuCanvas.DEFAULT_CELL_SIZE, MAX_CANVAS_SIDE / geometry.size());
+            canvas = new SudokuCanvas(geometry, cellSize);
+            canvas.setInputHandler(this::processInput);
+            canvas.setModel(sudokuModel);
+            sudokuBase.getChildren().add(canvas);
+            fitWindow();
+            canvas.requestFocus();
+            return;
+        }
         grid.getStyleClass().add("custom-grid");
 
-        // Crea el tablero de 6x6 con TextFields
-        for (int row = 0; row < 6; row++) {
-            for (int col = 0; col < 6; col++) {
+        // Crea el tablero con TextFields
+        cells = new TextField[geometry.size()][geometry.size()];
+        for (int row = 0; row < geometry.size(); row++) {
+            for (int col = 0; col < geometry.size(); col++) {
                 TextField cell = createTextField(row, col); //Se añade un textField
+                cells[row][col] = cell;
                 grid.add(cell, col, row);
             }
         }
         sudokuBase.getChildren().add(grid); //Se añade el grid al VBox
+        fitWindow();
+    }
+
+    /**
+     * El FXML tiene medidas fijas para el tablero de 6x6; con tableros mas grandes se deja que la
+     * columna del tablero y la ventana crezcan hasta su tamaño preferido
+     */
+    private void fitWindow() {
+        Scene scene = sudokuBase.getScene();
+        if (geometry.size() <= SudokuModel.DEFAULT_SIZE || scene == null
+                || !(scene.getRoot() instanceof GridPane)) {
+            return;
+        }
+        GridPane root = (GridPane) scene.getRoot();
+        root.setPrefSize(Region.USE_COMPUTED_SIZE, Region.USE_COMPUTED_SIZE);
+        ColumnConstraints boardColumn = root.getColumnConstraints().get(0);
+        boardColumn.setPrefWidth(Region.USE_COMPUTED_SIZE);
+        boardColumn.setMaxWidth(Double.MAX_VALUE);
+        scene.getWindow().sizeToScene();
+    }
+
+    /**
+     * Ya se ve la seleccion de dificultad: desde aqui se empiezan a generar puzzles, para que la
+     * generacion no compita con el arranque
+     */
+    private void firstFrame() {
+        StartupProbe.markFirstFrame();
+        prefetcher.start();
+        onFirstFrame.run();
+    }
+
+    /**
+     * @param action accion a ejecutar en el hilo de JavaFX cuando se dibuja el primer cuadro
+     */
+    public void setOnFirstFrame(Runnable action) {
+        onFirstFrame = action;
+    }
+
+    /**
+     * @param action accion a ejecutar en el hilo de JavaFX cuando se dibuja el primer tablero
+     */
+    public void setOnPlayable(Runnable action) {
+        onPlayable = action;
+    }
+
+    private boolean useCanvas() {
+        String renderer = System.getProperty("sudoku.renderer", "");
+        if (renderer.equals("canvas")) {
+            return true;
+        }
+        return !renderer.equals("fields") && geometry.size() >= CANVAS_MIN_SIZE;
+    }
+
+    /**
+     * La imagen de felicitaciones no esta en el FXML para no leerla al arrancar; se carga en segundo
+     * plano al crear el primer tablero y queda lista para cuando se gane
+     */
+    private void loadCongratsImage() {
+        if (congrats_image.getImage() == null) {
+            String url = Objects.requireNonNull(getClass().getResource("/com/example/sudoku/celeb.png")).toExternalForm();
+            congrats_image.setImage(new Image(url, true));
+        }
+    }
+
+    /**
+     * Mide cada pulso de la escena despues del layout: registra el primer cuadro del arranque, la
+     * construccion del tablero y el cuadro de cada tecla, asi se comparan el tablero de TextFields y
+     * el Canvas con las mismas metricas
+     */
+    private void measurePulses() {
+        Scene scene = sudokuBase.getScene();
+        if (measuringPulses || scene == null) {
+            return;
+        }
+        measuringPulses = true;
+        scene.addPostLayoutPulseListener(() -> {
+            long now = System.nanoTime();
+            if (StartupProbe.getFirstFrameMillis() < 0) {
+                firstFrame();
+            }
+            if (buildStart != 0) {
+                SudokuMetrics.recordBoardBuild(now - buildStart);
+                buildStart = 0;
+                if (StartupProbe.getPlayableMillis() < 0) {
+                    StartupProbe.markPlayable();
+                    onPlayable.run();
+                }
+            }
+            if (frameStart != 0) {
+                SudokuMetrics.recordFrame(now - frameStart);
+                frameStart = 0;
+            }
+        });
+    }
 
-        // Muestra las ayudas iniciales al usuario
-        for (int i = 0; i < difficulty; i++) {
-            showHelp(); //Se muestran las ayudas
+    /**
+     * Muestra las pistas del puzzle, que el usuario no puede modificar, y habilita la ayuda
+     * @param puzzle puzzle del juego
+     */
+    private void showPuzzle(Puzzle puzzle) {
+        for (int row = 0; row < geometry.size(); row++) {
+            for (int col = 0; col < geometry.size(); col++) {
+                if (puzzle.isGiven(row, col)) {
+                    int number = sudokuModel.get(row, col);
+                    setTextFieldValue(row, col, String.valueOf(number));
+                    sudokuModel.setAttempt(row, col, number);
+                    TextField cell = getTextField(row, col);
+                    if (cell != null) {
+                        cell.setEditable(false);
+                    }
+                }
+            }
         }
 
         //Se vuelve visible la opcion de ayuda
         helpButton.setVisible(true);
         helpLabel.setVisible(true);
+        saveSnapshot();
+    }
+
+    /**
+     * Guarda una instantanea de la partida actual; desde ahi el diario registra cada jugada
+     */
+    private void saveSnapshot() {
+        Puzzle puzzle = sudokuModel.getPuzzle();
+        if (puzzle == null) {
+            return;
+        }
+        int[] attempt = new int[geometry.cellCount()];
+        for (int cell = 0; cell < attempt.length; cell++) {
+            attempt[cell] = sudokuModel.getAttempt(geometry.row(cell), geometry.col(cell));
+        }
+        try {
+            if (journal == null) {
+                journal = new GameJournal(saveDirectory);
+            }
+            journal.saveSnapshot(puzzle, attempt);
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar la partida: " + e.getMessage());
+            journal = null;
+        }
+    }
+
+    /**
+     * Registra una jugada en el diario. Solo copia la jugada a un buffer; se escribe a disco en lotes
+     * @param row fila
+     * @param col columna
+     * @param num numero ingresado, 0 si se vacio la celda
+     */
+    private void recordMove(int row, int col, int num) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(geometry.cell(row, col), num);
+            scheduleJournalFlush();
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar la jugada: " + e.getMessage());
+            journal = null;
+        }
+    }
+
+    /**
+     * Programa la escritura de las jugadas pendientes para FLUSH_INTERVAL_MILLIS despues de la ultima
+     * jugada. El diario solo escribe por tiempo cuando llega otra jugada, asi que sin esto una racha de
+     * jugadas que termina antes del intervalo quedaria en el buffer hasta la siguiente.
+     */
+    private void scheduleJournalFlush() {
+        if (journalFlush == null) {
+            journalFlush = new PauseTransition(Duration.millis(GameJournal.FLUSH_INTERVAL_MILLIS));
+            journalFlush.setOnFinished(event -> {
+                if (journal == null) {
+                    return;
+                }
+                try {
+                    journal.flush();
+                } catch (IOException e) {
+                    System.err.println("No se pudo guardar la jugada: " + e.getMessage());
+                    journal = null;
+                }
+            });
+        }
+        journalFlush.playFromStart();
     }
 
     /**
@@ -121,64 +500,85 @@ public class SudokuController implements ISudokuController {
      */
     @FXML
     void helpButton(ActionEvent event) {
-        showHelp();
+        if (!showHelp()) {
+            helpButton.setDisable(true); // No quedan celdas en las que ayudar
+        }
     }
 
     /**
      * Establece el valor de un {@code TextField} específico en la cuadrícula del Sudoku.
      *
-     * Este metodo busca el {@code TextField} en la posición especificada dentro del {@code GridPane}
-     * y, si lo encuentra, le asigna el valor proporcionado.
+     * Este metodo toma el {@code TextField} del indice de celdas y le asigna el valor proporcionado.
      *
      * @param row La fila del {@code TextField} en la cuadrícula.
      * @param col La columna del {@code TextField} en la cuadrícula.
      * @param value El valor que se quiere establecer en el {@code TextField}.
      */
     public void setTextFieldValue(int row, int col, String value) {
-        // Busca el nodo (TextField) en la posición específica
-        for (Node node : grid.getChildren()) {
-            if (GridPane.getRowIndex(node) == row && GridPane.getColumnIndex(node) == col) {
-                // Si se encuentra el TextField en la fila y columna especificadas
-                if (node instanceof TextField) {
-                    ((TextField) node).setText(value); // Asignar el valor al TextField
-                }
-                break;
-            }
+        TextField cell = getTextField(row, col);
+        if (cell != null) {
+            cell.setText(value); // Asignar el valor al TextField
         }
     }
 
     /**
      * Muestra una ayuda al usuario colocando un valor correcto en una celda vacía o incorrecta.
      *
-     * Este metodo selecciona aleatoriamente una celda en la cuadrícula del Sudoku y, si la celda está vacía
-     * o tiene un valor incorrecto, coloca el valor correcto y actualiza el intento en el modelo.
+     * Si el intento no tiene errores se usa el motor de pistas del modelo, que deduce la siguiente
+     * celda con tecnicas logicas y se muestra la tecnica usada. Si hay errores, o no hay un paso
+     * logico, se elige al azar una celda del conjunto de celdas sin resolver del modelo (O(1)).
+     * El valor se procesa como si lo hubiera escrito el usuario.
      *
-     * Usa un ciclo para seguir seleccionando posiciones aleatorias hasta encontrar una celda que cumpla
-     * con las condiciones para mostrar la ayuda.
+     * @return true si se dio la ayuda, false si no hay celdas vacías ni incorrectas.
      */
     @Override
-    public void showHelp() {
-        Random random = new Random();
-        boolean helpGiven = false;
-
-        // Seleccionar una celda aleatoria hasta encontrar una vacía o incorrecta
-        while (!helpGiven) {
-            int randomRow = random.nextInt(6); // Selecciona una fila aleatoria
-            int randomCol = random.nextInt(6); // Selecciona una columna aleatoria
-            Integer number = sudokuModel.getBoard().get(randomRow).get(randomCol);
-
-            // Obtener el valor correcto del modelo
-            String correctValue = number.toString();
-
-            // Obtener el TextField en la posición aleatoria
-            TextField cell = getTextField(randomRow, randomCol);
-
-            // Si la celda está vacía o tiene un valor incorrecto, muestra la ayuda
-            if (cell != null && (cell.getText().isEmpty() || !cell.getText().equals(correctValue))) {
-                setTextFieldValue(randomRow, randomCol, correctValue);
-                helpGiven = true; // Salir del ciclo cuando se haya dado la ayuda
+    public boolean showHelp() {
+        int row;
+        int col;
+        HintEvent event = new HintEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Hint hint = sudokuModel.getWrongCount() == 0 ? sudokuModel.findLogicalHint() : null;
+        if (hint != null) {
+            row = hint.getRow();
+            col = hint.getCol();
+            helpLabel.setText(hint.getTechnique().getDescription());
+        } else {
+            int cell = sudokuModel.nextHintCell(random);
+            if (cell == ISudokuModel.NO_HINT) {
+                return false; // El tablero ya esta resuelto
+            }
+            row = geometry.row(cell);
+            col = geometry.col(cell);
+        }
+        SudokuMetrics.recordHint(System.nanoTime() - start, hint != null);
+        if (event.shouldCommit()) {
+            event.technique = hint != null ? hint.getTechnique().name() : "";
+            event.logical = hint != null;
+            event.commit();
+        }
+        String correctValue = String.valueOf(sudokuModel.get(row, col)); // Obtener el valor correcto del modelo
+        setTextFieldValue(row, col, correctValue);
+        handleCellInput(row, col, correctValue);
+        return true;
+    }
+
+    /**
+     * Pinta una celda segun si su numero esta repetido en su fila, columna o subcuadricula
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     */
+    private void markConflict(int row, int col) {
+        TextField cell = getTextField(row, col);
+        if (cell == null) {
+            return;
+        }
+        if (sudokuModel.isInConflict(row, col)) {
+            if (!cell.getStyleClass().contains("wrong")) {
+                cell.getStyleClass().add("wrong");
             }
-            sudokuModel.getAttempt().get(randomRow).set(randomCol, number);
+        } else {
+            cell.getStyleClass().remove("wrong");
         }
     }
 
@@ -186,22 +586,19 @@ public class SudokuController implements ISudokuController {
      * Obtiene el TextField ubicado en una posición específica de la cuadrícula.
      * @param row La fila de la celda en la cuadrícula.
      * @param col La columna de la celda en la cuadrícula.
-     * @return El TextField en la posición especificada, o null si no se encuentra.
+     * @return El TextField en la posición especificada, o null si la cuadrícula no se ha creado.
      */
     private TextField getTextField(int row, int col) {
-        for (Node node : grid.getChildren()) {
-            if (GridPane.getRowIndex(node) == row && GridPane.getColumnIndex(node) == col && node instanceof TextField) {
-                return (TextField) node; // Devuelve el TextField en esa posición
-            }
-        }
-        return null; // Si no se encuentra el TextField, devuelve null
+        return cells == null ? null : cells[row][col];
     }
 
     /**
      * Revisa si el valor que ingresa el usuario es valido si no lo es, lo desecha
      * Ingresa el valor a la matriz Attempt, en caso de que se ingrese de la ayuda tambien lo guarda
      * Si el valor es incorrecto, se marca el borde rojo hasta que se ingrese el valor correcro
-     * Se comparan los 2 arreglos, en caso de que sean iguals se acaba el juego
+     * Las celdas que repiten un numero en su fila, columna o subcuadricula se pintan de rojo; el modelo
+     * indica cuales cambiaron con la jugada, asi solo se vuelve a pintar esas celdas
+     * Se consulta al modelo si el intento ya es igual a la solucion, en ese caso se acaba el juego
      * @param row Fila
      * @param col Columna
      * @param value Valor de la celda
@@ -209,11 +606,23 @@ public class SudokuController implements ISudokuController {
     @Override
     public void handleCellInput(int row, int col, String value) {
         TextField cell = getTextField(row, col); // Obtener el TextField correspondiente
+        if (conflictChanges.length < sudokuModel.getMaxConflictChanges()) {
+            conflictChanges = new int[sudokuModel.getMaxConflictChanges()]; // Las variantes cambian mas celdas por jugada
+        }
 
+        int before = sudokuModel.getAttempt(row, col);
+        int changes;
         if (!value.isEmpty()) {
-            sudokuModel.getAttempt().get(row).set(col, Integer.parseInt(value)); // Solo actualizar el modelo si no está vacío
+            changes = sudokuModel.setAttempt(row, col, Integer.parseInt(value), conflictChanges); // Solo actualizar el modelo si no está vacío
         } else {
-            sudokuModel.getAttempt().get(row).set(col, null); // O establecer como nulo o vacío en el modelo
+            changes = sudokuModel.setAttempt(row, col, 0, conflictChanges); // O establecer como vacío (0) en el modelo
+        }
+        for (int i = 0; i < changes; i++) {
+            markConflict(geometry.row(conflictChanges[i]), geometry.col(conflictChanges[i]));
+        }
+        int after = sudokuModel.getAttempt(row, col);
+        if (after != before) {
+            recordMove(row, col, after); // Las teclas que no cambian la celda no van al diario
         }
 
         if (value.isEmpty()) {
@@ -224,11 +633,13 @@ public class SudokuController implements ISudokuController {
             return; // Salir si el campo está vacío
         }
 
-        Integer num = Integer.parseInt(value); // Convertir el valor a un número entero
+        int num = Integer.parseInt(value); // Convertir el valor a un número entero
 
 
 
-        if (!num.equals(sudokuModel.getBoard().get(row).get(col))) {
+        if (cell == null) {
+            // El Canvas pinta el borde a partir del modelo
+        } else if (!sudokuModel.isCorrectValue(row, col, num)) {
             cell.setStyle("-fx-border-color: red;");
 
         } else {
@@ -236,9 +647,10 @@ public class SudokuController implements ISudokuController {
         }
 
 
-        // Comprobar si el juego ha terminado
+        // Comprobar si el juego ha terminado, el modelo lleva la cuenta de las celdas correctas
 
-        if (isGameOver(sudokuModel.getBoard(), sudokuModel.getAttempt())) {
+        if (sudokuModel.isSolved()) {
+            deleteSave(); // Una partida terminada no se puede continuar
             congrats_one.setVisible(true);
             congrats_two.setVisible(true);
             congrats_image.setVisible(true);
@@ -248,7 +660,7 @@ public class SudokuController implements ISudokuController {
     /**
      * Crea y configura un TextField para una celda del Sudoku.
      * El listener detecta cuando el usuario ha terminado de ingresar un valor y valida que el valor
-     * sea un número entre 1 y 6, actualizando el modelo en consecuencia.
+     * sea un número entre 1 y el tamaño del tablero, actualizando el modelo en consecuencia.
      *
      * @param row La fila de la celda en la cuadrícula.
      * @param col La columna de la celda en la cuadrícula.
@@ -260,20 +672,54 @@ public class SudokuController implements ISudokuController {
         textField.setMaxWidth(50);
 
         // Añadir un listener para detectar cuando el usuario ha terminado de ingresar un número
-        textField.setOnKeyReleased(event -> {
-            String input = textField.getText(); // Obtener el valor del TextField
-
-            // Verificar si el valor ingresado es un número válido entre 1 y 6
-            if (input.matches("[1-6]|")) { // Aceptar números del 1 al 6 o cadena vacía
-                handleCellInput(row, col, input); // Procesar el input
-            }
-        });
+        textField.setOnKeyReleased(event -> processInput(row, col, textField.getText()));
 
         // Añadir el estilo del archivo CSS al TextField
         textField.getStyleClass().add("text-field");
         return textField;
     }
 
+    /**
+     * Procesa lo que el usuario escribio en una celda, desde un TextField o desde el Canvas, y mide
+     * la validacion y el cuadro que la muestra
+     * @param row La fila de la celda.
+     * @param col La columna de la celda.
+     * @param input texto de la celda
+     */
+    private void processInput(int row, int col, String input) {
+        // Verificar si el valor ingresado es un número válido del tablero o cadena vacía
+        if (isValidInput(input)) {
+            ValidationEvent validation = new ValidationEvent();
+            validation.begin();
+            long start = System.nanoTime();
+            frameStart = start;
+            handleCellInput(row, col, input); // Procesar el input
+            SudokuMetrics.recordValidation(System.nanoTime() - start);
+            if (validation.shouldCommit()) {
+                validation.row = row;
+                validation.col = col;
+                validation.correct = !input.isEmpty()
+                        && sudokuModel.isCorrectValue(row, col, Integer.parseInt(input));
+                validation.commit();
+            }
+        }
+    }
+
+    /**
+     * Revisa si el texto de una celda es vacio o un numero entre 1 y el tamaño del tablero
+     * @param input texto de la celda
+     * @return true si el texto es valido
+     */
+    private boolean isValidInput(String input) {
+        if (input.isEmpty()) {
+            return true;
+        }
+        if (input.length() > 2 || !input.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        return geometry.isValidNumber(Integer.parseInt(input));
+    }
+
     /**
      * Toma cada valor del sudoku correcto y lo compara con el valor en la misma casilla que Attempt
      * @param board Sudoku correcto
@@ -281,9 +727,10 @@ public class SudokuController implements ISudokuController {
      * @return True si son iguales, False si no
      */
     public boolean isGameOver(ArrayList<ArrayList<Integer>> board, ArrayList<ArrayList<Integer>> attempt) {
-        // Recorrer todas las posiciones de la matriz 6x6
-        for (int row = 0; row < 6; row++) {
-            for (int col = 0; col < 6; col++) {
+        // Recorrer todas las posiciones de la matriz
+        int size = board.size();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 // Comparar los valores en la posición correspondiente
                 if (!board.get(row).get(col).equals(attempt.get(row).get(col))) {
                     return false; // Si algún valor no coincide, devolver false
@@ -299,6 +746,21 @@ public class SudokuController implements ISudokuController {
         initializeGame(); // Llamar al metodo de inicialización del juego
     }
 
+    /**
+     * Borra la partida guardada
+     */
+    private void deleteSave() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.delete();
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar la partida guardada: " + e.getMessage());
+        }
+        journal = null;
+    }
+
     /**
      * Control que permite salir del juego
      * @param event
@@ -307,6 +769,31 @@ public class SudokuController implements ISudokuController {
     private void handleExitButtonStage(ActionEvent event) {
         // Obtener el Stage a partir del evento
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
+        shutdown();
         stage.close(); // Cierra la ventana actual
     }
+
+    /**
+     * Termina el juego antes de cerrar la ventana: descarta los puzzles en preparacion y guarda la
+     * partida con una instantanea final. Se llama desde el boton de salir y al cerrar la ventana con la
+     * X del sistema; la segunda llamada no hace nada.
+     */
+    public void shutdown() {
+        if (shutDown) {
+            return;
+        }
+        shutDown = true;
+        prefetcher.close(); // Se descartan los puzzles que se estaban preparando
+        if (journal != null) {
+            saveSnapshot(); // La instantanea final incluye el diario, que vuelve a quedar vacio
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("No se pudo cerrar la partida guardada: " + e.getMessage());
+            }
+        }
+        if (Boolean.getBoolean("sudoku.metrics")) {
+            System.out.println(SudokuMetrics.summary());
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR del llenado de un tablero resuelto con backtracking. Si no hay una grabacion activa
+ * solo cuesta revisar {@link #shouldCommit()}.
+ */
+@Name("com.example.sudoku.BoardFill")
+@Label("Llenado de tablero")
+@Category("Sudoku")
+@Description("Llenado de un tablero resuelto con backtracking")
+public class BoardFillEvent extends Event {
+
+    @Label("Lado")
+    public int size;
+
+    @Label("Nodos")
+    @Description("Numeros colocados durante la busqueda, contando todos los intentos")
+    public long nodes;
+
+    @Label("Retrocesos")
+    @Description("Numeros deshechos durante la busqueda")
+    public long backtracks;
+
+    @Label("Reinicios")
+    public int restarts;
+
+    @Label("Lleno")
+    @Description("False si se acabo el plazo o el limite de nodos antes de llenar el tablero")
+    public boolean filled;
+}
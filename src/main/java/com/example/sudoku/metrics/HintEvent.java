@@ -0,0 +1,24 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de la busqueda de una ayuda, en el juego o en el servicio HTTP
+ */
+@Name("com.example.sudoku.Hint")
+@Label("Ayuda")
+@Category("Sudoku")
+@Description("Busqueda de una ayuda para el jugador")
+public class HintEvent extends Event {
+
+    @Label("Tecnica")
+    @Description("Tecnica mas dificil que hizo falta, o vacio si la ayuda fue una celda al azar")
+    public String technique;
+
+    @Label("Logica")
+    public boolean logical;
+}
@@ -0,0 +1,93 @@
+package com.example.sudoku.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de duraciones en nanosegundos con cubetas de potencias de dos.
+ *
+ * Registrar una duracion cuesta un numberOfLeadingZeros y un incremento de {@link LongAdder}, que
+ * reparte la contencion entre hilos, asi que se puede dejar activo en produccion. Los percentiles
+ * devuelven el limite superior de la cubeta, es decir, como mucho el doble del valor real.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registra una duracion
+     * @param nanos duracion en nanosegundos
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets[BUCKETS - Long.numberOfLeadingZeros(value | 1)].increment();
+        totalNanos.add(value);
+    }
+
+    /**
+     * @return cantidad de duraciones registradas
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return promedio en nanosegundos, 0 si no hay registros
+     */
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    /**
+     * Calcula un percentil aproximado
+     * @param fraction percentil entre 0 y 1, por ejemplo 0.99
+     * @return limite superior en nanosegundos de la cubeta del percentil, 0 si no hay registros
+     */
+    public long getPercentileNanos(double fraction) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "n=%d media=%.1fus p50<=%.1fus p99<=%.1fus",
+                getCount(), getMeanNanos() / 1e3, getPercentileNanos(0.50) / 1e3, getPercentileNanos(0.99) / 1e3);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de la generacion de un puzzle a partir de un tablero resuelto
+ */
+@Name("com.example.sudoku.PuzzleGeneration")
+@Label("Generacion de puzzle")
+@Category("Sudoku")
+@Description("Quitar pistas de un tablero resuelto hasta dejar un puzzle con solucion unica")
+public class PuzzleGenerationEvent extends Event {
+
+    @Label("Lado")
+    public int size;
+
+    @Label("Pistas pedidas")
+    public int targetClues;
+
+    @Label("Pistas")
+    @Description("Pistas que quedaron en el puzzle")
+    public int clues;
+
+    @Label("Tiempo agotado")
+    @Description("Se acabo el presupuesto antes de llegar a las pistas pedidas")
+    public boolean timedOut;
+}
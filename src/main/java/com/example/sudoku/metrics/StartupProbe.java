@@ -0,0 +1,87 @@
+package com.example.sudoku.metrics;
+
+import java.time.Instant;
+
+/**
+ * Mide el arranque de la aplicacion desde que inicia el proceso: el tiempo al primer cuadro (la
+ * ventana con los botones de dificultad ya dibujada) y el tiempo hasta que se puede jugar (el primer
+ * tablero dibujado).
+ *
+ * Con la propiedad sudoku.probe=true la aplicacion elige sola una dificultad despues del primer
+ * cuadro, escribe una linea con los dos tiempos al poder jugar y se cierra; eso lo hace
+ * com.example.sudoku.view.StartupRun, no el controlador. Esa linea la leen la
+ * prueba de arranque de los benchmarks y el entrenamiento del archivo AppCDS:
+ * <pre>
+ * startup firstFrameMs=412 playableMs=1290
+ * </pre>
+ */
+public final class StartupProbe {
+
+    public static final String PROPERTY = "sudoku.probe";
+    public static final String PREFIX = "startup ";
+
+    private static final long PROCESS_START = processStart();
+    private static volatile long firstFrameMillis = -1;
+    private static volatile long playableMillis = -1;
+
+    private StartupProbe() {
+    }
+
+    /**
+     * @return true si se pidio medir el arranque y cerrar la aplicacion al poder jugar
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /**
+     * Registra el primer cuadro; las llamadas siguientes no cambian el tiempo
+     */
+    public static void markFirstFrame() {
+        if (firstFrameMillis < 0) {
+            firstFrameMillis = sinceStart();
+        }
+    }
+
+    /**
+     * Registra que el primer tablero ya se dibujo y, si la medicion esta activa, escribe la linea
+     * con los tiempos
+     */
+    public static void markPlayable() {
+        if (playableMillis >= 0) {
+            return;
+        }
+        playableMillis = sinceStart();
+        if (isEnabled()) {
+            System.out.println(PREFIX + "firstFrameMs=" + firstFrameMillis + " playableMs=" + playableMillis);
+        }
+    }
+
+    /**
+     * @return milisegundos desde el inicio del proceso hasta el primer cuadro, o -1 si aun no se dibuja
+     */
+    public static long getFirstFrameMillis() {
+        return firstFrameMillis;
+    }
+
+    /**
+     * @return milisegundos desde el inicio del proceso hasta el primer tablero, o -1 si aun no se dibuja
+     */
+    public static long getPlayableMillis() {
+        return playableMillis;
+    }
+
+    private static long sinceStart() {
+        return System.currentTimeMillis() - PROCESS_START;
+    }
+
+    /**
+     * Hora de inicio del proceso segun el sistema operativo; si no se conoce, la hora en que se cargo
+     * esta clase, que deja fuera el arranque de la JVM
+     */
+    private static long processStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElseGet(System::currentTimeMillis);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.sudoku.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores del juego que se pueden consultar en cualquier momento: tiempos de llenado y de
+ * generacion de puzzles, retrocesos del backtracking, ayudas dadas, latencia de validacion de cada
+ * tecla y costo de dibujar el tablero en la interfaz.
+ *
+ * Son globales al proceso y seguros entre hilos. Cada registro es un incremento de
+ * {@link LongAdder}, sin candados ni memoria nueva, para poder dejarlos activos en produccion. Para
+ * ver eventos individuales con su hilo y su pila se usan los eventos JFR de este paquete.
+ */
+public final class SudokuMetrics {
+
+    private static final LatencyHistogram FILL = new LatencyHistogram();
+    private static final LatencyHistogram GENERATION = new LatencyHistogram();
+    private static final LatencyHistogram VALIDATION = new LatencyHistogram();
+    private static final LatencyHistogram HINT = new LatencyHistogram();
+    private static final LatencyHistogram BOARD_BUILD = new LatencyHistogram();
+    private static final LatencyHistogram FRAME = new LatencyHistogram();
+    private static final LongAdder BACKTRACKS = new LongAdder();
+    private static final LongAdder RESTARTS = new LongAdder();
+    private static final LongAdder EXPIRED_FILLS = new LongAdder();
+    private static final LongAdder LOGICAL_HINTS = new LongAdder();
+
+    private SudokuMetrics() {
+    }
+
+    /**
+     * Registra el llenado de un tablero resuelto
+     * @param nanos duracion
+     * @param backtracks numeros deshechos durante el llenado
+     * @param restarts reinicios de la busqueda
+     * @param filled false si se acabo el plazo o el limite de nodos antes de llenar el tablero
+     */
+    public static void recordFill(long nanos, long backtracks, int restarts, boolean filled) {
+        FILL.record(nanos);
+        BACKTRACKS.add(backtracks);
+        RESTARTS.add(restarts);
+        if (!filled) {
+            EXPIRED_FILLS.increment();
+        }
+    }
+
+    /**
+     * Registra la generacion de un puzzle (quitar pistas de un tablero resuelto)
+     * @param nanos duracion
+     */
+    public static void recordGeneration(long nanos) {
+        GENERATION.record(nanos);
+    }
+
+    /**
+     * Registra una ayuda dada al jugador
+     * @param nanos tiempo en encontrar la ayuda
+     * @param logical true si la ayuda salio de una tecnica logica y no de una celda al azar
+     */
+    public static void recordHint(long nanos, boolean logical) {
+        HINT.record(nanos);
+        if (logical) {
+            LOGICAL_HINTS.increment();
+        }
+    }
+
+    /**
+     * Registra la validacion de una tecla, desde que se suelta hasta que se actualiza el estilo de la celda
+     * @param nanos duracion
+     */
+    public static void recordValidation(long nanos) {
+        VALIDATION.record(nanos);
+    }
+
+    /**
+     * Registra la construccion del tablero en la interfaz, desde que se crean las celdas hasta que
+     * termina el primer pulso de layout que las muestra
+     * @param nanos duracion
+     */
+    public static void recordBoardBuild(long nanos) {
+        BOARD_BUILD.record(nanos);
+    }
+
+    /**
+     * Registra el cuadro de una tecla, desde que se suelta hasta que termina el pulso de layout que
+     * muestra el cambio (estilos, layout y dibujo de las celdas cambiadas)
+     * @param nanos duracion
+     */
+    public static void recordFrame(long nanos) {
+        FRAME.record(nanos);
+    }
+
+    public static LatencyHistogram getFillTimes() {
+        return FILL;
+    }
+
+    public static LatencyHistogram getGenerationTimes() {
+        return GENERATION;
+    }
+
+    public static LatencyHistogram getValidationTimes() {
+        return VALIDATION;
+    }
+
+    public static LatencyHistogram getHintTimes() {
+        return HINT;
+    }
+
+    public static LatencyHistogram getBoardBuildTimes() {
+        return BOARD_BUILD;
+    }
+
+    public static LatencyHistogram getFrameTimes() {
+        return FRAME;
+    }
+
+    /**
+     * @return retrocesos del backtracking en todos los llenados
+     */
+    public static long getBacktracks() {
+        return BACKTRACKS.sum();
+    }
+
+    /**
+     * @return reinicios del backtracking en todos los llenados
+     */
+    public static long getFillRestarts() {
+        return RESTARTS.sum();
+    }
+
+    /**
+     * @return llenados abandonados por plazo o por limite de nodos
+     */
+    public static long getExpiredFills() {
+        return EXPIRED_FILLS.sum();
+    }
+
+    /**
+     * @return ayudas dadas, logicas o al azar
+     */
+    public static long getHintsGiven() {
+        return HINT.getCount();
+    }
+
+    /**
+     * @return ayudas que salieron de una tecnica logica
+     */
+    public static long getLogicalHints() {
+        return LOGICAL_HINTS.sum();
+    }
+
+    /**
+     * Pone todos los contadores en cero
+     */
+    public static void reset() {
+        FILL.reset();
+        GENERATION.reset();
+        VALIDATION.reset();
+        HINT.reset();
+        BOARD_BUILD.reset();
+        FRAME.reset();
+        BACKTRACKS.reset();
+        RESTARTS.reset();
+        EXPIRED_FILLS.reset();
+        LOGICAL_HINTS.reset();
+    }
+
+    /**
+     * @return resumen de todos los contadores, una linea por contador
+     */
+    public static String summary() {
+        return "llenado: " + FILL + ", retrocesos=" + getBacktracks() + ", reinicios=" + getFillRestarts()
+                + ", abandonados=" + getExpiredFills() + "\n"
+                + "generacion: " + GENERATION + "\n"
+                + "ayudas: " + HINT + ", logicas=" + getLogicalHints() + "\n"
+                + "validacion: " + VALIDATION + "\n"
+                + "tablero: " + BOARD_BUILD + "\n"
+                + "cuadros: " + FRAME;
+    }
+}
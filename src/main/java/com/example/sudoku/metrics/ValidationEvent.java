@@ -0,0 +1,26 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR de la validacion de una tecla en el tablero
+ */
+@Name("com.example.sudoku.Validation")
+@Label("Validacion de tecla")
+@Category("Sudoku")
+@Description("Desde que se suelta una tecla en una celda hasta que se actualiza su estilo")
+public class ValidationEvent extends Event {
+
+    @Label("Fila")
+    public int row;
+
+    @Label("Columna")
+    public int col;
+
+    @Label("Correcto")
+    public boolean correct;
+}
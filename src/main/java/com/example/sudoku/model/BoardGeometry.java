@@ -0,0 +1,218 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Geometria de un tablero de sudoku: tamaño del lado y forma de las subcuadriculas.
+ * Precalcula, para cada celda del arreglo plano, su fila, su columna y su subcuadricula,
+ * para que el modelo, el controlador y las validaciones no repitan la aritmetica de cajas.
+ * Soporta tableros de 4x4 hasta 25x25; los numeros se representan como bits 1..size de un int.
+ */
+public final class BoardGeometry {
+
+    public static final int MIN_SIZE = 4;
+    public static final int MAX_SIZE = 25;
+
+    private final int size;
+    private final int boxRows;
+    private final int boxCols;
+    private final int cellCount;
+    private final int allMask;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] boxOf;
+    private final int[][] units; // Filas, luego columnas, luego subcuadriculas
+    private final int[][] peers; // Celdas que comparten alguna unidad con cada celda
+
+    /**
+     * Crea una geometria con una forma de subcuadricula explicita
+     * @param size lado del tablero
+     * @param boxRows filas de cada subcuadricula
+     * @param boxCols columnas de cada subcuadricula
+     */
+    public BoardGeometry(int size, int boxRows, int boxCols) {
+        if (size < MIN_SIZE || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Tamaño de tablero no soportado: " + size);
+        }
+        if (boxRows < 1 || boxCols < 1 || boxRows * boxCols != size) {
+            throw new IllegalArgumentException("Subcuadricula " + boxRows + "x" + boxCols
+                    + " no corresponde a un tablero de " + size);
+        }
+        this.size = size;
+        this.boxRows = boxRows;
+        this.boxCols = boxCols;
+        this.cellCount = size * size;
+        this.allMask = ((1 << size) - 1) << 1;
+        this.rowOf = new int[cellCount];
+        this.colOf = new int[cellCount];
+        this.boxOf = new int[cellCount];
+        int boxesPerRow = size / boxCols;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            rowOf[cell] = row;
+            colOf[cell] = col;
+            boxOf[cell] = (row / boxRows) * boxesPerRow + col / boxCols;
+        }
+
+        this.units = new int[3 * size][size];
+        int[] filled = new int[3 * size];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int[] cellUnits = {rowOf[cell], size + colOf[cell], 2 * size + boxOf[cell]};
+            for (int unit : cellUnits) {
+                units[unit][filled[unit]++] = cell;
+            }
+        }
+
+        this.peers = new int[cellCount][];
+        boolean[] seen = new boolean[cellCount];
+        int[] buffer = new int[3 * size];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int count = 0;
+            for (int unit : new int[]{rowOf[cell], size + colOf[cell], 2 * size + boxOf[cell]}) {
+                for (int other : units[unit]) {
+                    if (other != cell && !seen[other]) {
+                        seen[other] = true;
+                        buffer[count++] = other;
+                    }
+                }
+            }
+            peers[cell] = Arrays.copyOf(buffer, count);
+            for (int i = 0; i < count; i++) {
+                seen[buffer[i]] = false;
+            }
+        }
+    }
+
+    /**
+     * Crea la geometria por defecto para un tamaño: la subcuadricula mas cuadrada posible,
+     * con menos filas que columnas cuando no es cuadrada (6 -> 2x3, 9 -> 3x3, 12 -> 3x4).
+     * @param size lado del tablero
+     * @return la geometria
+     */
+    public static BoardGeometry of(int size) {
+        int boxRows = 1;
+        for (int r = 1; r * r <= size; r++) {
+            if (size % r == 0) {
+                boxRows = r;
+            }
+        }
+        return new BoardGeometry(size, boxRows, size / boxRows);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int boxRows() {
+        return boxRows;
+    }
+
+    public int boxCols() {
+        return boxCols;
+    }
+
+    /**
+     * @return cantidad de celdas del tablero (size * size)
+     */
+    public int cellCount() {
+        return cellCount;
+    }
+
+    /**
+     * @return mascara con los bits 1..size encendidos
+     */
+    public int allMask() {
+        return allMask;
+    }
+
+    public int cell(int row, int col) {
+        return row * size + col;
+    }
+
+    public int row(int cell) {
+        return rowOf[cell];
+    }
+
+    public int col(int cell) {
+        return colOf[cell];
+    }
+
+    public int box(int cell) {
+        return boxOf[cell];
+    }
+
+    public int box(int row, int col) {
+        return boxOf[row * size + col];
+    }
+
+    /**
+     * @return cantidad de unidades (filas, columnas y subcuadriculas)
+     */
+    public int unitCount() {
+        return units.length;
+    }
+
+    /**
+     * Devuelve las celdas de una unidad. Las unidades 0..size-1 son filas, size..2*size-1 columnas
+     * y 2*size..3*size-1 subcuadriculas. El arreglo es compartido y no debe modificarse.
+     * @param unit indice de la unidad
+     * @return indices de las celdas de la unidad
+     */
+    public int[] unitCells(int unit) {
+        return units[unit];
+    }
+
+    public int rowUnit(int cell) {
+        return rowOf[cell];
+    }
+
+    public int colUnit(int cell) {
+        return size + colOf[cell];
+    }
+
+    public int boxUnit(int cell) {
+        return 2 * size + boxOf[cell];
+    }
+
+    /**
+     * Devuelve las celdas que comparten fila, columna o subcuadricula con una celda, sin repetir.
+     * El arreglo es compartido y no debe modificarse.
+     * @param cell indice de la celda
+     * @return indices de las celdas vecinas
+     */
+    public int[] peers(int cell) {
+        return peers[cell];
+    }
+
+    /**
+     * Revisa si un numero es valido para este tablero
+     * @param num numero a revisar
+     * @return true si esta entre 1 y size
+     */
+    public boolean isValidNumber(int num) {
+        return num >= 1 && num <= size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BoardGeometry)) {
+            return false;
+        }
+        BoardGeometry other = (BoardGeometry) o;
+        return size == other.size && boxRows == other.boxRows && boxCols == other.boxCols;
+    }
+
+    @Override
+    public int hashCode() {
+        return (size * 31 + boxRows) * 31 + boxCols;
+    }
+
+    @Override
+    public String toString() {
+        return size + "x" + size + " (" + boxRows + "x" + boxCols + ")";
+    }
+}
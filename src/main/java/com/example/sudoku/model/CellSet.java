@@ -0,0 +1,82 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Conjunto de indices de celdas con agregar, quitar, consultar y elegir al azar en O(1).
+ * Guarda los elementos en un arreglo denso y la posicion de cada celda en otro arreglo,
+ * por lo que no crea objetos despues de construirse.
+ */
+public class CellSet {
+
+    private final int[] dense; // Celdas del conjunto, en las primeras size posiciones
+    private final int[] position; // Posicion de cada celda en dense, o -1 si no esta
+    private int size;
+
+    /**
+     * @param capacity cantidad de celdas posibles (indices de 0 a capacity - 1)
+     */
+    public CellSet(int capacity) {
+        dense = new int[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public boolean contains(int cell) {
+        return position[cell] >= 0;
+    }
+
+    public void add(int cell) {
+        if (position[cell] >= 0) {
+            return;
+        }
+        position[cell] = size;
+        dense[size++] = cell;
+    }
+
+    public void remove(int cell) {
+        int index = position[cell];
+        if (index < 0) {
+            return;
+        }
+        // Se mueve el ultimo elemento al hueco que deja la celda
+        int last = dense[--size];
+        dense[index] = last;
+        position[last] = index;
+        position[cell] = -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Devuelve la celda en una posicion del arreglo denso, para recorrer el conjunto
+     * @param index posicion entre 0 y size() - 1
+     * @return indice de la celda
+     */
+    public int get(int index) {
+        return dense[index];
+    }
+
+    /**
+     * Elige una celda al azar
+     * @param random generador de numeros aleatorios
+     * @return una celda del conjunto, o -1 si esta vacio
+     */
+    public int random(RandomGenerator random) {
+        return size == 0 ? -1 : dense[random.nextInt(size)];
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[dense[i]] = -1;
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.sudoku.model;
+
+/**
+ * Niveles de dificultad del juego.
+ * Cada nivel define la proporcion de pistas que se dejan en el tablero; en el tablero clasico de 6x6
+ * corresponden a las 20, 14 y 8 pistas que usaba el juego.
+ */
+public enum Difficulty {
+    EASY(20.0 / 36),
+    MEDIUM(14.0 / 36),
+    HARD(8.0 / 36);
+
+    private final double clueRatio;
+
+    Difficulty(double clueRatio) {
+        this.clueRatio = clueRatio;
+    }
+
+    /**
+     * Calcula cuantas pistas se quieren dejar para un tablero
+     * @param geometry geometria del tablero
+     * @return cantidad de pistas objetivo
+     */
+    public int targetClues(BoardGeometry geometry) {
+        return (int) Math.round(clueRatio * geometry.cellCount());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.sudoku.model;
+
+/**
+ * Forma de generar los sudokus resueltos del modelo.
+ */
+public enum GenerationMode {
+    /**
+     * Backtracking con orden aleatorio ({@link GridFiller}): cada tablero sale de una busqueda nueva
+     */
+    SEARCH,
+    /**
+     * Transformaciones al azar de un grupo de tableros semilla ({@link GridTransformer}): tiempo
+     * O(celdas) sin busqueda, a cambio de repetir las clases de tableros de las semillas
+     */
+    TRANSFORM
+}
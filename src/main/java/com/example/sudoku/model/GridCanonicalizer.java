@@ -0,0 +1,560 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Lleva un tablero (resuelto o con celdas vacias) a una forma canonica, igual para todos los tableros
+ * que son el mismo sudoku bajo simetrias que conservan las reglas: renombrar los numeros, cambiar filas
+ * dentro de una banda, cambiar bandas, cambiar columnas dentro de una pila, cambiar pilas y, si las
+ * subcuadriculas son cuadradas, trasponer.
+ *
+ * La forma canonica es la menor en orden lexicografico (fila por fila) entre todas las transformaciones.
+ * Se recorren todas las ordenaciones de columnas; para cada una, las filas y los nombres de los numeros
+ * se eligen con ramificacion y poda: en cada paso solo siguen las filas que dejan el menor prefijo
+ * posible y se descarta una rama en cuanto queda mayor que la mejor forma encontrada. Los numeros se
+ * renombran en orden de primera aparicion, que es lo que da el menor prefijo, y el 0 de las celdas
+ * vacias se conserva.
+ *
+ * Cuando hay demasiadas ordenaciones de columnas (tableros de 10x10 en adelante) la forma es parcial:
+ * se cambian pilas pero no columnas dentro de una pila, asi que dos tableros que solo difieren en eso
+ * pueden quedar con formas distintas. Dos tableros con la misma forma siempre son el mismo sudoku.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class GridCanonicalizer {
+
+    public static final int MAX_EXACT_ARRANGEMENTS = 1296; // Ordenaciones de columnas de un 9x9
+    private static final int MAX_PERMUTED = 10; // Mayor n para el que se generan las n! permutaciones
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int bandHeight; // Filas por banda
+    private final int bands;
+    private final boolean transposable;
+    private final boolean exact;
+    private final int[][] arrangements; // Ordenaciones de columnas permitidas: columna de origen por columna
+    private final int[] transposed;
+    private final int[] work; // Forma que se esta armando
+    private final int[] best; // Menor forma encontrada
+    private final int[] label; // Nombre nuevo de cada numero, 0 si aun no tiene
+    private final int[] assigned; // Numeros renombrados, en orden, para poder deshacer
+    private final boolean[] usedRow;
+    private final boolean[] usedBand;
+    private final int[] levelBand; // Banda de origen de cada fila de la forma
+    private final int[][] ties; // Por fila de la forma: filas de origen empatadas con el menor prefijo
+    private final int[][] threshold; // Por fila de la forma: menor fila encontrada
+    private final int[] candidate;
+    // Tableros completos: la segunda fila se arma eligiendo columnas a medida que hacen falta
+    private final int width; // Columnas por pila
+    private final int[] colAt; // Columna de origen en cada posicion, o -1
+    private final int[] posOf; // Posicion de cada columna de origen, o -1
+    private final int[] stackSource; // Pila de origen en cada pila de la forma, o -1
+    private final int[] stackTarget; // Pila de la forma de cada pila de origen, o -1
+    private final int[] nextFree; // Siguiente posicion libre en cada pila de la forma
+    private final int[] image; // Columna de la primera fila donde esta el numero de cada columna de la segunda
+    private final int[] firstRowCol; // Columna de cada numero en la primera fila
+    private int boundStacks;
+    private int[] source;
+    private int[] columns;
+    private int labelCount;
+    private long bestVersion; // Cambia cada vez que se encuentra una forma menor
+
+    /**
+     * @param geometry geometria de los tableros a canonizar
+     */
+    public GridCanonicalizer(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.size();
+        this.bandHeight = geometry.boxRows();
+        this.bands = size / bandHeight;
+        this.transposable = geometry.boxRows() == geometry.boxCols();
+        int stacks = size / geometry.boxCols();
+        long count = factorial(stacks);
+        for (int i = 0; i < stacks && count <= MAX_EXACT_ARRANGEMENTS; i++) {
+            long perStack = factorial(geometry.boxCols());
+            // Se compara antes de multiplicar: con pilas anchas el producto no cabe en un long
+            count = perStack > MAX_EXACT_ARRANGEMENTS ? perStack : count * perStack;
+        }
+        this.exact = count <= MAX_EXACT_ARRANGEMENTS;
+        this.arrangements = arrangements(stacks, geometry.boxCols(), exact);
+        int cells = geometry.cellCount();
+        this.transposed = new int[cells];
+        this.work = new int[cells];
+        this.best = new int[cells];
+        this.label = new int[size + 1];
+        this.assigned = new int[size];
+        this.usedRow = new boolean[size];
+        this.usedBand = new boolean[bands];
+        this.levelBand = new int[size];
+        this.ties = new int[size][size];
+        this.threshold = new int[size][size];
+        this.candidate = new int[size];
+        this.width = geometry.boxCols();
+        this.colAt = new int[size];
+        this.posOf = new int[size];
+        this.stackSource = new int[stacks];
+        this.stackTarget = new int[stacks];
+        this.nextFree = new int[stacks];
+        this.image = new int[size];
+        this.firstRowCol = new int[size + 1];
+    }
+
+    /**
+     * @return true si la forma tiene en cuenta todas las simetrias, false si es parcial
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Calcula la forma canonica de un tablero
+     * @param grid tablero plano, con 0 en las celdas vacias
+     * @return arreglo nuevo con la forma canonica
+     */
+    public int[] canonicalize(int[] grid) {
+        int[] form = new int[grid.length];
+        canonicalize(grid, form);
+        return form;
+    }
+
+    /**
+     * Calcula la forma canonica de un tablero sin crear arreglos
+     * @param grid tablero plano, con 0 en las celdas vacias
+     * @param form arreglo donde se escribe la forma canonica
+     */
+    public void canonicalize(int[] grid, int[] form) {
+        if (grid.length != geometry.cellCount() || form.length != grid.length) {
+            throw new IllegalArgumentException("El tablero no corresponde a la geometria " + geometry);
+        }
+        run(grid);
+        System.arraycopy(best, 0, form, 0, form.length);
+    }
+
+    /**
+     * Huella de 64 bits de la forma canonica, para indices de duplicados. Tableros equivalentes tienen
+     * la misma huella; dos tableros distintos solo coinciden por una colision del hash.
+     * @param grid tablero plano, con 0 en las celdas vacias
+     * @return la huella, nunca 0
+     */
+    public long fingerprint(int[] grid) {
+        if (grid.length != geometry.cellCount()) {
+            throw new IllegalArgumentException("El tablero no corresponde a la geometria " + geometry);
+        }
+        run(grid);
+        long h = 0x9e3779b97f4a7c15L;
+        for (int num : best) {
+            h = (h ^ num) * 0x100000001b3L;
+            h ^= h >>> 29;
+        }
+        // Mezcla final de SplittableRandom
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        h ^= h >>> 31;
+        return h != 0 ? h : 1;
+    }
+
+    /**
+     * Deja en best la forma canonica de un tablero
+     */
+    private void run(int[] grid) {
+        Arrays.fill(best, Integer.MAX_VALUE);
+        if (transposable) {
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    transposed[col * size + row] = grid[row * size + col];
+                }
+            }
+        }
+        boolean complete = exact;
+        for (int i = 0; i < grid.length && complete; i++) {
+            complete = grid[i] != 0;
+        }
+        for (int t = 0; t < (transposable ? 2 : 1); t++) {
+            source = t == 0 ? grid : transposed;
+            if (complete) {
+                searchCompleteGrid();
+                continue;
+            }
+            for (int[] arrangement : arrangements) {
+                columns = arrangement;
+                search(0, 0);
+            }
+        }
+    }
+
+    /**
+     * Busqueda para tableros sin celdas vacias. La primera fila de la forma siempre queda 1..size, porque
+     * los numeros se renombran por orden de aparicion, asi que los nombres quedan dados por las columnas.
+     * En vez de recorrer todas las ordenaciones de columnas, se elige la primera y la segunda fila y las
+     * columnas se van fijando al armar la segunda fila: cada posicion toma el menor valor posible, que
+     * obliga a poner la columna correspondiente en la primera posicion libre. Solo se ramifica cuando
+     * una posicion aun no tiene columna.
+     */
+    private void searchCompleteGrid() {
+        Arrays.fill(colAt, -1);
+        Arrays.fill(posOf, -1);
+        Arrays.fill(stackSource, -1);
+        Arrays.fill(stackTarget, -1);
+        boundStacks = 0;
+        for (int j = 0; j < size; j++) {
+            work[j] = j + 1;
+        }
+        for (int first = 0; first < size; first++) {
+            int cmp = best[0] == Integer.MAX_VALUE ? -1 : 0; // Si ya hay forma, su primera fila es la misma
+            for (int col = 0; col < size; col++) {
+                firstRowCol[source[first * size + col]] = col;
+            }
+            int firstBand = first / bandHeight;
+            usedRow[first] = true;
+            usedBand[firstBand] = true;
+            levelBand[0] = firstBand;
+            boolean bandStart = bandHeight == 1;
+            for (int second = 0; second < size; second++) {
+                int band = second / bandHeight;
+                if (usedRow[second] || (bandStart ? usedBand[band] : band != firstBand)) {
+                    continue;
+                }
+                for (int col = 0; col < size; col++) {
+                    image[col] = firstRowCol[source[second * size + col]];
+                }
+                usedRow[second] = true;
+                usedBand[band] = true;
+                levelBand[1] = band;
+                long version = bestVersion;
+                placeColumn(0, cmp);
+                if (bestVersion != version) {
+                    cmp = 0;
+                }
+                usedRow[second] = false;
+                usedBand[band] = band == firstBand;
+            }
+            usedRow[first] = false;
+            usedBand[firstBand] = false;
+        }
+    }
+
+    /**
+     * Fija la columna de una posicion de la segunda fila de la forma, ramificando si aun no tiene
+     * @param position posicion en la segunda fila
+     * @param cmp comparacion del prefijo con la mejor forma
+     */
+    private void placeColumn(int position, int cmp) {
+        if (position == size) {
+            completeRows(cmp);
+            return;
+        }
+        if (colAt[position] >= 0) {
+            writeSecondRow(position, cmp);
+            return;
+        }
+        int stack = position / width;
+        int bound = stackSource[stack];
+        for (int col = 0; col < size; col++) {
+            int colStack = col / width;
+            if (posOf[col] >= 0 || (bound >= 0 ? colStack != bound : stackTarget[colStack] >= 0)) {
+                continue;
+            }
+            if (bound < 0) {
+                bindStack(colStack);
+            }
+            assign(position, col);
+            long version = bestVersion;
+            writeSecondRow(position, cmp);
+            if (bestVersion != version) {
+                cmp = 0;
+            }
+            unassign(position, col);
+            if (bound < 0) {
+                unbindStack(colStack);
+            }
+        }
+    }
+
+    /**
+     * Escribe el valor de la segunda fila en una posicion que ya tiene columna: la posicion de la
+     * columna de la primera fila con el mismo numero, que se fija en la primera posicion libre si aun
+     * no tiene una
+     */
+    private void writeSecondRow(int position, int cmp) {
+        int target = image[colAt[position]];
+        boolean placed = posOf[target] < 0;
+        boolean bound = false;
+        if (placed) {
+            int targetStack = target / width;
+            if (stackTarget[targetStack] < 0) {
+                bindStack(targetStack);
+                bound = true;
+            }
+            assign(nextFree[stackTarget[targetStack]], target);
+        }
+        int value = posOf[target] + 1;
+        int expected = best[size + position];
+        if (cmp != 0 || value <= expected) {
+            work[size + position] = value;
+            placeColumn(position + 1, cmp != 0 ? cmp : Integer.compare(value, expected));
+        }
+        if (placed) {
+            unassign(posOf[target], target);
+            if (bound) {
+                unbindStack(target / width);
+            }
+        }
+    }
+
+    /**
+     * Con las columnas fijas, los nombres de los numeros quedan dados por la primera fila y el resto
+     * de las filas se elige con la busqueda general
+     */
+    private void completeRows(int cmp) {
+        for (int num = 1; num <= size; num++) {
+            label[num] = posOf[firstRowCol[num]] + 1;
+        }
+        labelCount = size;
+        columns = colAt;
+        search(2, cmp);
+        Arrays.fill(label, 0);
+        labelCount = 0;
+    }
+
+    private void bindStack(int sourceStack) {
+        int stack = boundStacks++;
+        stackSource[stack] = sourceStack;
+        stackTarget[sourceStack] = stack;
+        nextFree[stack] = stack * width;
+    }
+
+    private void unbindStack(int sourceStack) {
+        int stack = --boundStacks;
+        stackSource[stack] = -1;
+        stackTarget[sourceStack] = -1;
+    }
+
+    private void assign(int position, int col) {
+        colAt[position] = col;
+        posOf[col] = position;
+        nextFree[position / width]++;
+    }
+
+    private void unassign(int position, int col) {
+        colAt[position] = -1;
+        posOf[col] = -1;
+        nextFree[position / width]--;
+    }
+
+    /**
+     * Elige la fila de origen de la fila level de la forma
+     * @param level fila de la forma
+     * @param cmp 0 si las filas anteriores son iguales a las de la mejor forma, negativo si ya son menores
+     */
+    private void search(int level, int cmp) {
+        if (level == size) {
+            if (cmp < 0) {
+                System.arraycopy(work, 0, best, 0, best.length);
+                bestVersion++;
+            }
+            return;
+        }
+        // Filas que dejan el menor prefijo; si el prefijo es igual al de la mejor forma, no pueden superarla
+        int[] min = threshold[level];
+        boolean haveMin = false;
+        if (cmp == 0) {
+            System.arraycopy(best, level * size, min, 0, size);
+            haveMin = true;
+        }
+        int[] tied = ties[level];
+        int tieCount = 0;
+        boolean bandStart = level % bandHeight == 0;
+        int first = bandStart ? 0 : levelBand[level - 1] * bandHeight;
+        int last = bandStart ? size : first + bandHeight;
+        for (int row = first; row < last; row++) {
+            if (usedRow[row] || (bandStart && usedBand[row / bandHeight])) {
+                continue;
+            }
+            int order = relabelRow(row, min, haveMin);
+            if (order > 0) {
+                continue;
+            }
+            if (order < 0 || !haveMin) {
+                System.arraycopy(candidate, 0, min, 0, size);
+                haveMin = true;
+                tieCount = 0;
+            }
+            tied[tieCount++] = row;
+        }
+
+        for (int i = 0; i < tieCount; i++) {
+            int row = tied[i];
+            if (repeatsEarlierTie(tied, i)) {
+                continue; // Una fila igual de la misma banda da exactamente las mismas formas
+            }
+            int labelsBefore = labelCount;
+            int offset = level * size;
+            int rowOffset = row * size;
+            for (int j = 0; j < size; j++) {
+                work[offset + j] = rename(source[rowOffset + columns[j]]);
+            }
+            int rowCmp = cmp;
+            if (rowCmp == 0) {
+                rowCmp = Arrays.compare(work, offset, offset + size, best, offset, offset + size);
+            }
+            int band = row / bandHeight;
+            usedRow[row] = true;
+            if (bandStart) {
+                usedBand[band] = true;
+            }
+            levelBand[level] = band;
+            long version = bestVersion;
+            search(level + 1, rowCmp);
+            if (bestVersion != version) {
+                cmp = 0; // La mejor forma ahora comparte las filas anteriores con esta rama
+            }
+            usedRow[row] = false;
+            if (bandStart) {
+                usedBand[band] = false;
+            }
+            while (labelCount > labelsBefore) {
+                label[assigned[--labelCount]] = 0;
+            }
+        }
+    }
+
+    /**
+     * Renombra una fila de origen en el arreglo candidate sin cambiar los nombres asignados, y la compara
+     * con un limite. Se detiene en cuanto la fila queda mayor que el limite.
+     * @return negativo, 0 o positivo segun la fila sea menor, igual o mayor que el limite
+     */
+    private int relabelRow(int row, int[] limit, boolean haveLimit) {
+        int next = labelCount;
+        int order = haveLimit ? 0 : -1;
+        int rowOffset = row * size;
+        int fresh = 0; // Numeros que recibieron nombre en esta fila, para quitarlo al terminar
+        for (int j = 0; j < size; j++) {
+            int num = source[rowOffset + columns[j]];
+            int renamed = 0;
+            if (num != 0) {
+                renamed = label[num];
+                if (renamed == 0) {
+                    renamed = ++next;
+                    label[num] = renamed;
+                    assigned[labelCount + fresh++] = num;
+                }
+            }
+            candidate[j] = renamed;
+            if (order == 0 && renamed != limit[j]) {
+                order = renamed < limit[j] ? -1 : 1;
+                if (order > 0) {
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i < fresh; i++) {
+            label[assigned[labelCount + i]] = 0;
+        }
+        return order;
+    }
+
+    private int rename(int num) {
+        if (num == 0) {
+            return 0;
+        }
+        if (label[num] == 0) {
+            assigned[labelCount++] = num;
+            label[num] = labelCount;
+        }
+        return label[num];
+    }
+
+    private boolean repeatsEarlierTie(int[] tied, int index) {
+        int row = tied[index];
+        for (int i = 0; i < index; i++) {
+            int other = tied[i];
+            if (other / bandHeight == row / bandHeight
+                    && Arrays.equals(source, row * size, row * size + size, source, other * size, other * size + size)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Genera las ordenaciones de columnas: todas las permutaciones de pilas y, si exact, todas las
+     * permutaciones de columnas dentro de cada pila
+     */
+    private static int[][] arrangements(int stacks, int width, boolean exact) {
+        int[][] stackOrders = permutations(stacks);
+        int[][] inside = exact ? permutations(width) : new int[][]{identity(width)};
+        int perStack = inside.length;
+        int total = stackOrders.length;
+        for (int i = 0; i < stacks; i++) {
+            total *= perStack;
+        }
+        int[][] result = new int[total][stacks * width];
+        int index = 0;
+        for (int[] stackOrder : stackOrders) {
+            for (int combo = 0; combo < total / stackOrders.length; combo++) {
+                int[] columns = result[index++];
+                int rest = combo;
+                for (int s = 0; s < stacks; s++) {
+                    int[] within = inside[rest % perStack];
+                    rest /= perStack;
+                    for (int c = 0; c < width; c++) {
+                        columns[s * width + c] = stackOrder[s] * width + within[c];
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return todas las permutaciones de 0..n-1, empezando por la identidad
+     */
+    private static int[][] permutations(int n) {
+        if (n > MAX_PERMUTED) {
+            throw new IllegalArgumentException("Demasiadas permutaciones de " + n + " elementos");
+        }
+        int[][] result = new int[(int) factorial(n)][];
+        permute(identity(n), 0, result, new int[1]);
+        return result;
+    }
+
+    private static int[] identity(int n) {
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    private static void permute(int[] current, int from, int[][] result, int[] count) {
+        if (from == current.length) {
+            result[count[0]++] = current.clone();
+            return;
+        }
+        for (int i = from; i < current.length; i++) {
+            swap(current, from, i);
+            permute(current, from + 1, result, count);
+            swap(current, from, i);
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    /**
+     * @return n!, o Long.MAX_VALUE si no cabe en un long
+     */
+    private static long factorial(int n) {
+        long result = 1;
+        for (int i = 2; i <= n; i++) {
+            if (result > Long.MAX_VALUE / i) {
+                return Long.MAX_VALUE;
+            }
+            result *= i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.metrics.BoardFillEvent;
+import com.example.sudoku.metrics.SudokuMetrics;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Llena un tablero vacio con un sudoku resuelto aleatorio.
+ * Usa backtracking sobre las mascaras de {@link SudokuGrid}, eligiendo siempre la celda con menos
+ * candidatos y probando sus numeros en orden aleatorio. La busqueda es iterativa: la celda y los numeros
+ * por probar de cada profundidad se guardan en arreglos que hacen de pila, asi la profundidad no depende
+ * de la pila del hilo aunque el tablero tenga 625 celdas.
+ *
+ * Cada intento tiene un limite de nodos que sigue la secuencia de Luby (1, 1, 2, 1, 1, 2, 4, ...) por
+ * NODES_PER_CELL nodos por celda. Al pasarse se reinicia desde el tablero vacio, con otro orden al azar.
+ * Los intentos cortos cortan las busquedas que se meten en una rama mala, que son las que forman la cola
+ * lenta de los tableros grandes, y los largos que aparecen cada tanto aseguran que el llenado termine.
+ *
+ * Se puede pasar un plazo y un limite total de nodos; si se acaban el llenado falla y el tablero queda
+ * vacio, para que quien llama use otra forma de obtener un tablero.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class GridFiller {
+
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+    public static final long NO_NODE_LIMIT = Long.MAX_VALUE;
+    private static final int NODES_PER_CELL = 2; // Nodos por celda de un intento de largo 1 en la secuencia
+    private static final int DEADLINE_CHECK_MASK = 0xFF; // Se revisa el reloj cada 256 nodos
+
+    // Resultados de un intento
+    private static final int FILLED = 0;
+    private static final int OUT_OF_NODES = 1;
+    private static final int EXPIRED = 2;
+
+    private final BoardGeometry geometry;
+    private final RandomGenerator random;
+    private final int[] cellAt; // Celda elegida en cada profundidad
+    private final int[][] order; // Orden de prueba de los numeros, uno por profundidad
+    private final int[] counts; // Numeros en order de cada profundidad
+    private final int[] next; // Siguiente numero por probar en cada profundidad
+    private long nodes; // Nodos del ultimo llenado, contando todos los intentos
+    private long backtracks; // Numeros deshechos en el ultimo llenado, contando todos los intentos
+    private int restarts; // Reinicios del ultimo llenado
+
+    /**
+     * @param geometry geometria de los tableros a llenar
+     * @param random generador de numeros aleatorios
+     */
+    public GridFiller(BoardGeometry geometry, RandomGenerator random) {
+        this.geometry = geometry;
+        this.random = random;
+        int cells = geometry.cellCount();
+        this.cellAt = new int[cells];
+        this.order = new int[cells][geometry.size()];
+        this.counts = new int[cells];
+        this.next = new int[cells];
+    }
+
+    /**
+     * Vacia el tablero y lo llena con un sudoku resuelto, sin plazo
+     * @param grid tablero a llenar, con la misma geometria del llenador
+     */
+    public void fill(SudokuGrid grid) {
+        fill(grid, NO_DEADLINE, NO_NODE_LIMIT);
+    }
+
+    /**
+     * Vacia el tablero y trata de llenarlo con un sudoku resuelto antes del plazo
+     * @param grid tablero a llenar, con la misma geometria del llenador
+     * @param deadline valor de System.nanoTime() desde el que se abandona la busqueda, o NO_DEADLINE
+     * @param maxNodes nodos que se pueden visitar entre todos los intentos, o NO_NODE_LIMIT
+     * @return true si el tablero quedo lleno, false si se acabo el plazo o los nodos y quedo vacio
+     */
+    public boolean fill(SudokuGrid grid, long deadline, long maxNodes) {
+        BoardFillEvent event = new BoardFillEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long unit = (long) NODES_PER_CELL * geometry.cellCount();
+        nodes = 0;
+        backtracks = 0;
+        restarts = 0;
+        boolean filled = false;
+        for (int run = 0; ; run++) {
+            grid.reset();
+            long limit = Math.min(unit * luby(run), maxNodes - nodes);
+            int result = search(grid, nodes + limit, deadline);
+            if (result == FILLED) {
+                filled = true;
+                break;
+            }
+            if (result == EXPIRED || nodes >= maxNodes) {
+                grid.reset();
+                break;
+            }
+            restarts++;
+        }
+        SudokuMetrics.recordFill(System.nanoTime() - start, backtracks, restarts, filled);
+        if (event.shouldCommit()) {
+            event.size = geometry.size();
+            event.nodes = nodes;
+            event.backtracks = backtracks;
+            event.restarts = restarts;
+            event.filled = filled;
+            event.commit();
+        }
+        return filled;
+    }
+
+    /**
+     * @return nodos visitados durante el ultimo llenado
+     */
+    public long getLastNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return numeros deshechos durante el ultimo llenado
+     */
+    public long getLastBacktracks() {
+        return backtracks;
+    }
+
+    /**
+     * @return reinicios desde el tablero vacio durante el ultimo llenado
+     */
+    public int getLastRestarts() {
+        return restarts;
+    }
+
+    /**
+     * Un intento de backtracking desde el tablero vacio
+     * @param grid tablero vacio
+     * @param maxNodes valor de nodes en el que se abandona el intento
+     * @param deadline plazo del llenado
+     * @return FILLED, OUT_OF_NODES o EXPIRED
+     */
+    private int search(SudokuGrid grid, long maxNodes, long deadline) {
+        if (!open(grid, 0)) {
+            return FILLED;
+        }
+        int depth = 0;
+        while (depth >= 0) {
+            int cell = cellAt[depth];
+            if (next[depth] > 0) {
+                grid.clear(cell); // El numero anterior de esta celda no llevo a una solucion
+                backtracks++;
+            }
+            if (next[depth] == counts[depth]) {
+                depth--;
+                continue;
+            }
+            grid.set(cell, order[depth][next[depth]++]);
+            if (++nodes > maxNodes) {
+                return OUT_OF_NODES;
+            }
+            if ((nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+                return EXPIRED;
+            }
+            if (!open(grid, depth + 1)) {
+                return FILLED; // No quedan celdas vacias
+            }
+            depth++;
+        }
+        // Se recorrio todo el arbol sin solucion, solo pasa si el tablero inicial no estaba vacio
+        return OUT_OF_NODES;
+    }
+
+    /**
+     * Prepara una profundidad: elige la celda mas restringida y mezcla sus candidatos
+     * @return false si no quedan celdas vacias
+     */
+    private boolean open(SudokuGrid grid, int depth) {
+        int cell = grid.mostConstrainedCell();
+        if (cell < 0) {
+            return false;
+        }
+        int candidates = grid.candidates(cell);
+        int[] numbers = order[depth];
+        int count = 0;
+        while (candidates != 0) {
+            int bit = candidates & -candidates;
+            numbers[count++] = Integer.numberOfTrailingZeros(bit);
+            candidates ^= bit;
+        }
+        // Mezclar los números para hacer la generación aleatoria
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = numbers[i];
+            numbers[i] = numbers[j];
+            numbers[j] = tmp;
+        }
+        cellAt[depth] = cell;
+        counts[depth] = count;
+        next[depth] = 0;
+        return true;
+    }
+
+    /**
+     * Termino de la secuencia de Luby: 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ...
+     * @param run indice del termino, desde 0
+     */
+    static long luby(int run) {
+        long size = 1;
+        int seq = 0;
+        while (size < run + 1) {
+            seq++;
+            size = 2 * size + 1;
+        }
+        long x = run;
+        while (size - 1 != x) {
+            size = (size - 1) >> 1;
+            seq--;
+            x = x % size;
+        }
+        return 1L << seq;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.sudoku.model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Genera sudokus resueltos sin busqueda, transformando tableros semilla.
+ *
+ * Parte de un grupo pequeño de tableros resueltos con {@link GridFiller} y a cada llamada toma uno al
+ * azar y le aplica transformaciones que conservan las reglas: permutar los numeros, las filas dentro de
+ * cada banda, las bandas, las columnas dentro de cada pila y las pilas, y trasponer si las
+ * subcuadriculas son cuadradas. Cada tablero nuevo cuesta O(celdas) y no crea objetos.
+ *
+ * Un tablero transformado es equivalente a su semilla, asi que las clases de tableros distintos que
+ * salen son las de las semillas. Para que no se queden fijas, cada REFRESH_INTERVAL tableros una
+ * semilla se reemplaza por una nueva del llenador.
+ *
+ * El llenador de las semillas tiene un limite de SEED_NODES_PER_CELL nodos por celda, asi ninguna
+ * llamada queda esperando una busqueda sin fin. Si no llena a tiempo una semilla vacia se usa el
+ * tablero patron, que se arma sin busqueda, y la semilla se vuelve a intentar en la siguiente llamada;
+ * si falla una renovacion se sigue con la semilla anterior.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class GridTransformer {
+
+    public static final int DEFAULT_POOL_SIZE = 8; // Tableros semilla
+    public static final int REFRESH_INTERVAL = 64; // Tableros transformados entre cambios de semilla
+    public static final int SEED_NODES_PER_CELL = 16; // Nodos por celda que puede usar el llenador por semilla
+
+    private final BoardGeometry geometry;
+    private final RandomGenerator random;
+    private final GridFiller filler;
+    private final SudokuGrid scratch; // Tablero donde el llenador arma las semillas nuevas
+    private final long seedNodes; // Limite de nodos del llenador por semilla
+    private final int[] pattern; // Tablero patron, se usa mientras no haya semillas del llenador
+    private final int[][] seeds;
+    private final int[] rowMap; // Fila de la semilla para cada fila del tablero nuevo
+    private final int[] colMap; // Columna de la semilla para cada columna del tablero nuevo
+    private final int[] digits; // Numero nuevo para cada numero de la semilla
+    private final int[] groups; // Orden de bandas o pilas
+    private final int[] values;
+    private int seedCount; // Semillas ya llenadas; el grupo se llena la primera vez que se usa
+    private int sinceRefresh;
+
+    /**
+     * @param geometry geometria de los tableros a generar
+     * @param random generador de numeros aleatorios
+     */
+    public GridTransformer(BoardGeometry geometry, RandomGenerator random) {
+        this(geometry, random, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * @param geometry geometria de los tableros a generar
+     * @param random generador de numeros aleatorios
+     * @param poolSize cantidad de tableros semilla
+     */
+    public GridTransformer(BoardGeometry geometry, RandomGenerator random, int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Se necesita al menos una semilla");
+        }
+        this.geometry = geometry;
+        this.random = random;
+        this.filler = new GridFiller(geometry, random);
+        this.scratch = new SudokuGrid(geometry);
+        this.seedNodes = (long) SEED_NODES_PER_CELL * geometry.cellCount();
+        this.pattern = pattern(geometry);
+        this.seeds = new int[poolSize][geometry.cellCount()];
+        int size = geometry.size();
+        this.rowMap = new int[size];
+        this.colMap = new int[size];
+        this.digits = new int[size + 1];
+        this.groups = new int[size];
+        this.values = new int[geometry.cellCount()];
+    }
+
+    /**
+     * Vacia el tablero y lo llena con un sudoku resuelto transformado de una semilla
+     * @param grid tablero a llenar, con la misma geometria del transformador
+     */
+    public void fill(SudokuGrid grid) {
+        int[] seed = nextSeed();
+        int size = geometry.size();
+        shuffleStructured(rowMap, geometry.boxRows());
+        shuffleStructured(colMap, geometry.boxCols());
+        digits[0] = 0;
+        for (int num = 1; num <= size; num++) {
+            digits[num] = num;
+        }
+        for (int num = size; num > 1; num--) {
+            swap(digits, num, 1 + random.nextInt(num));
+        }
+        boolean transpose = geometry.boxRows() == geometry.boxCols() && random.nextBoolean();
+        for (int row = 0; row < size; row++) {
+            int from = rowMap[row] * size;
+            for (int col = 0; col < size; col++) {
+                int num = digits[seed[from + colMap[col]]];
+                values[transpose ? col * size + row : row * size + col] = num;
+            }
+        }
+        grid.load(values);
+    }
+
+    /**
+     * Elige la semilla a transformar, llenando el grupo la primera vez y renovandolo de a una semilla.
+     * Cada llamada hace a lo sumo un llenado, limitado a seedNodes nodos
+     */
+    private int[] nextSeed() {
+        if (seedCount < seeds.length) {
+            if (!filler.fill(scratch, GridFiller.NO_DEADLINE, seedNodes)) {
+                return seedCount > 0 ? seeds[random.nextInt(seedCount)] : pattern;
+            }
+            scratch.copyTo(seeds[seedCount]);
+            return seeds[seedCount++];
+        }
+        if (++sinceRefresh >= REFRESH_INTERVAL) {
+            sinceRefresh = 0;
+            int[] seed = seeds[random.nextInt(seeds.length)];
+            if (filler.fill(scratch, GridFiller.NO_DEADLINE, seedNodes)) {
+                scratch.copyTo(seed);
+            }
+            return seed;
+        }
+        return seeds[random.nextInt(seeds.length)];
+    }
+
+    /**
+     * Arma sin busqueda un sudoku resuelto valido para cualquier forma de subcuadricula: cada fila de
+     * una banda corre los numeros boxCols lugares respecto de la anterior, y cada banda uno respecto de
+     * la anterior
+     */
+    private static int[] pattern(BoardGeometry geometry) {
+        int size = geometry.size();
+        int[] grid = new int[geometry.cellCount()];
+        for (int row = 0; row < size; row++) {
+            int shift = (row % geometry.boxRows()) * geometry.boxCols() + row / geometry.boxRows();
+            for (int col = 0; col < size; col++) {
+                grid[row * size + col] = (shift + col) % size + 1;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Llena map con una permutacion al azar que respeta los grupos: primero se ordenan los grupos y
+     * luego las posiciones dentro de cada grupo
+     * @param map arreglo de size posiciones
+     * @param groupSize posiciones por grupo (filas por banda o columnas por pila)
+     */
+    private void shuffleStructured(int[] map, int groupSize) {
+        int groupCount = map.length / groupSize;
+        for (int g = 0; g < groupCount; g++) {
+            groups[g] = g;
+        }
+        for (int g = groupCount - 1; g > 0; g--) {
+            swap(groups, g, random.nextInt(g + 1));
+        }
+        for (int g = 0; g < groupCount; g++) {
+            int start = g * groupSize;
+            for (int i = 0; i < groupSize; i++) {
+                map[start + i] = groups[g] * groupSize + i;
+            }
+            for (int i = groupSize - 1; i > 0; i--) {
+                swap(map, start + i, start + random.nextInt(i + 1));
+            }
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
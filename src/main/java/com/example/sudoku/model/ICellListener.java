@@ -0,0 +1,19 @@
+package com.example.sudoku.model;
+
+/**
+ * Recibe los cambios de un {@link ISudokuModel}, para que una vista vuelva a pintar solo las celdas
+ * que cambiaron. Se llama en el hilo que modifica el modelo.
+ */
+public interface ICellListener {
+
+    /**
+     * Cambio el numero del intento, su correccion o su estado de conflicto en una celda
+     * @param cell indice de la celda
+     */
+    void cellChanged(int cell);
+
+    /**
+     * Cambio todo el tablero, por ejemplo al generar uno nuevo o vaciar el intento
+     */
+    void boardChanged();
+}
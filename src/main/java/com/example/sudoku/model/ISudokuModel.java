@@ -1,9 +1,56 @@
 package com.example.sudoku.model;
 
+import com.example.sudoku.model.logic.Hint;
+
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.random.RandomGenerator;
 
 public interface ISudokuModel {
 
+    /**
+     * Crea en segundo plano un modelo con un sudoku nuevo y un puzzle del nivel indicado.
+     * El modelo solo se usa desde el hilo del ejecutor hasta que se completa el futuro.
+     * @param geometry geometria del tablero
+     * @param difficulty nivel de dificultad del puzzle
+     * @param executor ejecutor donde se genera el puzzle
+     * @return futuro que se completa con el modelo listo para jugar
+     */
+    static CompletableFuture<ISudokuModel> createAsync(BoardGeometry geometry, Difficulty difficulty,
+                                                       Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            SudokuModel model = new SudokuModel(geometry);
+            model.createPuzzle(difficulty);
+            return model;
+        }, executor);
+    }
+
+    /**
+     * Crea en segundo plano un modelo con un sudoku nuevo y un puzzle con la cantidad de pistas indicada
+     * @param geometry geometria del tablero
+     * @param clues cantidad de pistas del puzzle
+     * @param executor ejecutor donde se genera el puzzle
+     * @return futuro que se completa con el modelo listo para jugar
+     */
+    static CompletableFuture<ISudokuModel> createAsync(BoardGeometry geometry, int clues, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            SudokuModel model = new SudokuModel(geometry);
+            model.createPuzzle(clues);
+            return model;
+        }, executor);
+    }
+
+    /**
+     * Valor que devuelve nextHintCell cuando no hay celdas en las que dar ayuda
+     */
+    int NO_HINT = -1;
+
+    /**
+     * Devuelve la geometria del tablero (tamaño y forma de las subcuadriculas)
+     */
+    BoardGeometry getGeometry();
+
     /**
      * Genera el sudoku resuelto
      */
@@ -20,15 +67,129 @@ public interface ISudokuModel {
     boolean isValidPlacement(int row, int col, int num);
 
     /**
-     * Devuelve el sudoku
+     * Devuelve una copia del sudoku como matriz de listas
      */
     ArrayList<ArrayList<Integer>> getBoard();
 
     /**
-     * Devuelve el sudoku del usuario
+     * Devuelve una copia del sudoku del usuario como matriz de listas
      */
     ArrayList<ArrayList<Integer>> getAttempt();
 
+    /**
+     * Devuelve el valor del sudoku resuelto en una casilla
+     */
+    int get(int row, int col);
+
+    /**
+     * Cambia el valor del sudoku resuelto en una casilla, 0 la deja vacia. Lanza
+     * IllegalArgumentException si el numero se repetiria en una unidad
+     */
+    void set(int row, int col, int num);
+
+    /**
+     * Devuelve el valor que ingreso el usuario en una casilla, 0 si esta vacia
+     */
+    int getAttempt(int row, int col);
+
+    /**
+     * Guarda el valor que ingreso el usuario en una casilla, 0 la deja vacia. Lanza
+     * IllegalArgumentException si el numero no esta entre 1 y size, sin cambiar nada
+     */
+    void setAttempt(int row, int col, int num);
+
+    /**
+     * Celdas que como maximo cambian de estado de conflicto en una jugada del juego clasico: la celda
+     * editada y, por cada una de sus tres unidades, una celda que sale de conflicto y otra que entra
+     */
+    int MAX_CONFLICT_CHANGES = 7;
+
+    /**
+     * Celdas que como maximo cambian de estado de conflicto en una jugada de este modelo. Es
+     * MAX_CONFLICT_CHANGES en el juego clasico y puede ser mayor en las variantes, que tienen mas
+     * unidades por celda y celdas excluidas.
+     */
+    int getMaxConflictChanges();
+
+    /**
+     * Guarda el valor que ingreso el usuario y escribe en changed, en tiempo constante, las celdas que
+     * entraron o salieron de conflicto (numero repetido en una unidad del intento o en una celda excluida
+     * por las reglas). changed debe tener al menos getMaxConflictChanges() posiciones; devuelve cuantas
+     * celdas se escribieron. Lanza IllegalArgumentException si el numero no es 0 ni esta entre 1 y size
+     */
+    int setAttempt(int row, int col, int num, int[] changed);
+
+    /**
+     * Agrega un oyente que se avisa cada vez que cambia una celda del intento o todo el tablero
+     */
+    void addCellListener(ICellListener listener);
+
+    /**
+     * Quita un oyente agregado con addCellListener
+     */
+    void removeCellListener(ICellListener listener);
+
+    /**
+     * Revisa si el numero del intento en una casilla esta repetido en una de sus unidades (fila, columna,
+     * subcuadricula o las unidades de la variante) o en una celda excluida por las reglas
+     */
+    boolean isInConflict(int row, int col);
+
+    /**
+     * Devuelve cuantas celdas del intento estan en conflicto con las reglas
+     */
+    int getConflictCount();
+
+    /**
+     * Crea un puzzle con solucion unica a partir del sudoku resuelto, dejando la cantidad de pistas indicada
+     */
+    Puzzle createPuzzle(int clues);
+
+    /**
+     * Crea un puzzle con solucion unica a partir del sudoku resuelto, calificado en el nivel indicado
+     */
+    Puzzle createPuzzle(Difficulty difficulty);
+
+    /**
+     * Devuelve el puzzle del juego actual, o null si todavia no se ha creado
+     */
+    Puzzle getPuzzle();
+
+    /**
+     * Resuelve un tablero cualquiera de la misma geometria, llenandolo con la primera solucion
+     */
+    boolean solve(int[] grid);
+
+    /**
+     * Cuenta las soluciones de un tablero de la misma geometria, hasta el limite indicado
+     */
+    int countSolutions(int[] grid, int limit);
+
+    /**
+     * Revisa en tiempo constante si el intento del usuario es igual a la solucion
+     */
+    boolean isSolved();
+
+    /**
+     * Elige al azar una celda vacia o incorrecta del intento, o NO_HINT si no hay ninguna
+     */
+    int nextHintCell(RandomGenerator random);
+
+    /**
+     * Busca el siguiente paso logico en el intento del usuario, o null si no hay ninguno
+     */
+    Hint findLogicalHint();
+
+    /**
+     * Devuelve cuantas celdas del intento coinciden con la solucion
+     */
+    int getCorrectCount();
+
+    /**
+     * Devuelve cuantas celdas del intento estan llenas con un valor incorrecto
+     */
+    int getWrongCount();
+
     void printBoard();
 
     void printAttempt();
@@ -36,4 +197,4 @@ public interface ISudokuModel {
      * Revisa si el valor ingresado es el indicado
      */
     boolean isCorrectValue(int row, int col, int num);
-}
\ No newline at end of file
+}
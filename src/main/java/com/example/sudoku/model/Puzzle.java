@@ -0,0 +1,102 @@
+package com.example.sudoku.model;
+
+/**
+ * Sudoku listo para jugar: las pistas visibles y la solucion unica.
+ * Los arreglos son planos (fila por fila), con 0 en las celdas sin pista, y no se copian
+ * al devolverse, por lo que no deben modificarse.
+ */
+public final class Puzzle {
+
+    private final BoardGeometry geometry;
+    private final int[] givens;
+    private final int[] solution;
+    private final int clueCount;
+
+    /**
+     * @param geometry geometria del tablero
+     * @param givens pistas, 0 en las celdas vacias
+     * @param solution solucion completa
+     */
+    public Puzzle(BoardGeometry geometry, int[] givens, int[] solution) {
+        this.geometry = geometry;
+        this.givens = givens;
+        this.solution = solution;
+        int clues = 0;
+        for (int num : givens) {
+            if (num != 0) {
+                clues++;
+            }
+        }
+        this.clueCount = clues;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int[] getGivens() {
+        return givens;
+    }
+
+    public int[] getSolution() {
+        return solution;
+    }
+
+    /**
+     * @return cantidad de celdas con pista
+     */
+    public int getClueCount() {
+        return clueCount;
+    }
+
+    /**
+     * Escribe el puzzle como una linea de texto: las pistas, un espacio y la solucion, una letra por celda.
+     * Las celdas vacias se escriben como '0' y los numeros mayores a 9 como letras (10 = 'A', 25 = 'P').
+     * @return la linea, sin salto de linea
+     */
+    public String toLine() {
+        StringBuilder line = new StringBuilder(givens.length * 2 + 1);
+        for (int num : givens) {
+            line.append(toChar(num));
+        }
+        line.append(' ');
+        for (int num : solution) {
+            line.append(toChar(num));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Lee un puzzle escrito con {@link #toLine()}
+     * @param geometry geometria del tablero
+     * @param line linea con las pistas y la solucion
+     * @return el puzzle leido
+     */
+    public static Puzzle fromLine(BoardGeometry geometry, String line) {
+        int cells = geometry.cellCount();
+        if (line.length() != cells * 2 + 1 || line.charAt(cells) != ' ') {
+            throw new IllegalArgumentException("Linea de puzzle invalida para un tablero " + geometry);
+        }
+        int[] givens = new int[cells];
+        int[] solution = new int[cells];
+        for (int i = 0; i < cells; i++) {
+            givens[i] = Character.digit(line.charAt(i), Character.MAX_RADIX);
+            solution[i] = Character.digit(line.charAt(cells + 1 + i), Character.MAX_RADIX);
+        }
+        return new Puzzle(geometry, givens, solution);
+    }
+
+    private static char toChar(int num) {
+        return Character.toUpperCase(Character.forDigit(num, Character.MAX_RADIX));
+    }
+
+    /**
+     * Revisa si una celda es pista
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @return true si la celda tiene pista
+     */
+    public boolean isGiven(int row, int col) {
+        return givens[geometry.cell(row, col)] != 0;
+    }
+}
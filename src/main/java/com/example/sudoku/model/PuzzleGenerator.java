@@ -0,0 +1,235 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.metrics.PuzzleGenerationEvent;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.model.logic.DifficultyRater;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Genera sudokus con solucion unica quitando pistas de un tablero resuelto.
+ *
+ * Las celdas se quitan una a una en orden aleatorio. Si el tablero tenia solucion unica S y se quita
+ * la celda c con valor v, cualquier otra solucion debe tener en c un numero distinto de v; por eso
+ * basta con buscar una sola solucion con v prohibido en c. La busqueda trabaja directamente sobre
+ * las mascaras del {@link SudokuGrid} del puzzle, que se actualizan en O(1) al quitar cada pista,
+ * en lugar de resolver el tablero desde cero despues de cada eliminacion.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class PuzzleGenerator {
+
+    public static final long DEFAULT_BUDGET_NANOS = 200_000_000L; // Tiempo maximo por puzzle
+    public static final int MAX_RATING_ATTEMPTS = 32; // Puzzles que se prueban para acertar el nivel
+    private static final int DEADLINE_CHECK_MASK = 1023; // Cada cuantos nodos se revisa el reloj
+
+    private final BoardGeometry geometry;
+    private final RandomGenerator random;
+    private final GridFiller filler;
+    private final SudokuGrid grid;
+    private final int[] order;
+    private DifficultyRater rater; // Se crea la primera vez que se pide un nivel calificado
+
+    // Estado de la busqueda de una segunda solucion
+    private int excludedCell;
+    private int excludedBit;
+    private long deadline;
+    private long nodes;
+    private boolean timedOut;
+
+    /**
+     * @param geometry geometria de los puzzles a generar
+     * @param random generador de numeros aleatorios
+     */
+    public PuzzleGenerator(BoardGeometry geometry, RandomGenerator random) {
+        this.geometry = geometry;
+        this.random = random;
+        this.filler = new GridFiller(geometry, random);
+        this.grid = new SudokuGrid(geometry);
+        this.order = new int[geometry.cellCount()];
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Genera un puzzle para un nivel de dificultad con el tiempo por defecto
+     * @param difficulty nivel de dificultad
+     * @return el puzzle generado
+     */
+    public Puzzle generate(Difficulty difficulty) {
+        return generate(difficulty.targetClues(geometry), DEFAULT_BUDGET_NANOS);
+    }
+
+    /**
+     * Genera un tablero resuelto nuevo y le quita pistas
+     * @param targetClues cantidad de pistas que se quieren dejar
+     * @param budgetNanos tiempo maximo para quitar pistas
+     * @return el puzzle generado
+     */
+    public Puzzle generate(int targetClues, long budgetNanos) {
+        filler.fill(grid);
+        return removeClues(grid.toArray(), targetClues, budgetNanos);
+    }
+
+    /**
+     * Quita pistas de un tablero resuelto dado
+     * @param solution tablero resuelto, no se modifica
+     * @param targetClues cantidad de pistas que se quieren dejar
+     * @param budgetNanos tiempo maximo para quitar pistas
+     * @return el puzzle generado
+     */
+    public Puzzle generate(int[] solution, int targetClues, long budgetNanos) {
+        grid.load(solution);
+        return removeClues(solution.clone(), targetClues, budgetNanos);
+    }
+
+    /**
+     * Genera un puzzle cuya dificultad, calificada por las tecnicas necesarias para resolverlo
+     * ({@link DifficultyRater}), corresponde al nivel pedido
+     * @param difficulty nivel de dificultad
+     * @return el puzzle generado
+     */
+    public Puzzle generateRated(Difficulty difficulty) {
+        filler.fill(grid);
+        return generateRated(grid.toArray(), difficulty);
+    }
+
+    /**
+     * Quita pistas de un tablero resuelto hasta obtener un puzzle del nivel pedido.
+     * Se empieza con la cantidad de pistas del nivel y se califica cada intento: si quedo mas facil
+     * se dejan menos pistas en el siguiente, si quedo mas dificil se dejan mas. Si en
+     * {@link #MAX_RATING_ATTEMPTS} intentos o en el tiempo por defecto no se acierta, se devuelve el
+     * ultimo puzzle generado.
+     * @param solution tablero resuelto, no se modifica
+     * @param difficulty nivel de dificultad
+     * @return el puzzle generado
+     */
+    public Puzzle generateRated(int[] solution, Difficulty difficulty) {
+        if (rater == null) {
+            rater = new DifficultyRater(geometry);
+        }
+        long end = System.nanoTime() + DEFAULT_BUDGET_NANOS;
+        int clues = difficulty.targetClues(geometry);
+        int step = Math.max(1, order.length / 64); // Una pista en 6x6 y 9x9, mas en tableros grandes
+        Puzzle puzzle = null;
+        for (int attempt = 0; attempt < MAX_RATING_ATTEMPTS; attempt++) {
+            long remaining = end - System.nanoTime();
+            if (puzzle != null && remaining <= 0) {
+                break;
+            }
+            puzzle = generate(solution, clues, Math.max(remaining, 0));
+            int cmp = rater.rate(puzzle.getGivens()).getDifficulty().compareTo(difficulty);
+            if (cmp == 0) {
+                break;
+            }
+            clues = cmp < 0 ? Math.max(0, clues - step) : Math.min(order.length, clues + step);
+        }
+        return puzzle;
+    }
+
+    /**
+     * Quita pistas del tablero de trabajo hasta llegar al objetivo, a que ninguna otra pueda quitarse
+     * o a que se acabe el tiempo. Si se acaba el tiempo el puzzle sigue teniendo solucion unica,
+     * solo que con mas pistas de las pedidas.
+     * @param solution copia del tablero resuelto
+     * @param targetClues cantidad de pistas objetivo
+     * @param budgetNanos tiempo maximo
+     * @return el puzzle generado
+     */
+    private Puzzle removeClues(int[] solution, int targetClues, long budgetNanos) {
+        PuzzleGenerationEvent event = new PuzzleGenerationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        deadline = start + budgetNanos;
+        timedOut = false;
+        int cells = order.length;
+        for (int i = 0; i < cells; i++) {
+            order[i] = i;
+        }
+        for (int i = cells - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        int clues = cells;
+        for (int i = 0; i < cells && clues > targetClues && !timedOut; i++) {
+            int cell = order[i];
+            int num = grid.get(cell);
+            grid.clear(cell);
+            excludedCell = cell;
+            excludedBit = 1 << num;
+            if (hasOtherSolution()) {
+                grid.set(cell, num); // La pista es necesaria
+            } else if (timedOut) {
+                grid.set(cell, num); // No se alcanzo a probar la unicidad
+            } else {
+                clues--;
+            }
+        }
+        SudokuMetrics.recordGeneration(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.size = geometry.size();
+            event.targetClues = targetClues;
+            event.clues = clues;
+            event.timedOut = timedOut;
+            event.commit();
+        }
+        return new Puzzle(geometry, grid.toArray(), solution);
+    }
+
+    /**
+     * Busca una solucion en la que la celda excluida no tenga el numero excluido.
+     * El tablero queda igual que antes de la llamada.
+     * @return true si existe otra solucion
+     */
+    private boolean hasOtherSolution() {
+        if ((++nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+            timedOut = true;
+        }
+        if (timedOut) {
+            return false;
+        }
+
+        // Se elige la celda vacia con menos candidatos
+        int best = -1;
+        int bestCandidates = 0;
+        int bestCount = Integer.MAX_VALUE;
+        for (int cell = 0; cell < order.length; cell++) {
+            if (grid.get(cell) != 0) {
+                continue;
+            }
+            int candidates = grid.candidates(cell);
+            if (cell == excludedCell) {
+                candidates &= ~excludedBit;
+            }
+            int count = Integer.bitCount(candidates);
+            if (count < bestCount) {
+                best = cell;
+                bestCandidates = candidates;
+                bestCount = count;
+                if (count <= 1) {
+                    break;
+                }
+            }
+        }
+        if (best < 0) {
+            return true; // Tablero lleno: es una solucion distinta
+        }
+
+        while (bestCandidates != 0) {
+            int bit = bestCandidates & -bestCandidates;
+            bestCandidates ^= bit;
+            grid.set(best, Integer.numberOfTrailingZeros(bit));
+            boolean found = hasOtherSolution();
+            grid.clear(best);
+            if (found || timedOut) {
+                return found;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.sudoku.model;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Genera puzzles en segundo plano antes de que el jugador los pida.
+ *
+ * Por cada nivel de dificultad se mantiene una cola acotada de modelos en preparacion. Al pedir un
+ * juego se toma el primero de la cola, que normalmente ya esta listo, y en su lugar se encarga uno
+ * nuevo. Asi nunca hay mas de {@code depth} puzzles por nivel generados o en espera, y el hilo que
+ * pide el juego (el de JavaFX) nunca genera tableros.
+ *
+ * Los hilos del ejecutor son daemon para no impedir que la aplicacion termine.
+ */
+public class PuzzlePrefetcher implements AutoCloseable {
+
+    private final BoardGeometry geometry;
+    private final int depth;
+    private final ExecutorService executor;
+    private final Map<Difficulty, ArrayDeque<CompletableFuture<ISudokuModel>>> ready = new EnumMap<>(Difficulty.class);
+
+    /**
+     * @param geometry geometria de los tableros
+     * @param depth cantidad de puzzles que se preparan por nivel
+     * @param threads hilos que generan los puzzles
+     */
+    public PuzzlePrefetcher(BoardGeometry geometry, int depth, int threads) {
+        if (depth < 1 || threads < 1) {
+            throw new IllegalArgumentException("La profundidad y los hilos deben ser positivos");
+        }
+        this.geometry = geometry;
+        this.depth = depth;
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "sudoku-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Difficulty difficulty : Difficulty.values()) {
+            ready.put(difficulty, new ArrayDeque<>(depth));
+        }
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Encarga los primeros puzzles de cada nivel, alternando niveles para que el primero de cada
+     * uno este listo cuanto antes
+     */
+    public synchronized void start() {
+        for (int i = 0; i < depth; i++) {
+            for (Difficulty difficulty : Difficulty.values()) {
+                ArrayDeque<CompletableFuture<ISudokuModel>> queue = ready.get(difficulty);
+                if (queue.size() < depth) {
+                    queue.add(ISudokuModel.createAsync(geometry, difficulty, executor));
+                }
+            }
+        }
+    }
+
+    /**
+     * Toma el siguiente juego de un nivel y encarga otro para reponerlo
+     * @param difficulty nivel de dificultad
+     * @return futuro con el modelo, ya completo si el puzzle estaba preparado
+     */
+    public synchronized CompletableFuture<ISudokuModel> next(Difficulty difficulty) {
+        ArrayDeque<CompletableFuture<ISudokuModel>> queue = ready.get(difficulty);
+        CompletableFuture<ISudokuModel> next = queue.poll();
+        if (next == null) {
+            next = ISudokuModel.createAsync(geometry, difficulty, executor);
+        }
+        queue.add(ISudokuModel.createAsync(geometry, difficulty, executor));
+        return next;
+    }
+
+    /**
+     * Genera en segundo plano un juego con una cantidad de pistas, sin pasar por las colas
+     * @param clues cantidad de pistas
+     * @return futuro con el modelo
+     */
+    public CompletableFuture<ISudokuModel> create(int clues) {
+        return ISudokuModel.createAsync(geometry, clues, executor);
+    }
+
+    /**
+     * Detiene los hilos; los puzzles que no se alcanzaron a generar se descartan
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.sudoku.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Tablero de sudoku con representacion primitiva.
+ * Las celdas se guardan en un arreglo plano de enteros y, por cada fila, columna y subcuadricula,
+ * se mantiene una mascara de bits con los numeros ya colocados. Asi revisar si un numero puede
+ * ir en una celda es O(1) y no crea objetos.
+ *
+ * Las mascaras suponen que el tablero nunca tiene numeros repetidos en una misma unidad,
+ * por eso solo se usa para el tablero resuelto y para las busquedas.
+ */
+public class SudokuGrid {
+
+    private final BoardGeometry geometry;
+    private final int[] cells; // 0 significa celda vacia
+    private final int[] rowMask;
+    private final int[] colMask;
+    private final int[] boxMask;
+    private int filled; // cantidad de celdas con numero
+
+    /**
+     * Crea un tablero vacio con la geometria indicada
+     * @param geometry geometria del tablero
+     */
+    public SudokuGrid(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.cells = new int[geometry.cellCount()];
+        this.rowMask = new int[geometry.size()];
+        this.colMask = new int[geometry.size()];
+        this.boxMask = new int[geometry.size()];
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Devuelve el valor de una celda
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @return el numero de la celda o 0 si esta vacia
+     */
+    public int get(int row, int col) {
+        return cells[geometry.cell(row, col)];
+    }
+
+    /**
+     * Devuelve el valor de una celda por su indice en el arreglo plano
+     * @param cell indice de la celda
+     * @return el numero de la celda o 0 si esta vacia
+     */
+    public int get(int cell) {
+        return cells[cell];
+    }
+
+    /**
+     * Coloca un numero en una celda y actualiza las mascaras. Si la celda tenia otro numero se reemplaza.
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @param num Numero a colocar, 0 para vaciar la celda.
+     */
+    public void set(int row, int col, int num) {
+        set(geometry.cell(row, col), num);
+    }
+
+    /**
+     * Coloca un numero en una celda por su indice y actualiza las mascaras
+     * @param cell indice de la celda
+     * @param num Numero a colocar, 0 para vaciar la celda.
+     */
+    public void set(int cell, int num) {
+        clear(cell);
+        if (num == 0) {
+            return;
+        }
+        int bit = 1 << num;
+        cells[cell] = num;
+        rowMask[geometry.row(cell)] |= bit;
+        colMask[geometry.col(cell)] |= bit;
+        boxMask[geometry.box(cell)] |= bit;
+        filled++;
+    }
+
+    /**
+     * Vacia una celda y quita su numero de las mascaras
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     */
+    public void clear(int row, int col) {
+        clear(geometry.cell(row, col));
+    }
+
+    /**
+     * Vacia una celda por su indice y quita su numero de las mascaras
+     * @param cell indice de la celda
+     */
+    public void clear(int cell) {
+        int num = cells[cell];
+        if (num == 0) {
+            return;
+        }
+        int bit = ~(1 << num);
+        cells[cell] = 0;
+        rowMask[geometry.row(cell)] &= bit;
+        colMask[geometry.col(cell)] &= bit;
+        boxMask[geometry.box(cell)] &= bit;
+        filled--;
+    }
+
+    /**
+     * Revisa si un numero no esta usado en la fila, la columna ni la subcuadricula de la celda
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @param num Numero a colocar.
+     * @return true si el numero puede colocarse, false en caso contrario.
+     */
+    public boolean canPlace(int row, int col, int num) {
+        return canPlace(geometry.cell(row, col), num);
+    }
+
+    /**
+     * Revisa si un numero puede colocarse en una celda por su indice
+     * @param cell indice de la celda
+     * @param num Numero a colocar.
+     * @return true si el numero puede colocarse, false en caso contrario.
+     */
+    public boolean canPlace(int cell, int num) {
+        return (usedMask(cell) & (1 << num)) == 0;
+    }
+
+    /**
+     * Mascara con los numeros que todavia pueden ir en una celda segun sus unidades
+     * @param cell indice de la celda
+     * @return mascara de candidatos (bit n para el numero n)
+     */
+    public int candidates(int cell) {
+        return geometry.allMask() & ~usedMask(cell);
+    }
+
+    private int usedMask(int cell) {
+        return rowMask[geometry.row(cell)] | colMask[geometry.col(cell)] | boxMask[geometry.box(cell)];
+    }
+
+    /**
+     * Busca la celda vacia con menos candidatos (heuristica de la celda mas restringida)
+     * @return indice de la celda, o -1 si el tablero esta lleno
+     */
+    public int mostConstrainedCell() {
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != 0) {
+                continue;
+            }
+            int count = Integer.bitCount(candidates(cell));
+            if (count < bestCount) {
+                best = cell;
+                bestCount = count;
+                if (count <= 1) {
+                    break; // No hay celda mas restringida que esta
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return cantidad de celdas con numero
+     */
+    public int filledCount() {
+        return filled;
+    }
+
+    /**
+     * @return true si todas las celdas tienen numero
+     */
+    public boolean isFull() {
+        return filled == cells.length;
+    }
+
+    /**
+     * Vacia todo el tablero
+     */
+    public void reset() {
+        Arrays.fill(cells, 0);
+        Arrays.fill(rowMask, 0);
+        Arrays.fill(colMask, 0);
+        Arrays.fill(boxMask, 0);
+        filled = 0;
+    }
+
+    /**
+     * Reemplaza el contenido del tablero con el de un arreglo plano
+     * @param values arreglo plano de tamaño size * size, 0 para celdas vacias
+     */
+    public void load(int[] values) {
+        reset();
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (values[cell] != 0) {
+                set(cell, values[cell]);
+            }
+        }
+    }
+
+    /**
+     * Copia las celdas del tablero en un arreglo plano
+     * @param target arreglo de tamaño size * size
+     */
+    public void copyTo(int[] target) {
+        System.arraycopy(cells, 0, target, 0, cells.length);
+    }
+
+    /**
+     * @return una copia de las celdas del tablero
+     */
+    public int[] toArray() {
+        return cells.clone();
+    }
+
+    /**
+     * Construye una vista con listas del tablero. Se crea una copia nueva en cada llamada.
+     * @return la matriz de Integers del tablero
+     */
+    public ArrayList<ArrayList<Integer>> toList() {
+        return toList(cells, geometry.size());
+    }
+
+    /**
+     * Construye una matriz de listas a partir de un arreglo plano de celdas
+     * @param cells arreglo plano de tamaño size * size
+     * @param size lado del tablero
+     * @return la matriz de Integers
+     */
+    public static ArrayList<ArrayList<Integer>> toList(int[] cells, int size) {
+        ArrayList<ArrayList<Integer>> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ArrayList<Integer> row = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                row.add(cells[i * size + j]);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -1,120 +1,662 @@
 package com.example.sudoku.model;
 
+import com.example.sudoku.model.bank.PuzzleBank;
+import com.example.sudoku.model.logic.CandidateGrid;
+import com.example.sudoku.model.logic.Hint;
+import com.example.sudoku.model.logic.HintEngine;
+import com.example.sudoku.model.solver.DancingLinksSolver;
+import com.example.sudoku.model.solver.ISudokuSolver;
+import com.example.sudoku.model.solver.ParallelSolver;
+import com.example.sudoku.model.variant.VariantGenerator;
+import com.example.sudoku.model.variant.VariantGrid;
+import com.example.sudoku.model.variant.VariantRules;
+import com.example.sudoku.model.variant.VariantSolver;
+
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class SudokuModel implements ISudokuModel {
 
-    // Tablero de juego y tablero con los intentos del jugador
-    private ArrayList<ArrayList<Integer>> board, attempt;
+    public static final int DEFAULT_SIZE = 6; // Tamaño del tablero clasico del juego
+    public static final int PARALLEL_SOLVER_MIN_SIZE = 16; // Desde este lado se resuelve en paralelo
+    public static final long FILL_DEADLINE_NANOS = 50_000_000L; // Plazo del llenador antes de transformar una semilla
+    private static final int[] NO_CELLS = new int[0]; // Celdas excluidas en el juego clasico
+
+    private final BoardGeometry geometry;
+    // Reglas de una variante, o null en el juego clasico, que usa las mascaras de SudokuGrid
+    private final VariantRules rules;
+    // Tablero de juego con las mascaras de la variante, o null. En las variantes guarda la solucion en
+    // lugar de board, porque las mascaras de SudokuGrid suponen subcuadriculas sin repetidos
+    private final VariantGrid variantBoard;
+    private VariantGenerator variantGenerator; // Se crea la primera vez que se necesita
+
+    // Tablero de juego (null en las variantes) y tablero con los intentos del jugador
+    private final SudokuGrid board;
+    private final int[] attempt;
+    // Estado del juego, se actualiza en O(1) con cada cambio de una celda
+    private int correctCount; // Celdas del intento iguales a la solucion
+    private int wrongCount; // Celdas del intento llenas con un valor distinto a la solucion
+    private final CellSet unsolved; // Celdas del intento vacias o distintas a la solucion
+    // Conflictos del intento con las reglas, por unidad y numero (indice unit * (size + 1) + num). Las
+    // unidades son las de la geometria o, en las variantes, las de las reglas
+    private final int[][] cellUnits; // Unidades de cada celda
+    private final int[][] cellExclusions; // Celdas que no pueden repetir el numero de cada celda fuera de sus unidades
+    private final int[] unitCounts; // Veces que aparece el numero en la unidad
+    private final int[] unitXor; // XOR de las celdas donde aparece; con dos apariciones da la otra celda
+    private final int[] conflictUnits; // Por celda: unidades y celdas excluidas donde su numero esta repetido
+    private final boolean[] conflicting; // Por celda: conflictUnits > 0 la ultima vez que se informo
+    private final int[] conflictChanges; // Celdas cambiadas de la ultima jugada sin arreglo del llamador
+    private int conflictCount;
+    private ICellListener[] listeners = new ICellListener[0]; // Se copia al cambiar, asi avisar no crea objetos
+    private final CandidateGrid candidates; // Candidatos del intento, para las pistas por deduccion
+    private final HintEngine hintEngine;
+    private final RandomGenerator random;
+    private final GridFiller filler;
+    private GenerationMode generationMode = GenerationMode.SEARCH;
+    private GridTransformer transformer; // Se crea la primera vez que se usa el modo TRANSFORM o vence el plazo
+    private PuzzleGenerator generator; // Se crea la primera vez que se necesita
+    private Puzzle puzzle; // Puzzle del juego actual
+    private ISudokuSolver solver; // Se crea la primera vez que se necesita
 
 
     /**
      * SudokuModel
-     * Metodo contructor de la clase SudokuModelo
+     * Metodo contructor de la clase SudokuModelo, crea un sudoku de 6x6
      */
     public SudokuModel() {
-        board = new ArrayList<>();
-        attempt = new ArrayList<>();
-        generateSudoku();
-        generateEmptySudoku();
+        this(BoardGeometry.of(DEFAULT_SIZE));
+    }
+
+    /**
+     * Crea un sudoku resuelto con la geometria indicada
+     * @param geometry tamaño del tablero y forma de las subcuadriculas
+     */
+    public SudokuModel(BoardGeometry geometry) {
+        this(geometry, null, null);
+    }
+
+    /**
+     * Crea un sudoku resuelto con las reglas de una variante. Generar, resolver, validar y marcar los
+     * conflictos del intento usan las reglas compiladas; si las reglas son clasicas el modelo es igual al
+     * de la geometria sola. Las pistas por deduccion siguen las reglas clasicas.
+     * @param rules reglas compiladas
+     */
+    public SudokuModel(VariantRules rules) {
+        this(rules.getGeometry(), rules.isClassic() ? null : rules, null);
+    }
+
+    /**
+     * Crea un modelo a partir de un puzzle ya generado, sin generar un tablero nuevo
+     * @param puzzle puzzle con sus pistas y su solucion
+     */
+    public SudokuModel(Puzzle puzzle) {
+        this(puzzle.getGeometry(), null, puzzle);
+    }
+
+    /**
+     * Crea un modelo a partir de un puzzle de una variante ya generado
+     * @param puzzle puzzle con sus pistas y su solucion, que debe cumplir las reglas
+     * @param rules reglas compiladas de la variante
+     */
+    public SudokuModel(Puzzle puzzle, VariantRules rules) {
+        this(puzzle.getGeometry(), rules.isClassic() ? null : rules, puzzle);
+    }
+
+    /**
+     * @param puzzle puzzle ya generado, o null para generar un tablero resuelto nuevo
+     */
+    private SudokuModel(BoardGeometry geometry, VariantRules rules, Puzzle puzzle) {
+        this.geometry = geometry;
+        this.rules = rules;
+        this.variantBoard = rules == null ? null : new VariantGrid(rules);
+        this.board = rules == null ? new SudokuGrid(geometry) : null;
+        int cells = geometry.cellCount();
+        this.attempt = new int[cells];
+        this.unsolved = new CellSet(cells);
+        this.cellUnits = new int[cells][];
+        this.cellExclusions = new int[cells][];
+        int maxChanges = 1;
+        for (int cell = 0; cell < cells; cell++) {
+            if (rules == null) {
+                cellUnits[cell] = new int[]{geometry.rowUnit(cell), geometry.colUnit(cell), geometry.boxUnit(cell)};
+                cellExclusions[cell] = NO_CELLS;
+            } else {
+                cellUnits[cell] = rules.unitsOf(cell);
+                cellExclusions[cell] = rules.exclusionsOf(cell);
+            }
+            // La celda editada y, por cada unidad o celda excluida, una celda que sale y otra que entra
+            maxChanges = Math.max(maxChanges, 1 + 2 * (cellUnits[cell].length + cellExclusions[cell].length));
+        }
+        int unitCount = rules == null ? geometry.unitCount() : rules.unitCount();
+        this.unitCounts = new int[unitCount * (geometry.size() + 1)];
+        this.unitXor = new int[unitCounts.length];
+        this.conflictUnits = new int[cells];
+        this.conflicting = new boolean[cells];
+        this.conflictChanges = new int[maxChanges];
+        this.candidates = new CandidateGrid(geometry);
+        this.hintEngine = new HintEngine(candidates);
+        this.random = new SplittableRandom();
+        this.filler = new GridFiller(geometry, random);
+        this.puzzle = puzzle;
+        if (puzzle == null) {
+            fillBoard();
+        } else {
+            if (rules != null && !rules.isSolution(puzzle.getSolution())) {
+                throw new IllegalArgumentException("La solucion del puzzle no cumple las reglas " + rules);
+            }
+            loadBoard(puzzle.getSolution());
+        }
+        recount();
+    }
+
+    /**
+     * Crea un modelo con un puzzle elegido al azar de un banco de puzzles
+     * @param bank banco de puzzles abierto
+     * @param difficulty dificultad del puzzle
+     * @param random generador de numeros aleatorios
+     * @return el modelo con el puzzle del banco
+     */
+    public static SudokuModel fromBank(PuzzleBank bank, Difficulty difficulty, RandomGenerator random) {
+        return new SudokuModel(bank.randomPuzzle(difficulty, random));
     }
 
     /**
-     * getBoard() devuelve el sudoku completado
-     * @return la matriz 6x6 board
+     * Devuelve la geometria del tablero
+     * @return tamaño y forma de las subcuadriculas
+     */
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return reglas de la variante, o null en el juego clasico
+     */
+    public VariantRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Llena el tablero de juego con un sudoku resuelto: de las reglas de la variante, transformando
+     * una semilla o con el llenador, segun el modo de generacion. Si el llenador no termina en
+     * FILL_DEADLINE_NANOS se transforma una semilla. El transformador llena sus semillas con un limite
+     * de nodos y, si no alcanza, usa un tablero patron, asi este camino tampoco espera una busqueda sin
+     * limite.
+     */
+    private void fillBoard() {
+        if (rules != null) {
+            loadBoard(getVariantGenerator().fillSolution()); // Las transformaciones no respetan todas las variantes
+        } else if (generationMode == GenerationMode.TRANSFORM
+                || !filler.fill(board, System.nanoTime() + FILL_DEADLINE_NANOS, GridFiller.NO_NODE_LIMIT)) {
+            if (transformer == null) {
+                transformer = new GridTransformer(geometry, random);
+            }
+            transformer.fill(board);
+        }
+    }
+
+    private void loadBoard(int[] solution) {
+        if (variantBoard != null) {
+            variantBoard.load(solution);
+        } else {
+            board.load(solution);
+        }
+    }
+
+    /**
+     * Valor de la solucion en una celda, del tablero de la variante o del clasico
+     */
+    private int solutionAt(int cell) {
+        return variantBoard != null ? variantBoard.get(cell) : board.get(cell);
+    }
+
+    private VariantGenerator getVariantGenerator() {
+        if (variantGenerator == null) {
+            variantGenerator = new VariantGenerator(rules, random);
+        }
+        return variantGenerator;
+    }
+
+    /**
+     * getBoard() construye una copia del sudoku completado
+     * @return la matriz board
      */
     @Override
     public ArrayList<ArrayList<Integer>> getBoard() {
-        return board;
+        return board != null ? board.toList() : SudokuGrid.toList(variantBoard.toArray(), geometry.size());
     }
 
     /**
-     * getAttempt() devuelve el sudoku que ingreso el usuario
-     * @return la matriz 6x6 attempt
+     * getAttempt() construye una copia del sudoku que ingreso el usuario
+     * @return la matriz attempt
      */
     public ArrayList<ArrayList<Integer>> getAttempt() {
-        return attempt;
+        return SudokuGrid.toList(attempt, geometry.size());
     }
 
     /**
-     * generateSudoku, crea un una matriz board 6x6 de Integers con ArrayList y la llena con ceros
-     * posteriormente se llena con valores de un sudoku completado y se devuelce
-     * @return devuelve el sudoku resuelto
+     * Devuelve el valor del sudoku resuelto en una casilla
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @return el numero de la celda
      */
     @Override
-    public ArrayList<ArrayList<Integer>> generateSudoku() {
-        for (int i = 0; i < 6; i++) {
-            board.add(new ArrayList<>());
-            for (int j = 0; j < 6; j++) {
-                board.get(i).add(0); // Llena el tablero con ceros temporalmente
+    public int get(int row, int col) {
+        return solutionAt(geometry.cell(row, col));
+    }
+
+    /**
+     * Cambia el valor del sudoku resuelto en una casilla. Las mascaras del tablero suponen que no hay
+     * numeros repetidos, asi que no se acepta un numero que rompa las reglas con las demas celdas.
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @param num Numero a colocar, 0 para vaciar la celda.
+     * @throws IllegalArgumentException si el numero no es valido o rompe las reglas
+     */
+    @Override
+    public void set(int row, int col, int num) {
+        int cell = geometry.cell(row, col);
+        int old = solutionAt(cell);
+        if (num != 0 && num != old) {
+            if (!geometry.isValidNumber(num) || !canReplace(cell, old, num)) {
+                throw new IllegalArgumentException("El numero " + num + " no puede ir en la fila " + row
+                        + ", columna " + col);
             }
         }
+        track(cell, -1);
+        if (variantBoard != null) {
+            variantBoard.set(cell, num);
+        } else {
+            board.set(cell, num);
+        }
+        track(cell, 1);
+        fireCellChanged(cell);
+    }
 
-        fillBoard(0, 0); //Se llena el sudoku
+    /**
+     * Revisa si num puede reemplazar al numero old de una celda del tablero resuelto
+     */
+    private boolean canReplace(int cell, int old, int num) {
+        if (variantBoard == null) {
+            return board.canPlace(cell, num); // El bit de old no afecta a num
+        }
+        // Las jaulas cuentan la suma con el numero viejo, se revisa con la celda vacia
+        variantBoard.clear(cell);
+        boolean ok = variantBoard.canPlace(cell, num);
+        variantBoard.set(cell, old);
+        return ok;
+    }
 
-        return board; // Devuelve el tablero generado
+    /**
+     * Devuelve el valor que ingreso el usuario en una casilla
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @return el numero ingresado o 0 si la celda esta vacia
+     */
+    @Override
+    public int getAttempt(int row, int col) {
+        return attempt[geometry.cell(row, col)];
     }
 
     /**
-     * generateEmptySoduku , crea un una matriz attempt 6x6 de Integers con ArrayList y la llena con ceros
-     *@return devuelve la matriz con ceros
+     * Guarda el valor que ingreso el usuario en una casilla
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @param num Numero ingresado, 0 para vaciar la celda.
+     * @throws IllegalArgumentException si el numero no es 0 ni esta entre 1 y size
      */
-    public ArrayList<ArrayList<Integer>> generateEmptySudoku() {
-        for (int i = 0; i < 6; i++) {
-            attempt.add(new ArrayList<>());
-            for (int j = 0; j < 6; j++) {
-                attempt.get(i).add(0); // Llena el tablero con ceros temporalmente
+    @Override
+    public void setAttempt(int row, int col, int num) {
+        setAttempt(row, col, num, conflictChanges);
+    }
+
+    /**
+     * Guarda el valor que ingreso el usuario y actualiza los conflictos con las reglas en O(1): por cada
+     * unidad de la celda se ajusta la cuenta del numero anterior y del nuevo. Cuando una cuenta pasa de 2
+     * a 1 o de 1 a 2, la otra celda con ese numero se obtiene del XOR de la unidad sin recorrerla. En las
+     * variantes tambien se revisan las celdas excluidas por las reglas, como los saltos de caballo.
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @param num Numero ingresado, 0 para vaciar la celda.
+     * @param changed arreglo de al menos getMaxConflictChanges() posiciones para las celdas cambiadas
+     * @return cantidad de celdas que entraron o salieron de conflicto
+     * @throws IllegalArgumentException si el numero no es 0 ni esta entre 1 y size
+     */
+    @Override
+    public int setAttempt(int row, int col, int num, int[] changed) {
+        // Se revisa antes de tocar el estado: num indexa las cuentas de cada unidad
+        if (num != 0 && !geometry.isValidNumber(num)) {
+            throw new IllegalArgumentException("El numero " + num + " no es valido en la fila " + row
+                    + ", columna " + col);
+        }
+        int cell = geometry.cell(row, col);
+        int old = attempt[cell];
+        track(cell, -1);
+        attempt[cell] = num;
+        track(cell, 1);
+        candidates.set(cell, num);
+        if (old == num) {
+            return 0;
+        }
+        int count = 0;
+        int[] units = cellUnits[cell];
+        if (old != 0) {
+            for (int unit : units) {
+                count = leaveUnit(unit, cell, old, changed, count);
+            }
+            for (int other : cellExclusions[cell]) {
+                if (attempt[other] == old) {
+                    conflictUnits[cell]--;
+                    conflictUnits[other]--;
+                    count = refreshConflict(other, changed, count);
+                }
+            }
+        }
+        if (num != 0) {
+            for (int unit : units) {
+                count = enterUnit(unit, cell, num, changed, count);
+            }
+            for (int other : cellExclusions[cell]) {
+                if (attempt[other] == num) {
+                    conflictUnits[cell]++;
+                    conflictUnits[other]++;
+                    count = refreshConflict(other, changed, count);
+                }
+            }
+        }
+        count = refreshConflict(cell, changed, count);
+        fireCellChanged(cell);
+        for (int i = 0; i < count; i++) {
+            if (changed[i] != cell) {
+                fireCellChanged(changed[i]);
             }
         }
-        return attempt;
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addCellListener(ICellListener listener) {
+        ICellListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[listeners.length] = listener;
+        listeners = copy;
     }
 
     /**
-     * fillBoard(int row, int col)
-     * Llena el tablero de Sudoku 6x6 utilizando backtracking, colocando números del 1 al 6 en
-     * celdas vacías de forma aleatoria y validando su posición según las reglas del Sudoku.
-     * @param row fila actual
-     * @param col columna actual
-     * @return true si el tablero se llena correctamente, false si no es posible llenar la celda.
+     * {@inheritDoc}
      */
-    private boolean fillBoard(int row, int col) {
-        // Si llegamos al final del tablero, hemos terminado
-        if (row == 6) {
-            return true;
+    @Override
+    public void removeCellListener(ICellListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                ICellListener[] copy = new ICellListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, copy, 0, i);
+                System.arraycopy(listeners, i + 1, copy, i, copy.length - i);
+                listeners = copy;
+                return;
+            }
         }
+    }
 
-        // Si llegamos al final de una fila, pasamos a la siguiente
-        int nextRow = (col == 5) ? row + 1 : row;
-        int nextCol = (col == 5) ? 0 : col + 1;
+    private void fireCellChanged(int cell) {
+        for (ICellListener listener : listeners) {
+            listener.cellChanged(cell);
+        }
+    }
 
-        ArrayList<Integer> numbers = new ArrayList<>();
-        for (int i = 1; i <= 6; i++) {
-            numbers.add(i);
+    /**
+     * Quita una celda de la cuenta de su numero en una unidad
+     */
+    private int leaveUnit(int unit, int cell, int num, int[] changed, int count) {
+        int index = unit * (geometry.size() + 1) + num;
+        int before = unitCounts[index]--;
+        unitXor[index] ^= cell;
+        if (before >= 2) {
+            conflictUnits[cell]--;
+        }
+        if (before == 2) {
+            int other = unitXor[index]; // La unica celda que queda con el numero
+            conflictUnits[other]--;
+            count = refreshConflict(other, changed, count);
         }
-        Collections.shuffle(numbers); // Mezclar los números para hacer la generación aleatoria
+        return count;
+    }
 
-        // Probar cada número en la celda actual
-        for (int num : numbers) {
-            if (isValidPlacement(row, col, num)) {
-                board.get(row).set(col, num); // Coloca el número
+    /**
+     * Suma una celda a la cuenta de su numero en una unidad
+     */
+    private int enterUnit(int unit, int cell, int num, int[] changed, int count) {
+        int index = unit * (geometry.size() + 1) + num;
+        int after = ++unitCounts[index];
+        unitXor[index] ^= cell;
+        if (after >= 2) {
+            conflictUnits[cell]++;
+        }
+        if (after == 2) {
+            int other = unitXor[index] ^ cell; // La celda que ya tenia el numero
+            conflictUnits[other]++;
+            count = refreshConflict(other, changed, count);
+        }
+        return count;
+    }
 
-                // Llamada recursiva para intentar llenar la siguiente celda
-                if (fillBoard(nextRow, nextCol)) {
-                    return true; // Si se llena correctamente el resto del tablero, retorna verdadero
-                }
+    /**
+     * Agrega la celda a changed si su estado de conflicto es distinto al ultimo informado
+     */
+    private int refreshConflict(int cell, int[] changed, int count) {
+        boolean now = conflictUnits[cell] > 0;
+        if (now != conflicting[cell]) {
+            conflicting[cell] = now;
+            conflictCount += now ? 1 : -1;
+            changed[count++] = cell;
+        }
+        return count;
+    }
 
-                // Si falla, deshacemos el número colocado
-                board.get(row).set(col, 0);
+    /**
+     * Revisa si el numero del intento en una casilla esta repetido en una de sus unidades o en una celda
+     * excluida por las reglas de la variante
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @return true si la celda esta en conflicto
+     */
+    @Override
+    public boolean isInConflict(int row, int col) {
+        return conflicting[geometry.cell(row, col)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMaxConflictChanges() {
+        return conflictChanges.length;
+    }
+
+    /**
+     * @return cantidad de celdas del intento en conflicto con las reglas
+     */
+    @Override
+    public int getConflictCount() {
+        return conflictCount;
+    }
+
+    /**
+     * Suma o resta una celda de los contadores del estado del juego
+     * @param cell indice de la celda
+     * @param delta 1 para sumar la celda, -1 para restarla
+     */
+    private void track(int cell, int delta) {
+        int num = attempt[cell];
+        if (delta > 0) {
+            if (num != 0 && num == solutionAt(cell)) {
+                unsolved.remove(cell);
+            } else {
+                unsolved.add(cell);
+            }
+        }
+        if (num == 0) {
+            return;
+        }
+        if (num == solutionAt(cell)) {
+            correctCount += delta;
+        } else {
+            wrongCount += delta;
+        }
+    }
+
+    /**
+     * Recalcula los contadores del estado del juego recorriendo todo el tablero.
+     * Solo se usa cuando cambia el tablero completo.
+     */
+    private void recount() {
+        correctCount = 0;
+        wrongCount = 0;
+        unsolved.clear();
+        for (int cell = 0; cell < attempt.length; cell++) {
+            track(cell, 1);
+        }
+        Arrays.fill(unitCounts, 0);
+        Arrays.fill(unitXor, 0);
+        int stride = geometry.size() + 1;
+        for (int cell = 0; cell < attempt.length; cell++) {
+            int num = attempt[cell];
+            if (num != 0) {
+                for (int unit : cellUnits[cell]) {
+                    unitCounts[unit * stride + num]++;
+                    unitXor[unit * stride + num] ^= cell;
+                }
+            }
+        }
+        conflictCount = 0;
+        for (int cell = 0; cell < attempt.length; cell++) {
+            int num = attempt[cell];
+            conflictUnits[cell] = 0;
+            if (num != 0) {
+                for (int unit : cellUnits[cell]) {
+                    if (unitCounts[unit * stride + num] >= 2) {
+                        conflictUnits[cell]++;
+                    }
+                }
+                for (int other : cellExclusions[cell]) {
+                    if (attempt[other] == num) {
+                        conflictUnits[cell]++;
+                    }
+                }
             }
+            conflicting[cell] = conflictUnits[cell] > 0;
+            if (conflicting[cell]) {
+                conflictCount++;
+            }
+        }
+        for (ICellListener listener : listeners) {
+            listener.boardChanged();
+        }
+    }
+
+    /**
+     * Revisa si el jugador completo el sudoku. Es O(1), no recorre el tablero.
+     * @return true si todas las celdas del intento coinciden con la solucion
+     */
+    @Override
+    public boolean isSolved() {
+        return correctCount == attempt.length;
+    }
+
+    /**
+     * Elige al azar una celda en la que se puede dar ayuda: vacia o con un valor incorrecto.
+     * Es O(1) porque el modelo mantiene el conjunto de celdas sin resolver.
+     * @param random generador de numeros aleatorios
+     * @return indice de la celda, o NO_HINT si el tablero esta resuelto
+     */
+    @Override
+    public int nextHintCell(RandomGenerator random) {
+        int cell = unsolved.random(random);
+        return cell < 0 ? NO_HINT : cell;
+    }
+
+    /**
+     * Busca la siguiente celda que se puede deducir del intento actual con tecnicas logicas.
+     * Los candidatos se mantienen al dia con cada setAttempt, asi que no se recalcula el tablero.
+     * Si el intento tiene valores incorrectos la deduccion puede no coincidir con la solucion.
+     * @return la pista con su tecnica, o null si no hay un paso logico
+     */
+    @Override
+    public Hint findLogicalHint() {
+        if (rules != null && rules.hasCustomRegions()) {
+            return null; // Las deducciones por subcuadricula no valen con regiones irregulares
+        }
+        return hintEngine.findHint();
+    }
+
+    /**
+     * @return cantidad de celdas del intento que coinciden con la solucion
+     */
+    @Override
+    public int getCorrectCount() {
+        return correctCount;
+    }
+
+    /**
+     * @return cantidad de celdas del intento llenas con un valor distinto a la solucion
+     */
+    @Override
+    public int getWrongCount() {
+        return wrongCount;
+    }
+
+    /**
+     * Devuelve la forma en que {@link #generateSudoku()} genera los tableros resueltos
+     * @return el modo de generacion
+     */
+    public GenerationMode getGenerationMode() {
+        return generationMode;
+    }
+
+    /**
+     * Cambia la forma en que {@link #generateSudoku()} genera los tableros resueltos. Con
+     * {@link GenerationMode#TRANSFORM} cada tablero sale de transformar una semilla, sin busqueda.
+     * @param generationMode el modo de generacion
+     */
+    public void setGenerationMode(GenerationMode generationMode) {
+        this.generationMode = generationMode;
+    }
+
+    /**
+     * generateSudoku, vacia el tablero y lo llena con valores de un sudoku completado
+     * @return devuelve una copia del sudoku resuelto
+     */
+    @Override
+    public ArrayList<ArrayList<Integer>> generateSudoku() {
+        fillBoard(); //Se llena el sudoku
+        recount();
+        puzzle = null; // El puzzle anterior ya no corresponde al tablero
+
+        return getBoard(); // Devuelve el tablero generado
+    }
+
+    /**
+     * generateEmptySoduku, vacia el tablero attempt llenandolo con ceros
+     *@return devuelve la matriz con ceros
+     */
+    public ArrayList<ArrayList<Integer>> generateEmptySudoku() {
+        Arrays.fill(attempt, 0);
+        for (int cell = 0; cell < attempt.length; cell++) {
+            candidates.set(cell, 0);
         }
-        return false; // No se pudo colocar un número válido en esta celda
+        recount();
+        return getAttempt();
     }
 
     /**
      * isValidPlacement(int row, int col, int num)
      * Verifica si un número puede colocarse en una celda específica, asegurándose de que no se
-     * repita en la misma fila, columna o subcuadrícula de 2x3.
+     * repita en la misma fila, columna o subcuadrícula. Usa las mascaras del tablero, por lo
+     * que la revision es O(1).
      * @param row Fila de la celda.
      * @param col Columna de la celda
      * @param num  Número a colocar.
@@ -122,31 +664,10 @@ public class SudokuModel implements ISudokuModel {
      */
     @Override
     public boolean isValidPlacement(int row, int col, int num) {
-        // Verificar la fila
-        for (int i = 0; i < 6; i++) {
-            if (board.get(row).get(i) == num) {
-                return false;
-            }
+        if (variantBoard != null) {
+            return variantBoard.canPlace(geometry.cell(row, col), num);
         }
-
-        // Verificar la columna
-        for (int i = 0; i < 6; i++) {
-            if (board.get(i).get(col) == num) {
-                return false;
-            }
-        }
-
-        // Verificar la subcuadrícula de 2x3
-        int boxRowStart = (row / 2) * 2; // Encuentra el inicio de la subcuadrícula
-        int boxColStart = (col / 3) * 3;
-        for (int i = boxRowStart; i < boxRowStart + 2; i++) {
-            for (int j = boxColStart; j < boxColStart + 3; j++) {
-                if (board.get(i).get(j) == num) {
-                    return false;
-                }
-            }
-        }
-        return true; // El número puede ser colocado
+        return board.canPlace(row, col, num);
     }
 
     /**
@@ -158,7 +679,92 @@ public class SudokuModel implements ISudokuModel {
      * @return true si el número es correcto, false si es incorrecto.
      */
     public boolean isCorrectValue(int row, int col, int num) {
-        return board.get(row).get(col) == num;
+        return get(row, col) == num;
+    }
+
+    /**
+     * Crea un puzzle con solucion unica quitando pistas del sudoku resuelto.
+     * Si no se logra llegar a la cantidad de pistas en el tiempo por defecto, el puzzle queda con mas pistas.
+     * @param clues cantidad de pistas que se quieren dejar
+     * @return el puzzle, cuya solucion es el tablero del modelo
+     */
+    @Override
+    public Puzzle createPuzzle(int clues) {
+        if (rules != null) {
+            puzzle = getVariantGenerator().generate(variantBoard.toArray(), clues, PuzzleGenerator.DEFAULT_BUDGET_NANOS);
+            return puzzle;
+        }
+        if (generator == null) {
+            generator = new PuzzleGenerator(geometry, random);
+        }
+        puzzle = generator.generate(board.toArray(), clues, PuzzleGenerator.DEFAULT_BUDGET_NANOS);
+        return puzzle;
+    }
+
+    /**
+     * Crea un puzzle con solucion unica del nivel pedido a partir del sudoku resuelto.
+     * El nivel se decide por las tecnicas que hacen falta para resolverlo, no por la cantidad de pistas;
+     * en las variantes, que el calificador no conoce, por la cantidad de pistas del nivel.
+     * @param difficulty nivel de dificultad
+     * @return el puzzle, cuya solucion es el tablero del modelo
+     */
+    @Override
+    public Puzzle createPuzzle(Difficulty difficulty) {
+        if (rules != null) {
+            return createPuzzle(difficulty.targetClues(geometry));
+        }
+        if (generator == null) {
+            generator = new PuzzleGenerator(geometry, random);
+        }
+        puzzle = generator.generateRated(board.toArray(), difficulty);
+        return puzzle;
+    }
+
+    /**
+     * Devuelve el puzzle del juego actual
+     * @return el puzzle, o null si todavia no se ha creado
+     */
+    @Override
+    public Puzzle getPuzzle() {
+        return puzzle;
+    }
+
+    /**
+     * Resuelve un tablero de la misma geometria (con Dancing Links, en paralelo en tableros grandes;
+     * con las reglas de la variante si el modelo tiene una)
+     * @param grid arreglo plano con 0 en las celdas vacias, se llena con la solucion
+     * @return true si el tablero tiene solucion, false en caso contrario.
+     */
+    @Override
+    public boolean solve(int[] grid) {
+        return getSolver().solve(grid);
+    }
+
+    /**
+     * Cuenta las soluciones de un tablero de la misma geometria, deteniendose en el limite
+     * @param grid arreglo plano con 0 en las celdas vacias
+     * @param limit cantidad maxima de soluciones a contar
+     * @return la cantidad de soluciones, como maximo limit
+     */
+    @Override
+    public int countSolutions(int[] grid, int limit) {
+        return getSolver().countSolutions(grid, limit);
+    }
+
+    /**
+     * Crea el resolvedor la primera vez: Dancing Links en un hilo o, en tableros grandes y con varios
+     * procesadores, la busqueda repartida de {@link ParallelSolver}. Las variantes usan {@link VariantSolver}
+     */
+    private ISudokuSolver getSolver() {
+        if (solver == null && rules != null) {
+            solver = new VariantSolver(rules);
+        }
+        if (solver == null) {
+            boolean parallel = geometry.size() >= PARALLEL_SOLVER_MIN_SIZE
+                    && Runtime.getRuntime().availableProcessors() > 1;
+            solver = parallel ? new ParallelSolver(geometry) : new DancingLinksSolver(geometry);
+        }
+        return solver;
     }
 
     /**
@@ -166,14 +772,14 @@ public class SudokuModel implements ISudokuModel {
      */
     @Override
     public void printBoard() {
-        for (ArrayList<Integer> row : board) {
+        for (ArrayList<Integer> row : getBoard()) {
             System.out.println(row);
         }
     }
 
     @Override
     public void printAttempt() {
-        for (ArrayList<Integer> row : attempt) {
+        for (ArrayList<Integer> row : getAttempt()) {
             System.out.println(row);
         }
     }
@@ -0,0 +1,153 @@
+package com.example.sudoku.model.bank;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.Puzzle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * Banco de puzzles de solo lectura, mapeado en memoria con {@link FileChannel#map}.
+ * Los registros se leen directamente del archivo mapeado: elegir y leer un puzzle es O(1), no
+ * interpreta texto y, con {@link #read(Difficulty, long, int[], int[])}, no crea objetos.
+ * Archivos de mas de 2 GB se mapean en varios segmentos que no parten ningun registro.
+ *
+ * Las lecturas usan posiciones absolutas, por lo que varios hilos pueden leer a la vez.
+ */
+public class PuzzleBank implements Closeable {
+
+    private final FileChannel channel;
+    private final PuzzleBankFormat format;
+    private final long[] starts = new long[PuzzleBankFormat.LEVELS];
+    private final long[] counts = new long[PuzzleBankFormat.LEVELS];
+    private final MappedByteBuffer[] segments;
+    private final long recordsPerSegment;
+
+    /**
+     * Abre y mapea un banco de puzzles
+     * @param path archivo del banco
+     */
+    public PuzzleBank(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < PuzzleBankFormat.HEADER_BYTES) {
+                throw new IOException("No es un banco de puzzles valido: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, PuzzleBankFormat.HEADER_BYTES);
+            if (header.getInt() != PuzzleBankFormat.MAGIC || header.getShort() != PuzzleBankFormat.VERSION) {
+                throw new IOException("No es un banco de puzzles valido: " + path);
+            }
+            int size = header.get();
+            int boxRows = header.get();
+            int boxCols = header.get();
+            header.get(); // bitsPerValue, se deduce del tamaño
+            header.getShort();
+            int recordBytes = header.getInt();
+            format = new PuzzleBankFormat(new BoardGeometry(size, boxRows, boxCols));
+            if (recordBytes != format.getRecordBytes()) {
+                throw new IOException("Tamaño de registro inesperado en " + path);
+            }
+            long maxRecords = (channel.size() - PuzzleBankFormat.HEADER_BYTES) / recordBytes;
+            long total = 0;
+            for (int level = 0; level < PuzzleBankFormat.LEVELS; level++) {
+                starts[level] = header.getLong();
+                counts[level] = header.getLong();
+                if (counts[level] < 0 || counts[level] > maxRecords) {
+                    throw new IOException("Cantidad de puzzles invalida en " + path);
+                }
+                total += counts[level];
+            }
+            if (total > maxRecords) {
+                throw new IOException("Banco de puzzles incompleto: " + path);
+            }
+            // Cada dificultad debe caer dentro de los registros del archivo; si no, read leeria fuera
+            for (int level = 0; level < PuzzleBankFormat.LEVELS; level++) {
+                if (starts[level] < 0 || starts[level] > total - counts[level]) {
+                    throw new IOException("Rango de registros invalido en " + path);
+                }
+            }
+
+            recordsPerSegment = Integer.MAX_VALUE / recordBytes;
+            int segmentCount = (int) Math.max(1, (total + recordsPerSegment - 1) / recordsPerSegment);
+            segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = i * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, total - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        PuzzleBankFormat.HEADER_BYTES + first * recordBytes, records * recordBytes);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public BoardGeometry getGeometry() {
+        return format.getGeometry();
+    }
+
+    /**
+     * @param difficulty nivel de dificultad
+     * @return cantidad de puzzles de esa dificultad
+     */
+    public long size(Difficulty difficulty) {
+        return counts[difficulty.ordinal()];
+    }
+
+    /**
+     * Elige al azar un puzzle de una dificultad
+     * @param difficulty nivel de dificultad
+     * @param random generador de numeros aleatorios
+     * @return indice del puzzle dentro de la dificultad
+     */
+    public long randomIndex(Difficulty difficulty, RandomGenerator random) {
+        long count = size(difficulty);
+        if (count == 0) {
+            throw new IllegalStateException("El banco no tiene puzzles " + difficulty);
+        }
+        return random.nextLong(count);
+    }
+
+    /**
+     * Lee un puzzle en arreglos dados por quien llama, sin crear objetos
+     * @param difficulty nivel de dificultad
+     * @param index indice del puzzle dentro de la dificultad
+     * @param givens arreglo donde se escriben las pistas
+     * @param solution arreglo donde se escribe la solucion
+     */
+    public void read(Difficulty difficulty, long index, int[] givens, int[] solution) {
+        if (index < 0 || index >= size(difficulty)) {
+            throw new IndexOutOfBoundsException("Puzzle " + index + " fuera del banco " + difficulty);
+        }
+        long record = starts[difficulty.ordinal()] + index;
+        int segment = (int) (record / recordsPerSegment);
+        int position = (int) (record % recordsPerSegment) * format.getRecordBytes();
+        format.decode(segments[segment], position, givens, solution);
+    }
+
+    /**
+     * Lee un puzzle al azar de una dificultad
+     * @param difficulty nivel de dificultad
+     * @param random generador de numeros aleatorios
+     * @return el puzzle leido
+     */
+    public Puzzle randomPuzzle(Difficulty difficulty, RandomGenerator random) {
+        int cells = getGeometry().cellCount();
+        int[] givens = new int[cells];
+        int[] solution = new int[cells];
+        read(difficulty, randomIndex(difficulty, random), givens, solution);
+        return new Puzzle(getGeometry(), givens, solution);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.sudoku.model.bank;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Formato binario de los bancos de puzzles.
+ *
+ * El archivo empieza con una cabecera de tamaño fijo:
+ * <pre>
+ * int   magic ("SDKB")
+ * short version
+ * byte  size, boxRows, boxCols, bitsPerValue
+ * short reservado
+ * int   recordBytes
+ * por cada Difficulty: long primer registro, long cantidad de registros
+ * </pre>
+ * seguida de registros de ancho fijo agrupados por dificultad. Cada registro guarda, celda por celda,
+ * un bit que indica si la celda es pista y el valor de la solucion menos uno en bitsPerValue bits
+ * (3 bits en 6x6, 4 en 9x9 y 16x16, 5 en 25x25), empaquetados desde el bit mas significativo.
+ */
+public final class PuzzleBankFormat {
+
+    public static final int MAGIC = 0x53444B42; // "SDKB"
+    public static final short VERSION = 1;
+    public static final int LEVELS = Difficulty.values().length;
+    public static final int HEADER_BYTES = 16 + LEVELS * 16;
+
+    private final BoardGeometry geometry;
+    private final int bitsPerValue;
+    private final int fieldBits;
+    private final int fieldMask;
+    private final int recordBytes;
+
+    /**
+     * @param geometry geometria de los puzzles del banco
+     */
+    public PuzzleBankFormat(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.bitsPerValue = 32 - Integer.numberOfLeadingZeros(geometry.size() - 1);
+        this.fieldBits = bitsPerValue + 1;
+        this.fieldMask = (1 << fieldBits) - 1;
+        this.recordBytes = (geometry.cellCount() * fieldBits + 7) / 8;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int getBitsPerValue() {
+        return bitsPerValue;
+    }
+
+    /**
+     * @return bytes que ocupa cada registro
+     */
+    public int getRecordBytes() {
+        return recordBytes;
+    }
+
+    /**
+     * Empaqueta un puzzle en un registro
+     * @param givens pistas, 0 en las celdas vacias
+     * @param solution solucion completa
+     * @param record arreglo de getRecordBytes() bytes donde se escribe el registro
+     * @param offset posicion del registro dentro del arreglo
+     */
+    public void encode(int[] givens, int[] solution, byte[] record, int offset) {
+        for (int i = 0; i < recordBytes; i++) {
+            record[offset + i] = 0;
+        }
+        for (int cell = 0; cell < solution.length; cell++) {
+            int field = (givens[cell] != 0 ? 1 << bitsPerValue : 0) | (solution[cell] - 1);
+            int bitPos = cell * fieldBits;
+            int index = offset + (bitPos >>> 3);
+            int shift = 16 - (bitPos & 7) - fieldBits; // Posicion dentro de dos bytes
+            int chunk = field << shift;
+            record[index] |= (byte) (chunk >>> 8);
+            if ((bitPos & 7) + fieldBits > 8) {
+                record[index + 1] |= (byte) chunk;
+            }
+        }
+    }
+
+    /**
+     * Desempaqueta un registro leyendo directamente del buffer, sin crear objetos
+     * @param buffer buffer con los registros
+     * @param position posicion absoluta del registro en el buffer
+     * @param givens arreglo donde se escriben las pistas, 0 en las celdas vacias
+     * @param solution arreglo donde se escribe la solucion
+     * @throws IllegalArgumentException si el registro tiene un valor fuera de 1..size, lo que pasa con
+     *         bancos dañados cuando bitsPerValue alcanza para numeros mayores que size
+     */
+    public void decode(ByteBuffer buffer, int position, int[] givens, int[] solution) {
+        int valueMask = (1 << bitsPerValue) - 1;
+        for (int cell = 0; cell < solution.length; cell++) {
+            int bitPos = cell * fieldBits;
+            int index = position + (bitPos >>> 3);
+            int offsetInByte = bitPos & 7;
+            int chunk = (buffer.get(index) & 0xFF) << 8;
+            if (offsetInByte + fieldBits > 8) {
+                chunk |= buffer.get(index + 1) & 0xFF;
+            }
+            int field = (chunk >>> (16 - offsetInByte - fieldBits)) & fieldMask;
+            int num = (field & valueMask) + 1;
+            if (!geometry.isValidNumber(num)) {
+                throw new IllegalArgumentException("Valor " + num + " fuera del tablero " + geometry
+                        + " en la celda " + cell);
+            }
+            solution[cell] = num;
+            givens[cell] = (field >>> bitsPerValue) != 0 ? num : 0;
+        }
+    }
+
+    /**
+     * Escribe la cabecera del banco
+     * @param header buffer de al menos HEADER_BYTES bytes
+     * @param starts primer registro de cada dificultad
+     * @param counts cantidad de registros de cada dificultad
+     */
+    void writeHeader(ByteBuffer header, long[] starts, long[] counts) {
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.put((byte) geometry.size());
+        header.put((byte) geometry.boxRows());
+        header.put((byte) geometry.boxCols());
+        header.put((byte) bitsPerValue);
+        header.putShort((short) 0);
+        header.putInt(recordBytes);
+        for (int level = 0; level < LEVELS; level++) {
+            header.putLong(starts[level]);
+            header.putLong(counts[level]);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.sudoku.model.bank;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.Puzzle;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escribe un banco de puzzles en el formato de {@link PuzzleBankFormat}.
+ * Los registros de cada dificultad se escriben primero en un archivo temporal; al cerrar se escribe la
+ * cabecera y se copian los temporales uno tras otro, de modo que nunca se guardan puzzles en memoria.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class PuzzleBankWriter implements Closeable {
+
+    private final Path path;
+    private final PuzzleBankFormat format;
+    private final Path[] spillPaths = new Path[PuzzleBankFormat.LEVELS];
+    private final OutputStream[] spills = new OutputStream[PuzzleBankFormat.LEVELS];
+    private final long[] counts = new long[PuzzleBankFormat.LEVELS];
+    private final byte[] record;
+    private boolean closed;
+
+    /**
+     * @param path archivo del banco, se reemplaza si existe
+     * @param geometry geometria de los puzzles
+     */
+    public PuzzleBankWriter(Path path, BoardGeometry geometry) throws IOException {
+        this.path = path;
+        this.format = new PuzzleBankFormat(geometry);
+        this.record = new byte[format.getRecordBytes()];
+        for (int level = 0; level < PuzzleBankFormat.LEVELS; level++) {
+            spillPaths[level] = path.resolveSibling(path.getFileName() + "." + level + ".tmp");
+            spills[level] = new BufferedOutputStream(Files.newOutputStream(spillPaths[level]), 1 << 16);
+        }
+    }
+
+    public PuzzleBankFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Agrega un puzzle al banco
+     * @param difficulty dificultad con la que se indexa
+     * @param puzzle puzzle con la geometria del banco
+     */
+    public void add(Difficulty difficulty, Puzzle puzzle) throws IOException {
+        format.encode(puzzle.getGivens(), puzzle.getSolution(), record, 0);
+        addRecord(difficulty, record, 0);
+    }
+
+    /**
+     * Agrega un registro ya empaquetado con {@link PuzzleBankFormat#encode}
+     * @param difficulty dificultad con la que se indexa
+     * @param bytes arreglo con el registro
+     * @param offset posicion del registro en el arreglo
+     */
+    public void addRecord(Difficulty difficulty, byte[] bytes, int offset) throws IOException {
+        spills[difficulty.ordinal()].write(bytes, offset, format.getRecordBytes());
+        counts[difficulty.ordinal()]++;
+    }
+
+    /**
+     * Escribe la cabecera, une los registros de todas las dificultades y borra los temporales
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (OutputStream spill : spills) {
+                spill.close();
+            }
+            long[] starts = new long[PuzzleBankFormat.LEVELS];
+            for (int level = 1; level < PuzzleBankFormat.LEVELS; level++) {
+                starts[level] = starts[level - 1] + counts[level - 1];
+            }
+            try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(PuzzleBankFormat.HEADER_BYTES);
+                format.writeHeader(header, starts, counts);
+                header.flip();
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+                for (Path spillPath : spillPaths) {
+                    try (FileChannel in = FileChannel.open(spillPath, StandardOpenOption.READ)) {
+                        long size = in.size();
+                        long copied = 0;
+                        while (copied < size) {
+                            copied += in.transferTo(copied, size - copied, out);
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (Path spillPath : spillPaths) {
+                Files.deleteIfExists(spillPath);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.sudoku.model.batch;
+
+import com.example.sudoku.model.BoardGeometry;
+
+/**
+ * Lote de tableros empaquetados en un solo arreglo de bytes, para validarlos en bloque con un
+ * {@link IGridValidator}.
+ *
+ * Los valores se guardan por celda y no por tablero: la celda c del tablero i esta en
+ * cells[c * capacity + i]. Asi los valores de una misma celda en tableros seguidos quedan contiguos y
+ * un validador puede revisar varios tableros a la vez con una sola carga por celda. Cada valor ocupa un
+ * byte (0 para celda vacia), lo que alcanza para tableros de hasta 25x25.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public final class GridBatch {
+
+    private final BoardGeometry geometry;
+    private final int capacity;
+    private final byte[] cells;
+    private int count;
+
+    /**
+     * Crea un lote vacio
+     * @param geometry geometria de los tableros del lote
+     * @param capacity cantidad maxima de tableros
+     */
+    public GridBatch(BoardGeometry geometry, int capacity) {
+        if (capacity < 1 || (long) capacity * geometry.cellCount() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacidad de lote invalida: " + capacity);
+        }
+        this.geometry = geometry;
+        this.capacity = capacity;
+        this.cells = new byte[capacity * geometry.cellCount()];
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return cantidad de tableros en el lote
+     */
+    public int size() {
+        return count;
+    }
+
+    public boolean isFull() {
+        return count == capacity;
+    }
+
+    /**
+     * Agrega un tablero al final del lote
+     * @param grid tablero plano de size * size celdas, fila por fila, con 0 en las celdas vacias
+     * @return indice del tablero en el lote
+     */
+    public int add(int[] grid) {
+        if (count == capacity) {
+            throw new IllegalStateException("El lote esta lleno");
+        }
+        write(count, grid);
+        return count++;
+    }
+
+    /**
+     * Agrega un tablero escrito con una letra por celda en base 36, como las pistas o la solucion de
+     * {@link com.example.sudoku.model.Puzzle#toLine()}
+     * @param line texto del tablero
+     * @param start posicion de la primera celda en el texto
+     * @return indice del tablero en el lote
+     */
+    public int add(CharSequence line, int start) {
+        if (count == capacity) {
+            throw new IllegalStateException("El lote esta lleno");
+        }
+        int cellCount = geometry.cellCount();
+        if (start < 0 || line.length() - start < cellCount) {
+            throw new IllegalArgumentException("El texto no tiene " + cellCount + " celdas");
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            int num = Character.digit(line.charAt(start + cell), Character.MAX_RADIX);
+            cells[cell * capacity + count] = (byte) checkNumber(num, cell);
+        }
+        return count++;
+    }
+
+    /**
+     * Reemplaza un tablero del lote
+     * @param index indice del tablero, menor que size()
+     * @param grid tablero plano de size * size celdas
+     */
+    public void set(int index, int[] grid) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Tablero fuera del lote: " + index);
+        }
+        write(index, grid);
+    }
+
+    private void write(int index, int[] grid) {
+        if (grid.length != geometry.cellCount()) {
+            throw new IllegalArgumentException("El tablero no tiene " + geometry.cellCount() + " celdas");
+        }
+        for (int cell = 0; cell < grid.length; cell++) {
+            cells[cell * capacity + index] = (byte) checkNumber(grid[cell], cell);
+        }
+    }
+
+    /**
+     * Devuelve el valor de una celda de un tablero del lote
+     * @param index indice del tablero
+     * @param cell indice de la celda en el tablero
+     * @return el numero de la celda o 0 si esta vacia
+     */
+    public int get(int index, int cell) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Tablero fuera del lote: " + index);
+        }
+        return cells[cell * capacity + index];
+    }
+
+    /**
+     * Copia un tablero del lote a un arreglo plano
+     * @param index indice del tablero
+     * @param grid arreglo de size * size celdas
+     */
+    public void copyTo(int index, int[] grid) {
+        for (int cell = 0; cell < grid.length; cell++) {
+            grid[cell] = get(index, cell);
+        }
+    }
+
+    /**
+     * Vacia el lote para reutilizar el arreglo. Los valores viejos no se borran porque cada tablero
+     * agregado escribe todas sus celdas.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Arreglo empaquetado, compartido con los validadores
+     */
+    byte[] cells() {
+        return cells;
+    }
+
+    private int checkNumber(int num, int cell) {
+        if (num != 0 && !geometry.isValidNumber(num)) {
+            throw new IllegalArgumentException("Numero invalido " + num + " en la celda " + cell);
+        }
+        return num;
+    }
+}
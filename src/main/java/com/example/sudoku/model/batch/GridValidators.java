@@ -0,0 +1,67 @@
+package com.example.sudoku.model.batch;
+
+import com.example.sudoku.model.BoardGeometry;
+
+/**
+ * Crea validadores en bloque. Si la JVM se inicio con el modulo de vectores
+ * (--add-modules jdk.incubator.vector) se usa {@link VectorGridValidator}; si no, o si la propiedad
+ * sudoku.vector es false, se usa {@link ScalarGridValidator}. Los dos dan los mismos resultados.
+ */
+public final class GridValidators {
+
+    public static final String VECTOR_MODULE = "jdk.incubator.vector";
+    public static final String PROPERTY = "sudoku.vector"; // false para forzar el validador escalar
+
+    private static final boolean VECTOR_AVAILABLE = probeVector();
+
+    private GridValidators() {
+    }
+
+    /**
+     * Crea el validador mas rapido disponible en esta JVM
+     * @param geometry geometria de los tableros a validar
+     * @return un validador nuevo, que no se debe compartir entre hilos
+     */
+    public static IGridValidator create(BoardGeometry geometry) {
+        return VECTOR_AVAILABLE ? new VectorGridValidator(geometry) : new ScalarGridValidator(geometry);
+    }
+
+    /**
+     * Crea un validador escalar, por ejemplo para comparar con el vectorial
+     * @param geometry geometria de los tableros a validar
+     * @return un validador nuevo, que no se debe compartir entre hilos
+     */
+    public static IGridValidator scalar(BoardGeometry geometry) {
+        return new ScalarGridValidator(geometry);
+    }
+
+    /**
+     * @return true si create devuelve el validador vectorial
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+    /**
+     * @return tableros que el validador de create revisa a la vez
+     */
+    public static int lanes() {
+        return VECTOR_AVAILABLE ? VectorGridValidator.lanes() : 1;
+    }
+
+    /**
+     * El modulo se declara con requires static, asi que solo esta si se agrego al iniciar la JVM.
+     * Cargar la clase vectorial sin el falla al enlazar, por eso se revisa antes de usarla.
+     */
+    private static boolean probeVector() {
+        if (!Boolean.parseBoolean(System.getProperty(PROPERTY, "true"))
+                || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorGridValidator.lanes() > 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.sudoku.model.batch;
+
+/**
+ * Interfaz que define la validacion en bloque de tableros completos empaquetados en un {@link GridBatch}.
+ * Los resultados se escriben en un arreglo con una posicion por tablero del lote.
+ */
+public interface IGridValidator {
+
+    /**
+     * Revisa que cada tablero este completo y cumpla las reglas: cada numero aparece exactamente una
+     * vez en cada fila, columna y subcuadricula.
+     *
+     * @param grids lote a revisar, con la geometria del validador.
+     * @param valid arreglo de al menos grids.size() posiciones donde se escribe si cada tablero es valido.
+     * @return la cantidad de tableros validos.
+     */
+    int validate(GridBatch grids, boolean[] valid);
+
+    /**
+     * Compara cada intento con su solucion, como la revision de fin de juego del modelo.
+     *
+     * @param attempts lote de intentos.
+     * @param solutions lote de soluciones, con la misma cantidad de tableros que attempts.
+     * @param equal arreglo de al menos attempts.size() posiciones donde se escribe si cada intento es
+     *              igual a su solucion.
+     * @return la cantidad de intentos iguales a su solucion.
+     */
+    int matches(GridBatch attempts, GridBatch solutions, boolean[] equal);
+}
@@ -0,0 +1,148 @@
+package com.example.sudoku.model.batch;
+
+import com.example.sudoku.model.BoardGeometry;
+
+import java.util.Arrays;
+
+/**
+ * Validador en bloque sin instrucciones vectoriales. Por cada unidad de cada tablero junta en una
+ * mascara de bits los numeros de sus celdas y la compara con la mascara de todos los numeros, que solo
+ * se alcanza si los size numeros de la unidad son distintos y estan entre 1 y size.
+ *
+ * Los tableros se recorren de a BLOCK y celda por celda, en el mismo orden en que el lote los guarda,
+ * asi cada lectura es contigua en vez de saltar capacity bytes entre celdas de un mismo tablero.
+ *
+ * Es el validador que se usa cuando el modulo jdk.incubator.vector no esta disponible, y el que
+ * termina los tableros que sobran al final de un lote en {@link VectorGridValidator}.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class ScalarGridValidator implements IGridValidator {
+
+    static final int BLOCK = 64; // Tableros que se revisan juntos
+
+    private final BoardGeometry geometry;
+    private final int cellCount;
+    private final int[] masks; // Mascara de cada unidad de cada tablero del bloque: masks[unidad * BLOCK + j]
+
+    /**
+     * @param geometry geometria de los tableros a validar
+     */
+    public ScalarGridValidator(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.cellCount = geometry.cellCount();
+        this.masks = new int[geometry.unitCount() * BLOCK];
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int validate(GridBatch grids, boolean[] valid) {
+        check(grids, valid);
+        return validate(grids, valid, 0, grids.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int matches(GridBatch attempts, GridBatch solutions, boolean[] equal) {
+        check(attempts, solutions, equal);
+        return matches(attempts, solutions, equal, 0, attempts.size());
+    }
+
+    /**
+     * Valida los tableros from..to-1 de un lote ya revisado
+     */
+    int validate(GridBatch grids, boolean[] valid, int from, int to) {
+        byte[] cells = grids.cells();
+        int stride = grids.getCapacity();
+        int all = geometry.allMask();
+        int units = geometry.unitCount();
+        int found = 0;
+        for (int start = from; start < to; start += BLOCK) {
+            int count = Math.min(BLOCK, to - start);
+            Arrays.fill(masks, 0);
+            for (int cell = 0; cell < cellCount; cell++) {
+                int base = cell * stride + start;
+                int row = geometry.rowUnit(cell) * BLOCK;
+                int col = geometry.colUnit(cell) * BLOCK;
+                int box = geometry.boxUnit(cell) * BLOCK;
+                for (int j = 0; j < count; j++) {
+                    int bit = 1 << cells[base + j];
+                    masks[row + j] |= bit;
+                    masks[col + j] |= bit;
+                    masks[box + j] |= bit;
+                }
+            }
+            for (int j = 0; j < count; j++) {
+                boolean ok = true;
+                for (int unit = 0; ok && unit < units; unit++) {
+                    ok = masks[unit * BLOCK + j] == all;
+                }
+                valid[start + j] = ok;
+                if (ok) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Compara los intentos from..to-1 de lotes ya revisados
+     */
+    int matches(GridBatch attempts, GridBatch solutions, boolean[] equal, int from, int to) {
+        byte[] left = attempts.cells();
+        byte[] right = solutions.cells();
+        int leftStride = attempts.getCapacity();
+        int rightStride = solutions.getCapacity();
+        int found = 0;
+        for (int start = from; start < to; start += BLOCK) {
+            int count = Math.min(BLOCK, to - start);
+            Arrays.fill(masks, 0, BLOCK, 0);
+            for (int cell = 0; cell < cellCount; cell++) {
+                int leftBase = cell * leftStride + start;
+                int rightBase = cell * rightStride + start;
+                for (int j = 0; j < count; j++) {
+                    masks[j] |= left[leftBase + j] ^ right[rightBase + j];
+                }
+            }
+            for (int j = 0; j < count; j++) {
+                equal[start + j] = masks[j] == 0;
+                if (masks[j] == 0) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Revisa que el lote tenga la geometria del validador y que el arreglo de resultados alcance
+     */
+    void check(GridBatch grids, boolean[] results) {
+        if (!grids.getGeometry().equals(geometry)) {
+            throw new IllegalArgumentException("El lote es de tableros " + grids.getGeometry()
+                    + " y el validador de " + geometry);
+        }
+        if (results.length < grids.size()) {
+            throw new IllegalArgumentException("El arreglo de resultados tiene " + results.length
+                    + " posiciones y el lote " + grids.size() + " tableros");
+        }
+    }
+
+    void check(GridBatch attempts, GridBatch solutions, boolean[] results) {
+        check(attempts, results);
+        check(solutions, results);
+        if (attempts.size() != solutions.size()) {
+            throw new IllegalArgumentException("Hay " + attempts.size() + " intentos y "
+                    + solutions.size() + " soluciones");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.sudoku.model.batch;
+
+import com.example.sudoku.model.BoardGeometry;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Validador en bloque con la API de vectores del JDK (modulo incubado jdk.incubator.vector).
+ *
+ * Cada carril del vector es un tablero distinto: como el lote guarda juntos los valores de una misma
+ * celda, una carga trae esa celda de LANES tableros seguidos. Para validar se hace la misma cuenta que
+ * {@link ScalarGridValidator}, pero en todos los carriles a la vez: por cada unidad se juntan los bits
+ * 1 &lt;&lt; valor con OR y se compara con la mascara de todos los numeros. Los valores se cargan como
+ * bytes y se ensanchan a enteros porque la mascara de un tablero de 25x25 no cabe en 16 bits. Para
+ * comparar intentos con soluciones no hace falta ensanchar y se comparan los bytes directamente.
+ *
+ * Los tableros que sobran al final del lote, menos que un vector, los revisa el validador escalar.
+ * Solo se debe crear si el modulo esta en la capa de arranque (ver {@link GridValidators}).
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+final class VectorGridValidator implements IGridValidator {
+
+    // Al menos 8 carriles, para que los bytes de una carga llenen el vector de bytes mas chico (64 bits)
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED.length() >= 8
+            ? IntVector.SPECIES_PREFERRED : IntVector.SPECIES_256;
+    private static final VectorSpecies<Byte> BYTES =
+            VectorSpecies.of(byte.class, VectorShape.forBitSize(INTS.length() * Byte.SIZE));
+    private static final VectorSpecies<Byte> EQUAL_BYTES = ByteVector.SPECIES_PREFERRED;
+
+    private final BoardGeometry geometry;
+    private final int[][] units;
+    private final ScalarGridValidator tail;
+
+    VectorGridValidator(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.units = new int[geometry.unitCount()][];
+        for (int unit = 0; unit < units.length; unit++) {
+            units[unit] = geometry.unitCells(unit);
+        }
+        this.tail = new ScalarGridValidator(geometry);
+    }
+
+    /**
+     * @return tableros que se revisan a la vez al validar
+     */
+    static int lanes() {
+        return INTS.length();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int validate(GridBatch grids, boolean[] valid) {
+        tail.check(grids, valid);
+        byte[] cells = grids.cells();
+        int stride = grids.getCapacity();
+        int count = grids.size();
+        int bound = INTS.loopBound(count);
+        IntVector one = IntVector.broadcast(INTS, 1);
+        int all = geometry.allMask();
+        int found = 0;
+        for (int i = 0; i < bound; i += INTS.length()) {
+            VectorMask<Integer> ok = INTS.maskAll(true);
+            for (int[] unit : units) {
+                IntVector seen = IntVector.zero(INTS);
+                for (int cell : unit) {
+                    IntVector num = (IntVector) ByteVector.fromArray(BYTES, cells, cell * stride + i)
+                            .convertShape(VectorOperators.B2I, INTS, 0);
+                    seen = seen.or(one.lanewise(VectorOperators.LSHL, num));
+                }
+                ok = ok.and(seen.eq(all));
+                if (!ok.anyTrue()) {
+                    break;
+                }
+            }
+            ok.intoArray(valid, i);
+            found += ok.trueCount();
+        }
+        return found + tail.validate(grids, valid, bound, count);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int matches(GridBatch attempts, GridBatch solutions, boolean[] equal) {
+        tail.check(attempts, solutions, equal);
+        byte[] left = attempts.cells();
+        byte[] right = solutions.cells();
+        int leftStride = attempts.getCapacity();
+        int rightStride = solutions.getCapacity();
+        int count = attempts.size();
+        int cellCount = geometry.cellCount();
+        int bound = EQUAL_BYTES.loopBound(count);
+        int found = 0;
+        for (int i = 0; i < bound; i += EQUAL_BYTES.length()) {
+            VectorMask<Byte> same = EQUAL_BYTES.maskAll(true);
+            for (int cell = 0; cell < cellCount; cell++) {
+                ByteVector a = ByteVector.fromArray(EQUAL_BYTES, left, cell * leftStride + i);
+                ByteVector b = ByteVector.fromArray(EQUAL_BYTES, right, cell * rightStride + i);
+                same = same.and(a.eq(b));
+                if (!same.anyTrue()) {
+                    break;
+                }
+            }
+            same.intoArray(equal, i);
+            found += same.trueCount();
+        }
+        return found + tail.matches(attempts, solutions, equal, bound, count);
+    }
+}
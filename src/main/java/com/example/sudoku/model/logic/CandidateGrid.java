@@ -0,0 +1,142 @@
+package com.example.sudoku.model.logic;
+
+import com.example.sudoku.model.BoardGeometry;
+
+import java.util.Arrays;
+
+/**
+ * Candidatos de cada celda de un tablero que se va llenando.
+ *
+ * Por cada unidad se cuenta cuantas veces aparece cada numero, lo que permite que el tablero tenga
+ * numeros repetidos (un intento del jugador con errores). Al colocar un numero solo se quita ese
+ * numero de los candidatos de las celdas vecinas, y al borrarlo solo se devuelve a las vecinas que ya
+ * no lo ven en ninguna de sus unidades: cada cambio cuesta O(vecinas), no se recalcula el tablero.
+ */
+public class CandidateGrid {
+
+    private final BoardGeometry geometry;
+    private final int[] cells; // 0 significa celda vacia
+    private final int[] candidates; // Mascara de candidatos, 0 en las celdas llenas
+    private final int[] counts; // counts[unidad * (size + 1) + numero]
+
+    /**
+     * Crea un tablero vacio, donde todas las celdas tienen todos los candidatos
+     * @param geometry geometria del tablero
+     */
+    public CandidateGrid(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.cells = new int[geometry.cellCount()];
+        this.candidates = new int[geometry.cellCount()];
+        this.counts = new int[geometry.unitCount() * (geometry.size() + 1)];
+        Arrays.fill(candidates, geometry.allMask());
+    }
+
+    /**
+     * Vacia el tablero y coloca los numeros dados
+     * @param grid tablero de tamaño size * size, 0 en las celdas vacias
+     */
+    public void load(int[] grid) {
+        Arrays.fill(cells, 0);
+        Arrays.fill(counts, 0);
+        Arrays.fill(candidates, geometry.allMask());
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (grid[cell] != 0) {
+                place(cell, grid[cell]);
+            }
+        }
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int get(int cell) {
+        return cells[cell];
+    }
+
+    /**
+     * @param cell indice de la celda
+     * @return mascara de candidatos de la celda, 0 si esta llena
+     */
+    public int candidates(int cell) {
+        return candidates[cell];
+    }
+
+    /**
+     * Copia las mascaras de candidatos en un arreglo de trabajo
+     * @param target arreglo de tamaño size * size
+     */
+    public void copyCandidates(int[] target) {
+        System.arraycopy(candidates, 0, target, 0, candidates.length);
+    }
+
+    /**
+     * Coloca un numero en una celda, reemplazando el que tuviera, y actualiza los candidatos
+     * @param cell indice de la celda
+     * @param num numero a colocar, 0 para vaciar la celda
+     */
+    public void set(int cell, int num) {
+        int old = cells[cell];
+        if (old == num) {
+            return;
+        }
+        if (old != 0) {
+            remove(cell, old);
+        }
+        if (num != 0) {
+            place(cell, num);
+        }
+    }
+
+    private void place(int cell, int num) {
+        cells[cell] = num;
+        candidates[cell] = 0;
+        addCount(cell, num, 1);
+        int clear = ~(1 << num);
+        for (int peer : geometry.peers(cell)) {
+            candidates[peer] &= clear;
+        }
+    }
+
+    private void remove(int cell, int num) {
+        cells[cell] = 0;
+        addCount(cell, num, -1);
+        candidates[cell] = freeMask(cell);
+        int bit = 1 << num;
+        for (int peer : geometry.peers(cell)) {
+            if (cells[peer] == 0 && !sees(peer, num)) {
+                candidates[peer] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Revisa si alguna unidad de la celda ya tiene el numero
+     */
+    private boolean sees(int cell, int num) {
+        int stride = geometry.size() + 1;
+        return counts[geometry.rowUnit(cell) * stride + num] > 0
+                || counts[geometry.colUnit(cell) * stride + num] > 0
+                || counts[geometry.boxUnit(cell) * stride + num] > 0;
+    }
+
+    /**
+     * Calcula los numeros que no aparecen en ninguna unidad de la celda
+     */
+    private int freeMask(int cell) {
+        int mask = 0;
+        for (int num = 1; num <= geometry.size(); num++) {
+            if (!sees(cell, num)) {
+                mask |= 1 << num;
+            }
+        }
+        return mask;
+    }
+
+    private void addCount(int cell, int num, int delta) {
+        int stride = geometry.size() + 1;
+        counts[geometry.rowUnit(cell) * stride + num] += delta;
+        counts[geometry.colUnit(cell) * stride + num] += delta;
+        counts[geometry.boxUnit(cell) * stride + num] += delta;
+    }
+}
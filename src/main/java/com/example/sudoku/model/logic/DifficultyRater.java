@@ -0,0 +1,69 @@
+package com.example.sudoku.model.logic;
+
+import com.example.sudoku.model.BoardGeometry;
+
+/**
+ * Califica la dificultad de un puzzle resolviendolo solo con tecnicas humanas.
+ *
+ * En cada paso el {@link HintEngine} busca la celda que se puede deducir con la tecnica mas barata,
+ * se coloca el numero y se sigue hasta llenar el tablero o quedar sin pasos logicos. El resultado
+ * guarda la tecnica mas dificil que hizo falta y la suma de los costos de cada paso. La cuadricula de
+ * candidatos y el motor se reutilizan entre llamadas; lo unico que se crea por puzzle son los
+ * {@link Hint} de cada paso y el {@link Rating} del resultado, objetos chicos y de vida corta.
+ *
+ * No es seguro para usarse desde varios hilos a la vez; cada hilo debe tener su propio calificador.
+ */
+public class DifficultyRater {
+
+    private final BoardGeometry geometry;
+    private final CandidateGrid grid;
+    private final HintEngine engine;
+
+    /**
+     * @param geometry geometria de los puzzles a calificar
+     */
+    public DifficultyRater(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.grid = new CandidateGrid(geometry);
+        this.engine = new HintEngine(grid);
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Califica un puzzle
+     * @param givens pistas del puzzle, 0 en las celdas vacias; no se modifica
+     * @return la calificacion
+     */
+    public Rating rate(int[] givens) {
+        if (givens.length != geometry.cellCount()) {
+            throw new IllegalArgumentException("El tablero no tiene " + geometry.cellCount() + " celdas");
+        }
+        grid.load(givens);
+        int empty = 0;
+        for (int num : givens) {
+            if (num == 0) {
+                empty++;
+            }
+        }
+
+        Technique hardest = Technique.NAKED_SINGLE;
+        int score = 0;
+        int steps = 0;
+        while (steps < empty) {
+            Hint hint = engine.findHint();
+            if (hint == null) {
+                break;
+            }
+            if (hint.getTechnique().compareTo(hardest) > 0) {
+                hardest = hint.getTechnique();
+            }
+            score += hint.getTechnique().getCost();
+            steps++;
+            grid.set(geometry.cell(hint.getRow(), hint.getCol()), hint.getValue());
+        }
+        return new Rating(hardest, score, steps, steps == empty);
+    }
+}
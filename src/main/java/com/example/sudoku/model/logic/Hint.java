@@ -0,0 +1,41 @@
+package com.example.sudoku.model.logic;
+
+/**
+ * Pista deducida por el motor de pistas: la celda, el numero que va en ella y la tecnica mas dificil
+ * que se necesito para llegar a esa conclusion.
+ */
+public final class Hint {
+
+    private final int row;
+    private final int col;
+    private final int value;
+    private final Technique technique;
+
+    public Hint(int row, int col, int value, Technique technique) {
+        this.row = row;
+        this.col = col;
+        this.value = value;
+        this.technique = technique;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public Technique getTechnique() {
+        return technique;
+    }
+
+    @Override
+    public String toString() {
+        return technique.getDescription() + ": " + value + " en (" + row + ", " + col + ")";
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.sudoku.model.logic;
+
+import com.example.sudoku.model.BoardGeometry;
+
+import java.util.Arrays;
+
+/**
+ * Motor de pistas por deduccion.
+ *
+ * Parte de los candidatos que mantiene un {@link CandidateGrid} y los copia en un arreglo de trabajo.
+ * Primero busca un unico candidato o un unico lugar; si no hay, aplica eliminaciones (parejas
+ * apuntadoras, parejas desnudas y parejas ocultas) sobre la copia y vuelve a buscar. La pista indica la
+ * tecnica mas dificil que hizo falta. El tablero original nunca se modifica.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class HintEngine {
+
+    private final CandidateGrid grid;
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int[] work; // Candidatos de trabajo
+    private final int[] rowBits; // Por numero: filas o posiciones donde aparece, segun la tecnica
+    private final int[] colBits; // Por numero: columnas donde aparece dentro de una subcuadricula
+    private Technique hardest;
+
+    /**
+     * @param grid candidatos del tablero sobre el que se buscan pistas
+     */
+    public HintEngine(CandidateGrid grid) {
+        this.grid = grid;
+        this.geometry = grid.getGeometry();
+        this.size = geometry.size();
+        this.work = new int[geometry.cellCount()];
+        this.rowBits = new int[size + 1];
+        this.colBits = new int[size + 1];
+    }
+
+    /**
+     * Busca el siguiente paso logico
+     * @return la pista, o null si con estas tecnicas no se puede deducir ninguna celda
+     */
+    public Hint findHint() {
+        grid.copyCandidates(work);
+        hardest = Technique.NAKED_SINGLE;
+        while (true) {
+            Hint hint = findSingle();
+            if (hint != null) {
+                return hint;
+            }
+            if (!eliminate()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Busca una celda con un solo candidato o un numero con un solo lugar en una unidad
+     * @return la pista o null
+     */
+    private Hint findSingle() {
+        for (int cell = 0; cell < work.length; cell++) {
+            int mask = work[cell];
+            if (grid.get(cell) == 0 && mask != 0 && (mask & (mask - 1)) == 0) {
+                return hint(cell, Integer.numberOfTrailingZeros(mask), Technique.NAKED_SINGLE);
+            }
+        }
+        for (int unit = 0; unit < geometry.unitCount(); unit++) {
+            int once = 0;
+            int more = 0;
+            int[] cells = geometry.unitCells(unit);
+            for (int cell : cells) {
+                more |= once & work[cell];
+                once |= work[cell];
+            }
+            int singles = once & ~more;
+            if (singles != 0) {
+                int num = Integer.numberOfTrailingZeros(singles);
+                for (int cell : cells) {
+                    if ((work[cell] & (1 << num)) != 0) {
+                        return hint(cell, num, Technique.HIDDEN_SINGLE);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private Hint hint(int cell, int num, Technique technique) {
+        raise(technique);
+        return new Hint(geometry.row(cell), geometry.col(cell), num, hardest);
+    }
+
+    private void raise(Technique technique) {
+        if (technique.compareTo(hardest) > 0) {
+            hardest = technique;
+        }
+    }
+
+    /**
+     * Aplica la tecnica de eliminacion mas sencilla que quite algun candidato
+     * @return true si se quito algun candidato
+     */
+    private boolean eliminate() {
+        if (pointingPairs()) {
+            raise(Technique.POINTING_PAIR);
+            return true;
+        }
+        if (nakedPairs()) {
+            raise(Technique.NAKED_PAIR);
+            return true;
+        }
+        if (hiddenPairs()) {
+            raise(Technique.HIDDEN_PAIR);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Si dentro de una subcuadricula un numero solo puede ir en una fila (o columna), se quita de
+     * esa fila (o columna) fuera de la subcuadricula.
+     */
+    private boolean pointingPairs() {
+        boolean changed = false;
+        for (int unit = 2 * size; unit < 3 * size; unit++) {
+            int box = unit - 2 * size;
+            Arrays.fill(rowBits, 0);
+            Arrays.fill(colBits, 0);
+            for (int cell : geometry.unitCells(unit)) {
+                int mask = work[cell];
+                while (mask != 0) {
+                    int num = Integer.numberOfTrailingZeros(mask);
+                    mask &= mask - 1;
+                    rowBits[num] |= 1 << geometry.row(cell);
+                    colBits[num] |= 1 << geometry.col(cell);
+                }
+            }
+            for (int num = 1; num <= size; num++) {
+                int bit = 1 << num;
+                if (Integer.bitCount(rowBits[num]) == 1) {
+                    int row = Integer.numberOfTrailingZeros(rowBits[num]);
+                    changed |= removeOutsideBox(geometry.unitCells(row), box, bit);
+                }
+                if (Integer.bitCount(colBits[num]) == 1) {
+                    int col = Integer.numberOfTrailingZeros(colBits[num]);
+                    changed |= removeOutsideBox(geometry.unitCells(size + col), box, bit);
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean removeOutsideBox(int[] line, int box, int bit) {
+        boolean changed = false;
+        for (int cell : line) {
+            if (geometry.box(cell) != box && (work[cell] & bit) != 0) {
+                work[cell] &= ~bit;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Si dos celdas de una unidad tienen los mismos dos candidatos, esos numeros se quitan del resto
+     * de la unidad.
+     */
+    private boolean nakedPairs() {
+        boolean changed = false;
+        for (int unit = 0; unit < geometry.unitCount(); unit++) {
+            int[] cells = geometry.unitCells(unit);
+            for (int i = 0; i < cells.length; i++) {
+                int pair = work[cells[i]];
+                if (Integer.bitCount(pair) != 2) {
+                    continue;
+                }
+                for (int j = i + 1; j < cells.length; j++) {
+                    if (work[cells[j]] != pair) {
+                        continue;
+                    }
+                    for (int k = 0; k < cells.length; k++) {
+                        if (k != i && k != j && (work[cells[k]] & pair) != 0) {
+                            work[cells[k]] &= ~pair;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Si dos numeros solo pueden ir en las mismas dos celdas de una unidad, esas celdas pierden
+     * los demas candidatos.
+     */
+    private boolean hiddenPairs() {
+        boolean changed = false;
+        int[] positions = rowBits; // Posiciones dentro de la unidad donde puede ir cada numero
+        for (int unit = 0; unit < geometry.unitCount(); unit++) {
+            int[] cells = geometry.unitCells(unit);
+            Arrays.fill(positions, 0);
+            for (int i = 0; i < cells.length; i++) {
+                int mask = work[cells[i]];
+                while (mask != 0) {
+                    int num = Integer.numberOfTrailingZeros(mask);
+                    mask &= mask - 1;
+                    positions[num] |= 1 << i;
+                }
+            }
+            for (int first = 1; first <= size; first++) {
+                if (Integer.bitCount(positions[first]) != 2) {
+                    continue;
+                }
+                for (int second = first + 1; second <= size; second++) {
+                    if (positions[second] != positions[first]) {
+                        continue;
+                    }
+                    int pair = (1 << first) | (1 << second);
+                    int where = positions[first];
+                    while (where != 0) {
+                        int cell = cells[Integer.numberOfTrailingZeros(where)];
+                        where &= where - 1;
+                        if ((work[cell] & ~pair) != 0) {
+                            work[cell] &= pair;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.sudoku.model.logic;
+
+import com.example.sudoku.model.Difficulty;
+
+/**
+ * Resultado de calificar un puzzle con {@link DifficultyRater}.
+ */
+public final class Rating {
+
+    // Puntos promedio por celda a partir de los que un puzzle ya no se considera facil o medio
+    private static final double MEDIUM_AVERAGE = 1.05;
+    private static final double HARD_AVERAGE = 1.2;
+
+    private final Technique hardest;
+    private final int score;
+    private final int steps;
+    private final boolean solved;
+
+    /**
+     * @param hardest tecnica mas dificil que hizo falta
+     * @param score suma del costo de la tecnica usada en cada paso
+     * @param steps cantidad de celdas que se llenaron
+     * @param solved true si el puzzle se resolvio solo con las tecnicas conocidas
+     */
+    public Rating(Technique hardest, int score, int steps, boolean solved) {
+        this.hardest = hardest;
+        this.score = score;
+        this.steps = steps;
+        this.solved = solved;
+    }
+
+    public Technique getHardest() {
+        return hardest;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * Clasifica el puzzle en un nivel de dificultad. Los puzzles que no se pueden resolver con las
+     * tecnicas conocidas o que necesitan parejas desnudas u ocultas son dificiles; los que necesitan
+     * parejas apuntadoras son al menos medios. Entre los demas decide el costo promedio por celda,
+     * que crece con la proporcion de pasos que necesitan un unico lugar.
+     * @return el nivel de dificultad
+     */
+    public Difficulty getDifficulty() {
+        double average = steps == 0 ? 0 : (double) score / steps;
+        if (!solved || hardest.compareTo(Technique.NAKED_PAIR) >= 0 || average >= HARD_AVERAGE) {
+            return Difficulty.HARD;
+        }
+        if (hardest == Technique.POINTING_PAIR || average >= MEDIUM_AVERAGE) {
+            return Difficulty.MEDIUM;
+        }
+        return Difficulty.EASY;
+    }
+
+    @Override
+    public String toString() {
+        return getDifficulty() + " (" + hardest + ", " + score + " puntos en " + steps + " pasos"
+                + (solved ? ")" : ", sin resolver)");
+    }
+}
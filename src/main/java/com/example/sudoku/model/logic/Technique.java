@@ -0,0 +1,34 @@
+package com.example.sudoku.model.logic;
+
+/**
+ * Tecnicas de deduccion que usa el motor de pistas, ordenadas de la mas sencilla a la mas dificil.
+ */
+public enum Technique {
+    NAKED_SINGLE("Unico candidato", 1),
+    HIDDEN_SINGLE("Unico lugar", 2),
+    POINTING_PAIR("Pareja apuntadora", 6),
+    NAKED_PAIR("Pareja desnuda", 10),
+    HIDDEN_PAIR("Pareja oculta", 14);
+
+    private final String description;
+    private final int cost;
+
+    Technique(String description, int cost) {
+        this.description = description;
+        this.cost = cost;
+    }
+
+    /**
+     * @return nombre de la tecnica para mostrar al jugador
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return puntos que suma la tecnica al puntaje de dificultad cada vez que hace falta
+     */
+    public int getCost() {
+        return cost;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.sudoku.model.save;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Puzzle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Guarda una partida como una instantanea binaria mas un diario de jugadas que solo crece al final.
+ *
+ * La instantanea ({@value #SNAPSHOT_FILE}) tiene la geometria, las pistas, la solucion y el intento,
+ * un byte por valor. Se escribe en un temporal que luego reemplaza al anterior, asi que nunca queda a
+ * medias. Cada instantanea tiene un numero de generacion, y el diario ({@value #JOURNAL_FILE}) empieza
+ * con la generacion a la que pertenece: si no coincide, el diario es de una instantanea anterior y se
+ * ignora.
+ *
+ * Cada jugada del diario ocupa {@value #RECORD_BYTES} bytes: celda, valor, un byte de verificacion y la
+ * hora en milisegundos. Las jugadas se acumulan en un buffer en memoria y se escriben al canal en
+ * lotes: cuando el buffer se llena, cuando llega una jugada y ya paso {@link #FLUSH_INTERVAL_MILLIS}
+ * desde la ultima escritura, o al llamar a {@link #flush()}. El diario no tiene un temporizador propio:
+ * quien lo usa debe llamar a flush() cuando pasa ese intervalo sin jugadas (el controlador lo hace con
+ * un PauseTransition). Asi, si el programa termina de golpe se pierden a lo sumo las jugadas de ese
+ * intervalo; un registro escrito a medias se descarta al recuperar.
+ *
+ * El diario guarda tambien una copia del intento en memoria. Cuando acumula
+ * {@value #COMPACT_RECORDS} jugadas escribe una instantanea nueva y empieza otro diario, asi la
+ * recuperacion nunca aplica mas de esa cantidad de jugadas aunque la partida dure horas.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class GameJournal implements Closeable {
+
+    public static final String SNAPSHOT_FILE = "game.snapshot";
+    public static final String JOURNAL_FILE = "game.journal";
+    public static final long FLUSH_INTERVAL_MILLIS = 250;
+    public static final int COMPACT_RECORDS = 8192;
+
+    private static final int SNAPSHOT_MAGIC = 0x53444B53; // "SDKS"
+    private static final int JOURNAL_MAGIC = 0x53444B4A; // "SDKJ"
+    private static final int VERSION = 1;
+    private static final int SNAPSHOT_HEADER_BYTES = 4 + 4 + 8 + 3;
+    private static final int JOURNAL_HEADER_BYTES = 4 + 4 + 8;
+    private static final int RECORD_BYTES = 12;
+    private static final int BUFFER_RECORDS = 512;
+    private static final int GIVEN_FLAG = 0x80;
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final ByteBuffer pending = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES);
+    private FileChannel journal;
+    private Puzzle puzzle; // Partida de la ultima instantanea
+    private int[] attempt; // Intento con las jugadas del diario aplicadas
+    private int records; // Jugadas en el diario actual
+    private long generation;
+    private long lastFlush;
+
+    /**
+     * Abre el directorio de guardado, creandolo si no existe. La primera instantanea se escribe con
+     * {@link #saveSnapshot}; antes de eso las jugadas no se registran.
+     * @param directory directorio donde se guardan la instantanea y el diario
+     */
+    public GameJournal(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.journalPath = directory.resolve(JOURNAL_FILE);
+        this.generation = readGeneration(snapshotPath);
+    }
+
+    /**
+     * @param directory directorio de guardado
+     * @return true si hay una partida guardada
+     */
+    public static boolean hasSave(Path directory) {
+        return Files.isRegularFile(directory.resolve(SNAPSHOT_FILE));
+    }
+
+    /**
+     * Escribe una instantanea de la partida y empieza un diario vacio para ella
+     * @param puzzle puzzle de la partida
+     * @param attempt intento del jugador, 0 en las celdas vacias
+     */
+    public void saveSnapshot(Puzzle puzzle, int[] attempt) throws IOException {
+        BoardGeometry geometry = puzzle.getGeometry();
+        int cells = geometry.cellCount();
+        this.puzzle = puzzle;
+        this.attempt = attempt.clone();
+        this.records = 0;
+        generation++;
+        ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES + 2 * cells);
+        buffer.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(generation)
+                .put((byte) geometry.size()).put((byte) geometry.boxRows()).put((byte) geometry.boxCols());
+        int[] givens = puzzle.getGivens();
+        int[] solution = puzzle.getSolution();
+        for (int cell = 0; cell < cells; cell++) {
+            buffer.put((byte) (solution[cell] | (givens[cell] != 0 ? GIVEN_FLAG : 0)));
+            buffer.put((byte) attempt[cell]);
+        }
+        buffer.flip();
+
+        Path temp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(false);
+        }
+        Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // El diario anterior ya esta incluido en la instantanea
+        closeJournal();
+        pending.clear();
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_BYTES);
+        header.putInt(JOURNAL_MAGIC).putInt(VERSION).putLong(generation).flip();
+        while (header.hasRemaining()) {
+            journal.write(header);
+        }
+        lastFlush = System.currentTimeMillis();
+    }
+
+    /**
+     * Registra una jugada. Normalmente solo la copia al buffer; escribe en disco cuando toca un lote.
+     * @param cell indice de la celda
+     * @param value numero ingresado, 0 si se vacio la celda
+     */
+    public void append(int cell, int value) throws IOException {
+        if (journal == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        pending.putShort((short) cell).put((byte) value).put(check(cell, value, now)).putLong(now);
+        attempt[cell] = value;
+        if (++records >= COMPACT_RECORDS) {
+            saveSnapshot(puzzle, attempt);
+        } else if (!pending.hasRemaining() || now - lastFlush >= FLUSH_INTERVAL_MILLIS) {
+            flush();
+        }
+    }
+
+    /**
+     * Escribe en el diario las jugadas pendientes
+     */
+    public void flush() throws IOException {
+        lastFlush = System.currentTimeMillis();
+        if (journal == null || pending.position() == 0) {
+            return;
+        }
+        pending.flip();
+        while (pending.hasRemaining()) {
+            journal.write(pending);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Borra la partida guardada, por ejemplo cuando el jugador la termina
+     */
+    public void delete() throws IOException {
+        closeJournal();
+        pending.clear();
+        puzzle = null;
+        attempt = null;
+        Files.deleteIfExists(journalPath);
+        Files.deleteIfExists(snapshotPath);
+    }
+
+    /**
+     * Escribe las jugadas pendientes y cierra el diario
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        closeJournal();
+    }
+
+    private void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Recupera la partida guardada en un directorio: lee la instantanea y aplica las jugadas del diario
+     * que le corresponden
+     * @param directory directorio de guardado
+     * @return la partida, o null si no hay una instantanea valida
+     */
+    public static SavedGame load(Path directory) throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+        if (buffer.remaining() < SNAPSHOT_HEADER_BYTES || buffer.getInt() != SNAPSHOT_MAGIC
+                || buffer.getInt() != VERSION) {
+            return null;
+        }
+        long generation = buffer.getLong();
+        BoardGeometry geometry;
+        try {
+            geometry = new BoardGeometry(buffer.get(), buffer.get(), buffer.get());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int cells = geometry.cellCount();
+        if (buffer.remaining() != 2 * cells) {
+            return null;
+        }
+        int[] givens = new int[cells];
+        int[] solution = new int[cells];
+        int[] attempt = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            int packed = buffer.get() & 0xFF;
+            solution[cell] = packed & ~GIVEN_FLAG;
+            givens[cell] = (packed & GIVEN_FLAG) != 0 ? solution[cell] : 0;
+            attempt[cell] = buffer.get();
+        }
+        int replayed = replay(directory.resolve(JOURNAL_FILE), generation, geometry, givens, attempt);
+        return new SavedGame(new Puzzle(geometry, givens, solution), attempt, replayed);
+    }
+
+    /**
+     * Aplica al intento las jugadas validas del diario, en orden
+     * @return cantidad de jugadas aplicadas
+     */
+    private static int replay(Path path, long generation, BoardGeometry geometry, int[] givens, int[] attempt)
+            throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return 0;
+        }
+        int replayed = 0;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES * 16);
+            while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+                // Se lee hasta llenar el buffer o llegar al final
+            }
+            buffer.flip();
+            if (buffer.remaining() < JOURNAL_HEADER_BYTES || buffer.getInt() != JOURNAL_MAGIC
+                    || buffer.getInt() != VERSION || buffer.getLong() != generation) {
+                return 0;
+            }
+            while (true) {
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    int cell = buffer.getShort();
+                    int value = buffer.get();
+                    byte check = buffer.get();
+                    long time = buffer.getLong();
+                    if (check != check(cell, value, time) || cell < 0 || cell >= attempt.length
+                            || value < 0 || value > geometry.size() || givens[cell] != 0) {
+                        return replayed; // Registro danado: se descarta el resto del diario
+                    }
+                    attempt[cell] = value;
+                    replayed++;
+                }
+                buffer.compact();
+                if (in.read(buffer) <= 0) {
+                    return replayed;
+                }
+                buffer.flip();
+            }
+        }
+    }
+
+    private static byte check(int cell, int value, long time) {
+        long mixed = (cell * 31L + value) * 0x9E3779B97F4A7C15L ^ time;
+        return (byte) (mixed ^ (mixed >>> 8) ^ (mixed >>> 16) ^ (mixed >>> 24) ^ 0x5A);
+    }
+
+    private static long readGeneration(Path snapshot) throws IOException {
+        if (!Files.isRegularFile(snapshot)) {
+            return 0;
+        }
+        try (FileChannel in = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(16);
+            while (header.hasRemaining() && in.read(header) >= 0) {
+                // Se leen la marca, la version y la generacion
+            }
+            header.flip();
+            return header.remaining() == 16 && header.getInt() == SNAPSHOT_MAGIC ? header.getLong(8) : 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.sudoku.model.save;
+
+import com.example.sudoku.model.Puzzle;
+
+/**
+ * Partida recuperada de disco: el puzzle y el intento del jugador al momento de la ultima jugada guardada.
+ */
+public final class SavedGame {
+
+    private final Puzzle puzzle;
+    private final int[] attempt;
+    private final int replayedMoves;
+
+    /**
+     * @param puzzle puzzle de la partida
+     * @param attempt intento del jugador, 0 en las celdas vacias
+     * @param replayedMoves jugadas del diario que se aplicaron sobre la instantanea
+     */
+    public SavedGame(Puzzle puzzle, int[] attempt, int replayedMoves) {
+        this.puzzle = puzzle;
+        this.attempt = attempt;
+        this.replayedMoves = replayedMoves;
+    }
+
+    public Puzzle getPuzzle() {
+        return puzzle;
+    }
+
+    public int[] getAttempt() {
+        return attempt;
+    }
+
+    public int getReplayedMoves() {
+        return replayedMoves;
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolvedor de sudokus con Dancing Links (Algoritmo X de Knuth).
+ * El sudoku se plantea como un problema de cobertura exacta con cuatro restricciones por numero
+ * colocado: la celda, el numero en la fila, el numero en la columna y el numero en la subcuadricula.
+ *
+ * La matriz completa se construye una sola vez en arreglos de enteros y se reutiliza en cada llamada:
+ * las pistas del tablero se aplican cubriendo sus columnas y al terminar se descubren en orden inverso,
+ * dejando la matriz como estaba. No es seguro para usarse desde varios hilos a la vez.
+ */
+public class DancingLinksSolver implements ISudokuSolver {
+
+    private static final int ROOT = 0;
+    private static final int CONSTRAINTS = 4; // Nodos por cada fila de la matriz
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int firstRowNode; // Indice del primer nodo que no es cabecera
+
+    // Enlaces de la matriz dispersa, un elemento por nodo
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column; // Cabecera de la columna de cada nodo
+    private final int[] columnSize; // Nodos activos por columna
+
+    private final int[] solution; // Filas elegidas en la busqueda
+    private final int[] givenRows; // Filas de las pistas aplicadas
+    private int givenCount;
+    private int count;
+    private int limit;
+    private int[] target; // Tablero donde se escribe la primera solucion
+    private AtomicInteger shared; // Soluciones de todas las busquedas en paralelo, o null
+
+    /**
+     * Construye la matriz de cobertura exacta para la geometria indicada
+     * @param geometry geometria de los tableros a resolver
+     */
+    public DancingLinksSolver(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.size();
+        int cells = geometry.cellCount();
+        int columns = CONSTRAINTS * cells;
+        int rows = cells * size;
+        this.firstRowNode = columns + 1;
+        int nodes = firstRowNode + rows * CONSTRAINTS;
+
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        columnSize = new int[columns + 1];
+        solution = new int[cells];
+        givenRows = new int[cells];
+
+        // Cabeceras enlazadas en circulo con la raiz
+        for (int c = 0; c <= columns; c++) {
+            left[c] = c == 0 ? columns : c - 1;
+            right[c] = c == columns ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+
+        // Una fila por cada pareja (celda, numero)
+        for (int cell = 0; cell < cells; cell++) {
+            int row = geometry.row(cell);
+            int col = geometry.col(cell);
+            int box = geometry.box(cell);
+            for (int d = 0; d < size; d++) {
+                int base = rowNode(cell * size + d);
+                int[] headers = {
+                        1 + cell,
+                        1 + cells + row * size + d,
+                        1 + 2 * cells + col * size + d,
+                        1 + 3 * cells + box * size + d
+                };
+                for (int k = 0; k < CONSTRAINTS; k++) {
+                    int node = base + k;
+                    int header = headers[k];
+                    left[node] = base + (k + CONSTRAINTS - 1) % CONSTRAINTS;
+                    right[node] = base + (k + 1) % CONSTRAINTS;
+                    column[node] = header;
+                    // Se agrega al final de la columna
+                    up[node] = up[header];
+                    down[node] = header;
+                    down[up[header]] = node;
+                    up[header] = node;
+                    columnSize[header]++;
+                }
+            }
+        }
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean solve(int[] grid) {
+        return run(grid, 1, grid) > 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countSolutions(int[] grid, int limit) {
+        return run(grid, limit, null);
+    }
+
+    /**
+     * Aplica las pistas, busca soluciones y deja la matriz como estaba
+     * @param grid tablero con las pistas
+     * @param limit cantidad maxima de soluciones
+     * @param target arreglo donde se escribe la primera solucion, o null
+     * @return la cantidad de soluciones encontradas
+     */
+    private int run(int[] grid, int limit, int[] target) {
+        return run(grid, limit, target, null);
+    }
+
+    /**
+     * Igual que {@link #run(int[], int, int[])}, pero compartiendo la cuenta con otras busquedas: cada
+     * solucion se suma a shared y la busqueda se detiene cuando shared llega al limite. Lo usa
+     * {@link ParallelSolver} para que todas sus tareas paren en cuanto hay suficientes soluciones.
+     * @param shared contador de soluciones compartido, o null
+     * @return la cantidad de soluciones que encontro esta busqueda
+     */
+    int run(int[] grid, int limit, int[] target, AtomicInteger shared) {
+        if (grid.length != geometry.cellCount()) {
+            throw new IllegalArgumentException("El tablero no tiene " + geometry.cellCount() + " celdas");
+        }
+        if (limit <= 0) {
+            return 0;
+        }
+        this.count = 0;
+        this.limit = limit;
+        this.target = target;
+        this.shared = shared;
+        givenCount = 0;
+        try {
+            if (applyGivens(grid)) {
+                search(0);
+            }
+        } finally {
+            removeGivens();
+            this.target = null;
+            this.shared = null;
+        }
+        return count;
+    }
+
+    /**
+     * Cubre las columnas de cada pista del tablero
+     * @param grid tablero con las pistas
+     * @return false si dos pistas se contradicen
+     */
+    private boolean applyGivens(int[] grid) {
+        for (int cell = 0; cell < grid.length; cell++) {
+            int num = grid[cell];
+            if (num == 0) {
+                continue;
+            }
+            if (!geometry.isValidNumber(num)) {
+                throw new IllegalArgumentException("Numero invalido " + num + " en la celda " + cell);
+            }
+            int base = rowNode(cell * size + num - 1);
+            // Si alguna columna ya esta cubierta, la pista choca con otra
+            for (int k = 0; k < CONSTRAINTS; k++) {
+                int header = column[base + k];
+                if (right[left[header]] != header) {
+                    return false;
+                }
+            }
+            for (int k = 0; k < CONSTRAINTS; k++) {
+                cover(column[base + k]);
+            }
+            givenRows[givenCount++] = base;
+        }
+        return true;
+    }
+
+    /**
+     * Descubre las pistas en orden inverso al que se aplicaron
+     */
+    private void removeGivens() {
+        while (givenCount > 0) {
+            int base = givenRows[--givenCount];
+            for (int k = CONSTRAINTS - 1; k >= 0; k--) {
+                uncover(column[base + k]);
+            }
+        }
+    }
+
+    /**
+     * Busqueda recursiva del Algoritmo X
+     * @param depth cantidad de filas elegidas hasta ahora
+     */
+    private void search(int depth) {
+        if (right[ROOT] == ROOT) {
+            if (count == 0 && target != null) {
+                writeSolution(depth);
+            }
+            count++;
+            if (shared != null) {
+                shared.incrementAndGet();
+            }
+            return;
+        }
+
+        // Se elige la columna con menos filas
+        int chosen = right[ROOT];
+        int best = columnSize[chosen];
+        for (int c = right[chosen]; c != ROOT && best > 1; c = right[c]) {
+            if (columnSize[c] < best) {
+                chosen = c;
+                best = columnSize[c];
+            }
+        }
+        if (best == 0) {
+            return;
+        }
+
+        cover(chosen);
+        for (int r = down[chosen]; r != chosen && !isStopped(); r = down[r]) {
+            solution[depth] = r;
+            for (int j = right[r]; j != r; j = right[j]) {
+                cover(column[j]);
+            }
+            search(depth + 1);
+            for (int j = left[r]; j != r; j = left[j]) {
+                uncover(column[j]);
+            }
+        }
+        uncover(chosen);
+    }
+
+    private boolean isStopped() {
+        return shared != null ? shared.get() >= limit : count >= limit;
+    }
+
+    /**
+     * Escribe en el tablero destino las pistas y las filas elegidas en la busqueda
+     * @param depth cantidad de filas elegidas
+     */
+    private void writeSolution(int depth) {
+        for (int i = 0; i < givenCount; i++) {
+            writeRow(givenRows[i]);
+        }
+        for (int i = 0; i < depth; i++) {
+            writeRow(solution[i]);
+        }
+    }
+
+    private void writeRow(int node) {
+        int candidate = (node - firstRowNode) / CONSTRAINTS;
+        target[candidate / size] = candidate % size + 1;
+    }
+
+    private int rowNode(int candidate) {
+        return firstRowNode + candidate * CONSTRAINTS;
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.sudoku.model.solver;
+
+/**
+ * Interfaz que define las operaciones de un resolvedor de sudokus.
+ * Los tableros se reciben como arreglos planos de tamaño size * size, fila por fila,
+ * con 0 en las celdas vacias.
+ */
+public interface ISudokuSolver {
+
+    /**
+     * Resuelve un sudoku llenando el arreglo con la primera solucion encontrada.
+     *
+     * @param grid tablero a resolver, se modifica solo si tiene solucion.
+     * @return true si se encontro una solucion, false en caso contrario.
+     */
+    boolean solve(int[] grid);
+
+    /**
+     * Cuenta las soluciones de un sudoku, deteniendose al llegar al limite.
+     *
+     * @param grid tablero a revisar, no se modifica.
+     * @param limit cantidad maxima de soluciones a contar.
+     * @return la cantidad de soluciones, como maximo limit.
+     */
+    int countSolutions(int[] grid, int limit);
+}
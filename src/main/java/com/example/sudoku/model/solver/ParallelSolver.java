@@ -0,0 +1,263 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.BoardGeometry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolvedor que reparte la busqueda entre los hilos de un {@link ForkJoinPool}.
+ *
+ * Las primeras ramas del arbol se abren con un estado compacto: el tablero y las mascaras de filas,
+ * columnas y subcuadriculas en un solo arreglo de enteros, que cada tarea hija copia con un clone. Se
+ * elige siempre la celda con menos candidatos, las celdas con un solo candidato se llenan sin crear
+ * tareas, y en cada celda con varios candidatos se crea una tarea por candidato hasta tener unas
+ * SPLIT_FACTOR tareas por hilo. Una tarea deja de dividirse si su hilo ya tiene tareas de sobra en
+ * cola, que es cuando los demas hilos no estan robando trabajo. Cada tarea hoja termina la busqueda
+ * con un {@link DancingLinksSolver} propio de su hilo. Esos resolvedores se comparten entre todas las
+ * instancias con la misma geometria, asi cada hilo del pool guarda a lo sumo una matriz por geometria
+ * aunque se creen muchos ParallelSolver. El pool reparte las tareas por robo de trabajo, asi que las
+ * ramas grandes no dejan hilos parados.
+ *
+ * Todas las tareas comparten un contador de soluciones y se detienen en cuanto llega al limite pedido.
+ * Sirve para tableros de 16x16 y 25x25 y para probar que un puzzle dificil no tiene una segunda
+ * solucion; en tableros chicos el costo de repartir supera lo que se gana.
+ *
+ * Se puede usar desde varios hilos a la vez.
+ */
+public class ParallelSolver implements ISudokuSolver {
+
+    public static final int SPLIT_FACTOR = 32; // Tareas que se buscan crear por hilo del pool
+    private static final int MAX_SURPLUS = 2; // Tareas en cola de un hilo desde las que ya no se divide
+    // Resolvedor de cada hilo por geometria. Si cada instancia tuviera su ThreadLocal, los hilos del pool
+    // comun guardarian una matriz de Dancing Links por cada ParallelSolver creado mientras vivan
+    private static final ConcurrentHashMap<BoardGeometry, ThreadLocal<Leaf>> LEAVES = new ConcurrentHashMap<>();
+
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int cells;
+    private final ForkJoinPool pool;
+    // Cada hilo del pool usa su propio resolvedor y su propio tablero, que no son seguros entre hilos
+    private final ThreadLocal<Leaf> leaves;
+
+    /**
+     * Crea un resolvedor que usa el pool comun
+     * @param geometry geometria de los tableros a resolver
+     */
+    public ParallelSolver(BoardGeometry geometry) {
+        this(geometry, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param geometry geometria de los tableros a resolver
+     * @param pool pool donde se ejecutan las tareas
+     */
+    public ParallelSolver(BoardGeometry geometry, ForkJoinPool pool) {
+        this.geometry = geometry;
+        this.size = geometry.size();
+        this.cells = geometry.cellCount();
+        this.pool = pool;
+        this.leaves = LEAVES.computeIfAbsent(geometry, key -> ThreadLocal.withInitial(() -> new Leaf(key)));
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean solve(int[] grid) {
+        Search search = run(grid, 1, true);
+        int[] first = search.first.get();
+        if (first == null) {
+            return false;
+        }
+        System.arraycopy(first, 0, grid, 0, cells);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countSolutions(int[] grid, int limit) {
+        return run(grid, limit, false).count();
+    }
+
+    /**
+     * Carga las pistas en un estado compacto y reparte la busqueda en el pool
+     * @param keepFirst true si se debe guardar la primera solucion
+     */
+    private Search run(int[] grid, int limit, boolean keepFirst) {
+        if (grid.length != cells) {
+            throw new IllegalArgumentException("El tablero no tiene " + cells + " celdas");
+        }
+        Search search = new Search(limit, keepFirst);
+        if (limit <= 0) {
+            return search;
+        }
+        int[] state = new int[cells + 3 * size];
+        int empty = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            int num = grid[cell];
+            if (num == 0) {
+                empty++;
+                continue;
+            }
+            if (!geometry.isValidNumber(num)) {
+                throw new IllegalArgumentException("Numero invalido " + num + " en la celda " + cell);
+            }
+            if ((candidates(state, cell) & (1 << num)) == 0) {
+                return search; // Dos pistas se contradicen
+            }
+            place(state, cell, num);
+        }
+        int budget = pool.getParallelism() > 1 ? pool.getParallelism() * SPLIT_FACTOR : 1;
+        pool.invoke(new SplitTask(search, state, empty, budget));
+        return search;
+    }
+
+    private int candidates(int[] state, int cell) {
+        return geometry.allMask() & ~(state[cells + geometry.row(cell)]
+                | state[cells + size + geometry.col(cell)]
+                | state[cells + 2 * size + geometry.box(cell)]);
+    }
+
+    private void place(int[] state, int cell, int num) {
+        int bit = 1 << num;
+        state[cell] = num;
+        state[cells + geometry.row(cell)] |= bit;
+        state[cells + size + geometry.col(cell)] |= bit;
+        state[cells + 2 * size + geometry.box(cell)] |= bit;
+    }
+
+    /**
+     * Estado compartido por todas las tareas de una busqueda
+     */
+    private static final class Search {
+        private final int limit;
+        private final boolean keepFirst;
+        private final AtomicInteger found = new AtomicInteger();
+        private final AtomicReference<int[]> first = new AtomicReference<>();
+
+        Search(int limit, boolean keepFirst) {
+            this.limit = limit;
+            this.keepFirst = keepFirst;
+        }
+
+        boolean isDone() {
+            return found.get() >= limit;
+        }
+
+        int count() {
+            return Math.min(found.get(), limit);
+        }
+    }
+
+    /**
+     * Abre una rama: llena las celdas forzadas y, si aun quedan tareas por crear, crea una tarea por
+     * candidato de la celda mas restringida; si no, termina la rama con Dancing Links.
+     */
+    private final class SplitTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final int[] state; // Propio de la tarea, se puede modificar
+        private int empty;
+        private final int budget; // Tareas que aun se pueden crear en esta rama
+
+        SplitTask(Search search, int[] state, int empty, int budget) {
+            this.search = search;
+            this.state = state;
+            this.empty = empty;
+            this.budget = budget;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.isDone()) {
+                return;
+            }
+            if (budget <= 1 || getSurplusQueuedTaskCount() > MAX_SURPLUS) {
+                leaves.get().solve(search, state);
+                return;
+            }
+            int cell;
+            int mask;
+            while (true) {
+                if (empty == 0) {
+                    leaves.get().solve(search, state); // Ya esta resuelto, se registra igual que una hoja
+                    return;
+                }
+                cell = mostConstrainedCell();
+                mask = candidates(state, cell);
+                if (mask == 0) {
+                    return; // Una celda sin candidatos, la rama no tiene solucion
+                }
+                if ((mask & (mask - 1)) != 0) {
+                    break;
+                }
+                place(state, cell, Integer.numberOfTrailingZeros(mask));
+                empty--;
+            }
+            int branches = Integer.bitCount(mask);
+            SplitTask[] children = new SplitTask[branches];
+            for (int i = 0; i < branches; i++) {
+                int num = Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                int[] child = state.clone();
+                place(child, cell, num);
+                children[i] = new SplitTask(search, child, empty - 1, budget / branches);
+            }
+            invokeAll(children);
+        }
+
+        private int mostConstrainedCell() {
+            int best = -1;
+            int bestCount = Integer.MAX_VALUE;
+            for (int cell = 0; cell < cells; cell++) {
+                if (state[cell] != 0) {
+                    continue;
+                }
+                int count = Integer.bitCount(candidates(state, cell));
+                if (count < bestCount) {
+                    best = cell;
+                    bestCount = count;
+                    if (count <= 1) {
+                        break;
+                    }
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Resolvedor serial y tablero de trabajo de un hilo del pool
+     */
+    private static final class Leaf {
+        private final DancingLinksSolver solver;
+        private final int cells;
+        private final int[] grid;
+
+        Leaf(BoardGeometry geometry) {
+            this.solver = new DancingLinksSolver(geometry);
+            this.cells = geometry.cellCount();
+            this.grid = new int[cells];
+        }
+
+        void solve(Search search, int[] state) {
+            System.arraycopy(state, 0, grid, 0, cells);
+            int[] target = search.keepFirst && search.first.get() == null ? new int[cells] : null;
+            int found = solver.run(grid, search.limit, target, search.found);
+            if (target != null && found > 0) {
+                search.first.compareAndSet(null, target);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.sudoku.model.variant;
+
+import com.example.sudoku.model.BoardGeometry;
+
+/**
+ * Anti caballo: dos celdas a un salto de caballo de ajedrez no pueden tener el mismo numero
+ */
+public class AntiKnightConstraint implements IConstraint {
+
+    private static final int[][] MOVES = {{1, 2}, {2, 1}, {2, -1}, {1, -2}}; // La otra mitad es simetrica
+
+    @Override
+    public void compile(RuleCompiler compiler) {
+        BoardGeometry geometry = compiler.getGeometry();
+        int size = geometry.size();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                for (int[] move : MOVES) {
+                    int r = row + move[0];
+                    int c = col + move[1];
+                    if (r < size && c >= 0 && c < size) {
+                        compiler.addExclusion(geometry.cell(row, col), geometry.cell(r, c));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "anti caballo";
+    }
+}
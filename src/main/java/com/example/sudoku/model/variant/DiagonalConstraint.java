@@ -0,0 +1,28 @@
+package com.example.sudoku.model.variant;
+
+import com.example.sudoku.model.BoardGeometry;
+
+/**
+ * Sudoku X: las dos diagonales principales tampoco repiten numeros
+ */
+public class DiagonalConstraint implements IConstraint {
+
+    @Override
+    public void compile(RuleCompiler compiler) {
+        BoardGeometry geometry = compiler.getGeometry();
+        int size = geometry.size();
+        int[] main = new int[size];
+        int[] anti = new int[size];
+        for (int i = 0; i < size; i++) {
+            main[i] = geometry.cell(i, i);
+            anti[i] = geometry.cell(i, size - 1 - i);
+        }
+        compiler.addUnit(main);
+        compiler.addUnit(anti);
+    }
+
+    @Override
+    public String getName() {
+        return "diagonales";
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.sudoku.model.variant;
+
+/**
+ * Regla de una variante del sudoku que se suma a las reglas clasicas de filas y columnas.
+ *
+ * Una regla no revisa tableros: al compilar las reglas ({@link VariantRules#compile}) describe sus
+ * celdas en un {@link RuleCompiler} como unidades sin repetidos, regiones, pares de celdas que no
+ * pueden repetir numero o jaulas con suma. Despues todas las revisiones usan las tablas y mascaras
+ * compiladas, sin llamar a la regla.
+ */
+public interface IConstraint {
+
+    /**
+     * Agrega al compilador las unidades, regiones, exclusiones o jaulas de la regla
+     * @param compiler compilador de las reglas del tablero
+     */
+    void compile(RuleCompiler compiler);
+
+    /**
+     * @return nombre corto de la regla, para mostrar y para registrar
+     */
+    String getName();
+}
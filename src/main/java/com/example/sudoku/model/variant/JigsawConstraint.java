@@ -0,0 +1,55 @@
+package com.example.sudoku.model.variant;
+
+import com.example.sudoku.model.BoardGeometry;
+
+/**
+ * Sudoku irregular: las subcuadriculas se reemplazan por regiones de cualquier forma, cada una con
+ * size celdas que no repiten numeros
+ */
+public class JigsawConstraint implements IConstraint {
+
+    private final int[] regionOf;
+
+    /**
+     * @param regionOf region de cada celda, de 0 a size - 1, en el orden plano del tablero
+     */
+    public JigsawConstraint(int[] regionOf) {
+        this.regionOf = regionOf.clone();
+    }
+
+    /**
+     * Crea las regiones a partir de un texto con una letra o digito por celda, fila por fila; cada
+     * simbolo distinto es una region. Se ignoran los espacios y saltos de linea.
+     * @param geometry geometria del tablero
+     * @param layout texto de las regiones
+     * @return la regla
+     */
+    public static JigsawConstraint fromLayout(BoardGeometry geometry, String layout) {
+        String compact = layout.replaceAll("\\s+", "");
+        if (compact.length() != geometry.cellCount()) {
+            throw new IllegalArgumentException("Se necesita un simbolo por celda");
+        }
+        int[] regionOf = new int[geometry.cellCount()];
+        StringBuilder symbols = new StringBuilder();
+        for (int cell = 0; cell < regionOf.length; cell++) {
+            char symbol = compact.charAt(cell);
+            int region = symbols.indexOf(String.valueOf(symbol));
+            if (region < 0) {
+                region = symbols.length();
+                symbols.append(symbol);
+            }
+            regionOf[cell] = region;
+        }
+        return new JigsawConstraint(regionOf);
+    }
+
+    @Override
+    public void compile(RuleCompiler compiler) {
+        compiler.setRegions(regionOf);
+    }
+
+    @Override
+    public String getName() {
+        return "irregular";
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.sudoku.model.variant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sudoku asesino: jaulas de celdas que no repiten numeros y deben sumar un valor
+ */
+public class KillerConstraint implements IConstraint {
+
+    private final List<int[]> cages = new ArrayList<>();
+    private final List<Integer> sums = new ArrayList<>();
+
+    /**
+     * Agrega una jaula
+     * @param sum suma de la jaula
+     * @param cells celdas de la jaula, indices del tablero plano
+     * @return esta misma regla, para encadenar jaulas
+     */
+    public KillerConstraint cage(int sum, int... cells) {
+        cages.add(cells.clone());
+        sums.add(sum);
+        return this;
+    }
+
+    /**
+     * Crea una jaula por cada grupo de celdas iguales de un tablero resuelto, con la suma de ese tablero
+     * @param solution tablero resuelto
+     * @param cageOf jaula de cada celda, -1 para las celdas sin jaula
+     * @return la regla con las jaulas
+     */
+    public static KillerConstraint fromSolution(int[] solution, int[] cageOf) {
+        int cageCount = 0;
+        for (int cage : cageOf) {
+            cageCount = Math.max(cageCount, cage + 1);
+        }
+        int[] sizes = new int[cageCount];
+        int[] sums = new int[cageCount];
+        for (int cell = 0; cell < cageOf.length; cell++) {
+            if (cageOf[cell] >= 0) {
+                sizes[cageOf[cell]]++;
+                sums[cageOf[cell]] += solution[cell];
+            }
+        }
+        KillerConstraint killer = new KillerConstraint();
+        for (int cage = 0; cage < cageCount; cage++) {
+            int[] cells = new int[sizes[cage]];
+            int filled = 0;
+            for (int cell = 0; cell < cageOf.length; cell++) {
+                if (cageOf[cell] == cage) {
+                    cells[filled++] = cell;
+                }
+            }
+            if (filled > 0) {
+                killer.cage(sums[cage], cells);
+            }
+        }
+        return killer;
+    }
+
+    @Override
+    public void compile(RuleCompiler compiler) {
+        for (int i = 0; i < cages.size(); i++) {
+            compiler.addCage(sums.get(i), cages.get(i));
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "asesino";
+    }
+}
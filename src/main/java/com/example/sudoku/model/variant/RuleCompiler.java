@@ -0,0 +1,140 @@
+package com.example.sudoku.model.variant;
+
+import com.example.sudoku.model.BoardGeometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Junta lo que aportan las reglas de una variante para que {@link VariantRules} arme sus tablas.
+ * Revisa cada aporte al recibirlo, asi una regla mal armada falla al compilar y no al jugar.
+ */
+public final class RuleCompiler {
+
+    private final BoardGeometry geometry;
+    private int[] regionOf; // Region de cada celda, o null para usar las subcuadriculas
+    private final List<int[]> units = new ArrayList<>();
+    private final List<int[]> exclusions = new ArrayList<>(); // Pares de celdas
+    private final List<int[]> cages = new ArrayList<>();
+    private final List<Integer> cageSums = new ArrayList<>();
+    private final int[] cageOf;
+
+    RuleCompiler(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.cageOf = new int[geometry.cellCount()];
+        Arrays.fill(cageOf, -1);
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Agrega una unidad: un grupo de celdas donde no se puede repetir un numero
+     * @param cells celdas de la unidad, como maximo size
+     */
+    public void addUnit(int... cells) {
+        checkCells(cells);
+        if (cells.length > geometry.size()) {
+            throw new IllegalArgumentException("Una unidad no puede tener mas de " + geometry.size() + " celdas");
+        }
+        units.add(cells.clone());
+    }
+
+    /**
+     * Reemplaza las subcuadriculas por regiones irregulares
+     * @param regionOf region de cada celda, de 0 a size - 1; cada region tiene size celdas
+     */
+    public void setRegions(int[] regionOf) {
+        if (this.regionOf != null) {
+            throw new IllegalStateException("Las regiones ya fueron definidas por otra regla");
+        }
+        if (regionOf.length != geometry.cellCount()) {
+            throw new IllegalArgumentException("Se necesita una region por celda");
+        }
+        int[] sizes = new int[geometry.size()];
+        for (int region : regionOf) {
+            if (region < 0 || region >= geometry.size()) {
+                throw new IllegalArgumentException("Region fuera de rango: " + region);
+            }
+            sizes[region]++;
+        }
+        for (int size : sizes) {
+            if (size != geometry.size()) {
+                throw new IllegalArgumentException("Cada region debe tener " + geometry.size() + " celdas");
+            }
+        }
+        this.regionOf = regionOf.clone();
+    }
+
+    /**
+     * Prohibe que dos celdas tengan el mismo numero sin que formen una unidad (por ejemplo, a un salto
+     * de caballo)
+     */
+    public void addExclusion(int a, int b) {
+        checkCells(a, b);
+        if (a != b) {
+            exclusions.add(new int[]{a, b});
+        }
+    }
+
+    /**
+     * Agrega una jaula: sus celdas no repiten numero y suman sum
+     * @param sum suma de la jaula
+     * @param cells celdas de la jaula; una celda solo puede estar en una jaula
+     */
+    public void addCage(int sum, int... cells) {
+        addUnit(cells);
+        int min = cells.length * (cells.length + 1) / 2;
+        int max = cells.length * (2 * geometry.size() - cells.length + 1) / 2;
+        if (sum < min || sum > max) {
+            throw new IllegalArgumentException("Ninguna jaula de " + cells.length + " celdas suma " + sum);
+        }
+        for (int cell : cells) {
+            if (cageOf[cell] >= 0) {
+                throw new IllegalArgumentException("La celda " + cell + " ya esta en otra jaula");
+            }
+            cageOf[cell] = cages.size();
+        }
+        cages.add(cells.clone());
+        cageSums.add(sum);
+    }
+
+    private void checkCells(int... cells) {
+        boolean[] seen = new boolean[geometry.cellCount()];
+        for (int cell : cells) {
+            if (cell < 0 || cell >= geometry.cellCount()) {
+                throw new IllegalArgumentException("Celda fuera del tablero: " + cell);
+            }
+            if (seen[cell]) {
+                throw new IllegalArgumentException("Celda repetida: " + cell);
+            }
+            seen[cell] = true;
+        }
+    }
+
+    int[] regionOf() {
+        return regionOf;
+    }
+
+    List<int[]> units() {
+        return units;
+    }
+
+    List<int[]> exclusions() {
+        return exclusions;
+    }
+
+    List<int[]> cages() {
+        return cages;
+    }
+
+    List<Integer> cageSums() {
+        return cageSums;
+    }
+
+    int[] cageOf() {
+        return cageOf;
+    }
+}
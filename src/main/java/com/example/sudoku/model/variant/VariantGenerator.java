@@ -0,0 +1,122 @@
+package com.example.sudoku.model.variant;
+
+import com.example.sudoku.metrics.PuzzleGenerationEvent;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzleGenerator;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Genera puzzles con solucion unica para las reglas de una variante, igual que
+ * {@link PuzzleGenerator} para el juego clasico: llena un tablero al azar con el
+ * {@link VariantSolver} y le quita pistas en orden aleatorio, dejando solo las que hacen falta para
+ * que la solucion siga siendo unica.
+ *
+ * La dificultad se aproxima con la cantidad de pistas del nivel; el calificador por tecnicas solo
+ * conoce las reglas clasicas.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class VariantGenerator {
+
+    private final VariantRules rules;
+    private final BoardGeometry geometry;
+    private final RandomGenerator random;
+    private final VariantSolver solver;
+    private final int[] order;
+
+    /**
+     * @param rules reglas compiladas de los puzzles a generar
+     * @param random generador de numeros aleatorios
+     */
+    public VariantGenerator(VariantRules rules, RandomGenerator random) {
+        this.rules = rules;
+        this.geometry = rules.getGeometry();
+        this.random = random;
+        this.solver = new VariantSolver(rules);
+        this.order = new int[geometry.cellCount()];
+    }
+
+    public VariantRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Llena un tablero resuelto al azar
+     * @return el tablero como arreglo plano
+     * @throws IllegalStateException si las reglas no admiten ningun tablero
+     */
+    public int[] fillSolution() {
+        int[] solution = new int[geometry.cellCount()];
+        long start = System.nanoTime();
+        if (!solver.fill(random, solution)) {
+            throw new IllegalStateException("Ningun tablero cumple las reglas " + rules);
+        }
+        SudokuMetrics.recordFill(System.nanoTime() - start, 0, 0, true);
+        return solution;
+    }
+
+    /**
+     * Genera un puzzle para un nivel de dificultad, con la cantidad de pistas del nivel
+     * @param difficulty nivel de dificultad
+     * @return el puzzle generado
+     */
+    public Puzzle generate(Difficulty difficulty) {
+        return generate(fillSolution(), difficulty.targetClues(geometry), PuzzleGenerator.DEFAULT_BUDGET_NANOS);
+    }
+
+    /**
+     * Quita pistas de un tablero resuelto hasta llegar al objetivo, a que ninguna otra pueda quitarse
+     * o a que se acabe el tiempo; en ese caso el puzzle queda con mas pistas, pero con solucion unica
+     * @param solution tablero resuelto que cumple las reglas, no se modifica
+     * @param targetClues cantidad de pistas que se quieren dejar
+     * @param budgetNanos tiempo maximo para quitar pistas
+     * @return el puzzle generado
+     */
+    public Puzzle generate(int[] solution, int targetClues, long budgetNanos) {
+        if (!rules.isSolution(solution)) {
+            throw new IllegalArgumentException("El tablero no es una solucion de " + rules);
+        }
+        PuzzleGenerationEvent event = new PuzzleGenerationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        solver.load(solution);
+        int cells = order.length;
+        for (int i = 0; i < cells; i++) {
+            order[i] = i;
+        }
+        for (int i = cells - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        int clues = cells;
+        boolean timedOut = false;
+        for (int i = 0; i < cells && clues > targetClues && !timedOut; i++) {
+            int cell = order[i];
+            int num = solution[cell];
+            solver.place(cell, 0);
+            if (solver.hasOtherSolution(cell, num, deadline)) {
+                solver.place(cell, num); // La pista es necesaria o no se alcanzo a probar la unicidad
+                timedOut = solver.isTimedOut();
+            } else {
+                clues--;
+            }
+        }
+        SudokuMetrics.recordGeneration(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.size = geometry.size();
+            event.targetClues = targetClues;
+            event.clues = clues;
+            event.timedOut = timedOut;
+            event.commit();
+        }
+        return new Puzzle(geometry, solver.toArray(), solution.clone());
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.sudoku.model.variant;
+
+import com.example.sudoku.model.BoardGeometry;
+
+import java.util.Arrays;
+
+/**
+ * Tablero para las reglas compiladas de una variante, equivalente a
+ * {@link com.example.sudoku.model.SudokuGrid} del juego clasico.
+ *
+ * Guarda una mascara de numeros usados por unidad, la suma y las celdas llenas de cada jaula y, si hay
+ * exclusiones, cuantas celdas excluidas tienen cada numero junto con la mascara que resulta. Colocar
+ * o quitar un numero actualiza esos contadores y revisar los candidatos de una celda es un OR de las
+ * mascaras de sus unidades, sin recorrer celdas ni crear objetos.
+ *
+ * Como SudokuGrid, supone que nunca se colocan numeros que rompan las reglas: antes de colocar se
+ * revisa con {@link #canPlace(int, int)}.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class VariantGrid {
+
+    private final VariantRules rules;
+    private final BoardGeometry geometry;
+    private final int[] cells; // 0 significa celda vacia
+    private final int[] unitMasks;
+    private final int[] excludedCounts; // [celda * (size + 1) + numero] -> celdas excluidas con el numero
+    private final int[] excludedMasks; // Numeros de las celdas excluidas de cada celda
+    private final int[] cageSums; // Suma de las celdas llenas de cada jaula
+    private final int[] cageFilled;
+    private int filled;
+
+    /**
+     * Crea un tablero vacio
+     * @param rules reglas compiladas
+     */
+    public VariantGrid(VariantRules rules) {
+        this.rules = rules;
+        this.geometry = rules.getGeometry();
+        this.cells = new int[geometry.cellCount()];
+        this.unitMasks = new int[rules.unitCount()];
+        this.excludedCounts = new int[geometry.cellCount() * (geometry.size() + 1)];
+        this.excludedMasks = new int[geometry.cellCount()];
+        this.cageSums = new int[rules.cageCount()];
+        this.cageFilled = new int[rules.cageCount()];
+    }
+
+    public VariantRules getRules() {
+        return rules;
+    }
+
+    public int get(int cell) {
+        return cells[cell];
+    }
+
+    /**
+     * Mascara con los numeros que todavia pueden ir en una celda
+     * @param cell indice de la celda
+     * @return mascara de candidatos (bit n para el numero n)
+     */
+    public int candidates(int cell) {
+        int used = excludedMasks[cell];
+        for (int unit : rules.unitsOf(cell)) {
+            used |= unitMasks[unit];
+        }
+        int mask = geometry.allMask() & ~used;
+        int cage = rules.cageOf(cell);
+        if (cage >= 0) {
+            mask &= rules.sumMask(rules.cageSize(cage) - cageFilled[cage], rules.cageSum(cage) - cageSums[cage]);
+        }
+        return mask;
+    }
+
+    /**
+     * Revisa si un numero puede ir en una celda vacia sin romper ninguna regla
+     * @param cell indice de la celda
+     * @param num numero a colocar
+     * @return true si el numero puede colocarse
+     */
+    public boolean canPlace(int cell, int num) {
+        return (candidates(cell) & (1 << num)) != 0;
+    }
+
+    /**
+     * Coloca un numero en una celda. Si la celda tenia otro numero se reemplaza.
+     * @param cell indice de la celda
+     * @param num numero a colocar, 0 para vaciar la celda
+     */
+    public void set(int cell, int num) {
+        clear(cell);
+        if (num == 0) {
+            return;
+        }
+        int bit = 1 << num;
+        cells[cell] = num;
+        for (int unit : rules.unitsOf(cell)) {
+            unitMasks[unit] |= bit;
+        }
+        int stride = geometry.size() + 1;
+        for (int other : rules.exclusionsOf(cell)) {
+            if (excludedCounts[other * stride + num]++ == 0) {
+                excludedMasks[other] |= bit;
+            }
+        }
+        int cage = rules.cageOf(cell);
+        if (cage >= 0) {
+            cageSums[cage] += num;
+            cageFilled[cage]++;
+        }
+        filled++;
+    }
+
+    /**
+     * Vacia una celda y quita su numero de las mascaras
+     * @param cell indice de la celda
+     */
+    public void clear(int cell) {
+        int num = cells[cell];
+        if (num == 0) {
+            return;
+        }
+        int bit = ~(1 << num);
+        cells[cell] = 0;
+        for (int unit : rules.unitsOf(cell)) {
+            unitMasks[unit] &= bit;
+        }
+        int stride = geometry.size() + 1;
+        for (int other : rules.exclusionsOf(cell)) {
+            if (--excludedCounts[other * stride + num] == 0) {
+                excludedMasks[other] &= bit;
+            }
+        }
+        int cage = rules.cageOf(cell);
+        if (cage >= 0) {
+            cageSums[cage] -= num;
+            cageFilled[cage]--;
+        }
+        filled--;
+    }
+
+    /**
+     * Busca la celda vacia con menos candidatos
+     * @return indice de la celda, o -1 si el tablero esta lleno
+     */
+    public int mostConstrainedCell() {
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != 0) {
+                continue;
+            }
+            int count = Integer.bitCount(candidates(cell));
+            if (count < bestCount) {
+                best = cell;
+                bestCount = count;
+                if (count <= 1) {
+                    break; // No hay celda mas restringida que esta
+                }
+            }
+        }
+        return best;
+    }
+
+    public int filledCount() {
+        return filled;
+    }
+
+    public boolean isFull() {
+        return filled == cells.length;
+    }
+
+    /**
+     * Vacia todo el tablero
+     */
+    public void reset() {
+        Arrays.fill(cells, 0);
+        Arrays.fill(unitMasks, 0);
+        Arrays.fill(excludedCounts, 0);
+        Arrays.fill(excludedMasks, 0);
+        Arrays.fill(cageSums, 0);
+        Arrays.fill(cageFilled, 0);
+        filled = 0;
+    }
+
+    /**
+     * Reemplaza el contenido del tablero con el de un arreglo plano, revisando cada numero
+     * @param values arreglo plano de tamaño size * size, 0 para celdas vacias
+     * @return false si algun numero rompe las reglas; el tablero queda con los numeros anteriores a ese
+     */
+    public boolean load(int[] values) {
+        reset();
+        for (int cell = 0; cell < cells.length; cell++) {
+            int num = values[cell];
+            if (num != 0) {
+                if (!geometry.isValidNumber(num) || !canPlace(cell, num)) {
+                    return false;
+                }
+                set(cell, num);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copia las celdas del tablero en un arreglo plano
+     * @param target arreglo de tamaño size * size
+     */
+    public void copyTo(int[] target) {
+        System.arraycopy(cells, 0, target, 0, cells.length);
+    }
+
+    /**
+     * @return una copia de las celdas del tablero
+     */
+    public int[] toArray() {
+        return cells.clone();
+    }
+}
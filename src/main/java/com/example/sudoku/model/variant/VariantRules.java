@@ -0,0 +1,340 @@
+package com.example.sudoku.model.variant;
+
+import com.example.sudoku.model.BoardGeometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reglas de un tablero compiladas a tablas de indices y mascaras de bits.
+ *
+ * Las reglas clasicas (filas, columnas y subcuadriculas) y las de cada {@link IConstraint} se juntan
+ * al compilar en:
+ * <ul>
+ * <li>unidades: grupos de celdas sin numeros repetidos (filas, columnas, regiones, diagonales y
+ * jaulas), con la lista de unidades de cada celda;</li>
+ * <li>exclusiones: por celda, las celdas fuera de sus unidades que no pueden tener su numero;</li>
+ * <li>jaulas: la jaula de cada celda, su suma y una tabla con los numeros que pueden completar una
+ * suma con una cantidad de celdas, indexada por celdas y suma restantes.</li>
+ * </ul>
+ * Con esas tablas {@link VariantGrid} revisa un numero en O(unidades de la celda) con operaciones de
+ * bits, igual para generar, resolver y validar. Si no hay reglas extra las reglas son clasicas
+ * ({@link #isClassic()}) y el modelo sigue usando {@link com.example.sudoku.model.SudokuGrid}, asi el
+ * juego clasico no paga nada por las variantes.
+ *
+ * Es inmutable y se puede compartir entre hilos.
+ */
+public final class VariantRules {
+
+    private final BoardGeometry geometry;
+    private final List<IConstraint> constraints;
+    private final boolean customRegions;
+    private final int[][] units; // Filas, columnas, regiones y luego las unidades de las reglas
+    private final int[][] unitsOf; // Unidades de cada celda
+    private final int[][] exclusions; // Por celda, celdas que no pueden repetir su numero fuera de sus unidades
+    private final int[] cageOf; // Jaula de cada celda, -1 si no esta en una
+    private final int[] cageSizes;
+    private final int[] cageSums;
+    private final int[] sumMasks; // [celdas restantes * (maxSum + 1) + suma restante] -> numeros posibles
+    private final int maxSum;
+
+    private VariantRules(BoardGeometry geometry, List<IConstraint> constraints, RuleCompiler compiler) {
+        this.geometry = geometry;
+        this.constraints = Collections.unmodifiableList(new ArrayList<>(constraints));
+        int size = geometry.size();
+        int cells = geometry.cellCount();
+
+        int[] regionOf = compiler.regionOf();
+        this.customRegions = regionOf != null;
+        List<int[]> all = new ArrayList<>();
+        for (int unit = 0; unit < 2 * size; unit++) {
+            all.add(geometry.unitCells(unit));
+        }
+        if (regionOf == null) {
+            for (int unit = 2 * size; unit < 3 * size; unit++) {
+                all.add(geometry.unitCells(unit));
+            }
+        } else {
+            int[][] regions = new int[size][size];
+            int[] filled = new int[size];
+            for (int cell = 0; cell < cells; cell++) {
+                regions[regionOf[cell]][filled[regionOf[cell]]++] = cell;
+            }
+            all.addAll(Arrays.asList(regions));
+        }
+        all.addAll(compiler.units());
+        this.units = all.toArray(new int[0][]);
+
+        int[] unitCount = new int[cells];
+        for (int[] unit : units) {
+            for (int cell : unit) {
+                unitCount[cell]++;
+            }
+        }
+        this.unitsOf = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            unitsOf[cell] = new int[unitCount[cell]];
+            unitCount[cell] = 0;
+        }
+        for (int unit = 0; unit < units.length; unit++) {
+            for (int cell : units[unit]) {
+                unitsOf[cell][unitCount[cell]++] = unit;
+            }
+        }
+
+        // Las exclusiones entre celdas que ya comparten una unidad no agregan nada
+        int[][] excluded = new int[cells][cells];
+        int[] excludedCount = new int[cells];
+        for (int[] pair : compiler.exclusions()) {
+            int a = pair[0];
+            int b = pair[1];
+            if (!sharesUnit(a, b) && !contains(excluded[a], excludedCount[a], b)) {
+                excluded[a][excludedCount[a]++] = b;
+                excluded[b][excludedCount[b]++] = a;
+            }
+        }
+        this.exclusions = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            exclusions[cell] = Arrays.copyOf(excluded[cell], excludedCount[cell]);
+        }
+
+        this.cageOf = compiler.cageOf().clone();
+        List<int[]> cages = compiler.cages();
+        this.cageSizes = new int[cages.size()];
+        this.cageSums = new int[cages.size()];
+        for (int cage = 0; cage < cages.size(); cage++) {
+            cageSizes[cage] = cages.get(cage).length;
+            cageSums[cage] = compiler.cageSums().get(cage);
+        }
+        this.maxSum = size * (size + 1) / 2;
+        this.sumMasks = cages.isEmpty() ? new int[0] : sumMasks(size, maxSum);
+    }
+
+    /**
+     * Compila las reglas de un tablero
+     * @param geometry geometria del tablero
+     * @param constraints reglas que se suman a las clasicas; sin reglas el resultado es clasico
+     * @return las reglas compiladas
+     */
+    public static VariantRules compile(BoardGeometry geometry, IConstraint... constraints) {
+        RuleCompiler compiler = new RuleCompiler(geometry);
+        for (IConstraint constraint : constraints) {
+            constraint.compile(compiler);
+        }
+        return new VariantRules(geometry, Arrays.asList(constraints), compiler);
+    }
+
+    /**
+     * Calcula, para cada cantidad de celdas k y suma s, los numeros que aparecen en alguna combinacion
+     * de k numeros distintos entre 1 y size que sume s. Para cada numero d se cuentan las sumas que se
+     * alcanzan sin d, y d sirve para (k, s) si k - 1 numeros sin d suman s - d.
+     */
+    private static int[] sumMasks(int size, int maxSum) {
+        int stride = maxSum + 1;
+        int[] masks = new int[(size + 1) * stride];
+        boolean[] reach = new boolean[(size + 1) * stride];
+        for (int d = 1; d <= size; d++) {
+            Arrays.fill(reach, false);
+            reach[0] = true; // Cero numeros suman cero
+            for (int other = 1; other <= size; other++) {
+                if (other == d) {
+                    continue;
+                }
+                for (int k = size - 1; k >= 1; k--) {
+                    for (int s = maxSum; s >= other; s--) {
+                        if (reach[(k - 1) * stride + s - other]) {
+                            reach[k * stride + s] = true;
+                        }
+                    }
+                }
+            }
+            for (int k = 1; k <= size; k++) {
+                for (int s = d; s <= maxSum; s++) {
+                    if (reach[(k - 1) * stride + s - d]) {
+                        masks[k * stride + s] |= 1 << d;
+                    }
+                }
+            }
+        }
+        return masks;
+    }
+
+    private boolean sharesUnit(int a, int b) {
+        for (int unit : unitsOf[a]) {
+            for (int other : unitsOf[b]) {
+                if (unit == other) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public List<IConstraint> getConstraints() {
+        return constraints;
+    }
+
+    /**
+     * @return true si solo estan las reglas clasicas de filas, columnas y subcuadriculas
+     */
+    public boolean isClassic() {
+        return constraints.isEmpty() || (!customRegions && units.length == 3 * geometry.size()
+                && cageSizes.length == 0 && !hasExclusions());
+    }
+
+    /**
+     * @return true si las subcuadriculas se reemplazaron por regiones irregulares; en ese caso las
+     * deducciones clasicas por subcuadricula no valen
+     */
+    public boolean hasCustomRegions() {
+        return customRegions;
+    }
+
+    private boolean hasExclusions() {
+        for (int[] cellExclusions : exclusions) {
+            if (cellExclusions.length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int unitCount() {
+        return units.length;
+    }
+
+    /**
+     * @return celdas de una unidad; el arreglo es compartido y no debe modificarse
+     */
+    public int[] unitCells(int unit) {
+        return units[unit];
+    }
+
+    /**
+     * @return unidades de una celda; el arreglo es compartido y no debe modificarse
+     */
+    public int[] unitsOf(int cell) {
+        return unitsOf[cell];
+    }
+
+    /**
+     * @return celdas fuera de las unidades de la celda que no pueden tener su numero; el arreglo es
+     * compartido y no debe modificarse
+     */
+    public int[] exclusionsOf(int cell) {
+        return exclusions[cell];
+    }
+
+    public int cageCount() {
+        return cageSizes.length;
+    }
+
+    /**
+     * @return jaula de la celda, o -1 si no esta en una
+     */
+    public int cageOf(int cell) {
+        return cageOf[cell];
+    }
+
+    public int cageSize(int cage) {
+        return cageSizes[cage];
+    }
+
+    public int cageSum(int cage) {
+        return cageSums[cage];
+    }
+
+    /**
+     * Numeros que pueden ir en una celda de una jaula segun lo que falta: alguna combinacion de numeros
+     * distintos que los incluya completa la suma. Con una celda restante es exactamente la suma que falta.
+     * @param cellsLeft celdas vacias de la jaula, contando la celda a llenar
+     * @param sumLeft suma que falta en la jaula
+     * @return mascara de numeros posibles, 0 si la suma no se puede completar
+     */
+    public int sumMask(int cellsLeft, int sumLeft) {
+        if (sumLeft < 0 || sumLeft > maxSum) {
+            return 0;
+        }
+        return sumMasks[cellsLeft * (maxSum + 1) + sumLeft];
+    }
+
+    /**
+     * Revisa si un tablero lleno cumple todas las reglas
+     * @param grid arreglo plano de size * size
+     * @return true si no hay celdas vacias ni numeros que rompan alguna regla
+     */
+    public boolean isSolution(int[] grid) {
+        if (grid.length != geometry.cellCount()) {
+            return false;
+        }
+        for (int num : grid) {
+            if (!geometry.isValidNumber(num)) {
+                return false;
+            }
+        }
+        return findConflict(grid) < 0;
+    }
+
+    /**
+     * Busca una celda que rompa alguna regla con los numeros puestos; las celdas vacias no cuentan,
+     * salvo que una jaula llena no sume lo pedido
+     * @param grid arreglo plano de size * size, 0 en las celdas vacias
+     * @return una celda en conflicto, o -1 si no hay
+     */
+    public int findConflict(int[] grid) {
+        for (int[] unit : units) {
+            int seen = 0;
+            for (int cell : unit) {
+                int bit = grid[cell] == 0 ? 0 : 1 << grid[cell];
+                if ((seen & bit) != 0) {
+                    return cell;
+                }
+                seen |= bit;
+            }
+        }
+        for (int cell = 0; cell < grid.length; cell++) {
+            for (int other : exclusions[cell]) {
+                if (grid[cell] != 0 && grid[cell] == grid[other]) {
+                    return cell;
+                }
+            }
+        }
+        int[] sums = new int[cageSizes.length];
+        int[] filled = new int[cageSizes.length];
+        for (int cell = 0; cell < grid.length; cell++) {
+            int cage = cageOf[cell];
+            if (cage >= 0 && grid[cell] != 0) {
+                sums[cage] += grid[cell];
+                filled[cage]++;
+                if (sums[cage] > cageSums[cage] || (filled[cage] == cageSizes[cage] && sums[cage] != cageSums[cage])) {
+                    return cell;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(geometry.toString());
+        for (IConstraint constraint : constraints) {
+            text.append(" + ").append(constraint.getName());
+        }
+        return text.toString();
+    }
+}
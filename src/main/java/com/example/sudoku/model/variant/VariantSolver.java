@@ -0,0 +1,204 @@
+package com.example.sudoku.model.variant;
+
+import com.example.sudoku.model.solver.ISudokuSolver;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Resolvedor para tableros con reglas de variantes. Hace backtracking sobre un {@link VariantGrid}
+ * eligiendo siempre la celda con menos candidatos; los candidatos salen de las mascaras compiladas,
+ * asi que resolver, llenar tableros al azar y probar la unicidad de un puzzle usan la misma revision
+ * que la validacion.
+ *
+ * Para el juego clasico es mas rapido {@link com.example.sudoku.model.solver.DancingLinksSolver}.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class VariantSolver implements ISudokuSolver {
+
+    private static final int DEADLINE_CHECK_MASK = 1023; // Cada cuantos nodos se revisa el reloj
+    private static final int NO_CELL = -1;
+
+    private final VariantRules rules;
+    private final VariantGrid grid;
+
+    // Estado de una busqueda
+    private int count;
+    private int limit;
+    private int[] target; // Tablero donde se escribe la primera solucion, o null
+    private RandomGenerator random; // Orden de los candidatos al llenar, o null para orden creciente
+    private int excludedCell = NO_CELL;
+    private int excludedBit;
+    private long deadline; // 0 sin limite de tiempo
+    private long nodes;
+    private boolean timedOut;
+
+    /**
+     * @param rules reglas compiladas de los tableros a resolver
+     */
+    public VariantSolver(VariantRules rules) {
+        this.rules = rules;
+        this.grid = new VariantGrid(rules);
+    }
+
+    public VariantRules getRules() {
+        return rules;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean solve(int[] grid) {
+        checkLength(grid);
+        if (!this.grid.load(grid)) {
+            return false;
+        }
+        return run(1, grid, null) > 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countSolutions(int[] grid, int limit) {
+        checkLength(grid);
+        if (limit <= 0 || !this.grid.load(grid)) {
+            return 0;
+        }
+        return run(limit, null, null);
+    }
+
+    /**
+     * Llena un tablero resuelto al azar que cumple todas las reglas
+     * @param random generador de numeros aleatorios
+     * @param target arreglo de size * size donde se escribe el tablero
+     * @return false si las reglas no admiten ningun tablero
+     */
+    public boolean fill(RandomGenerator random, int[] target) {
+        checkLength(target);
+        grid.reset();
+        return run(1, target, random) > 0;
+    }
+
+    /**
+     * Busca, a partir del tablero de trabajo cargado con {@link #load(int[])}, una solucion en la que
+     * una celda no tenga un numero. Es la prueba de unicidad al quitar una pista: si el puzzle tenia
+     * solucion unica con ese numero en la celda, otra solucion debe tener otro numero ahi.
+     * @param cell celda recien vaciada
+     * @param num numero que tenia la celda
+     * @param deadline System.nanoTime() limite, o 0 sin limite
+     * @return true si hay otra solucion o si se acabo el tiempo (ver {@link #isTimedOut()})
+     */
+    public boolean hasOtherSolution(int cell, int num, long deadline) {
+        excludedCell = cell;
+        excludedBit = 1 << num;
+        this.deadline = deadline;
+        try {
+            return explore(1, null, null) > 0 || timedOut;
+        } finally {
+            excludedCell = NO_CELL;
+            this.deadline = 0;
+        }
+    }
+
+    /**
+     * @return true si la ultima prueba de unicidad se corto por tiempo
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Carga un tablero en el tablero de trabajo, para quitarle pistas con {@link #place(int, int)}
+     * y {@link #hasOtherSolution(int, int, long)}
+     * @return false si el tablero rompe alguna regla
+     */
+    public boolean load(int[] values) {
+        checkLength(values);
+        return grid.load(values);
+    }
+
+    /**
+     * Cambia una celda del tablero de trabajo
+     * @param cell indice de la celda
+     * @param num numero, 0 para vaciarla
+     */
+    public void place(int cell, int num) {
+        grid.set(cell, num);
+    }
+
+    /**
+     * @return copia del tablero de trabajo
+     */
+    public int[] toArray() {
+        return grid.toArray();
+    }
+
+    private int run(int limit, int[] target, RandomGenerator random) {
+        deadline = 0;
+        return explore(limit, target, random);
+    }
+
+    private int explore(int limit, int[] target, RandomGenerator random) {
+        this.count = 0;
+        this.limit = limit;
+        this.target = target;
+        this.random = random;
+        this.timedOut = false;
+        search();
+        this.target = null;
+        this.random = null;
+        return count;
+    }
+
+    /**
+     * @return true si la busqueda debe terminar (se llego al limite o se acabo el tiempo)
+     */
+    private boolean search() {
+        if (deadline != 0 && (++nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+            timedOut = true;
+        }
+        if (timedOut) {
+            return true;
+        }
+        int cell = grid.mostConstrainedCell();
+        if (cell < 0) {
+            if (++count == 1 && target != null) {
+                grid.copyTo(target);
+            }
+            return count >= limit;
+        }
+        int mask = grid.candidates(cell);
+        if (cell == excludedCell) {
+            mask &= ~excludedBit;
+        }
+        while (mask != 0) {
+            int num = random == null ? Integer.numberOfTrailingZeros(mask) : randomBit(mask);
+            mask &= ~(1 << num);
+            grid.set(cell, num);
+            boolean stop = search();
+            grid.clear(cell);
+            if (stop) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Elige al azar uno de los bits encendidos de una mascara
+     */
+    private int randomBit(int mask) {
+        for (int skip = random.nextInt(Integer.bitCount(mask)); skip > 0; skip--) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    private void checkLength(int[] grid) {
+        if (grid.length != rules.getGeometry().cellCount()) {
+            throw new IllegalArgumentException("El tablero no tiene " + rules.getGeometry().cellCount() + " celdas");
+        }
+    }
+}
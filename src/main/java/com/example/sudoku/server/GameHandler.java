@@ -0,0 +1,332 @@
+package com.example.sudoku.server;
+
+import com.example.sudoku.metrics.HintEvent;
+import com.example.sudoku.metrics.SudokuMetrics;
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.model.PuzzleGenerator;
+import com.example.sudoku.model.logic.CandidateGrid;
+import com.example.sudoku.model.logic.Hint;
+import com.example.sudoku.model.logic.HintEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Atiende las rutas del juego. Los parametros van en la query y las respuestas son JSON pequeños:
+ * <pre>
+ * POST   /games?difficulty=medium              nueva partida: {"id":1,"size":6,"boxRows":2,"boxCols":3,"givens":"..."}
+ * POST   /games/{id}/cell?row=0&col=1&value=3  jugada: {"correct":true,"conflict":false,"solved":false,"remaining":21}
+ * POST   /games/{id}/hint                      ayuda: {"row":0,"col":1,"value":3,"technique":"NAKED_SINGLE"}
+ * GET    /games/{id}                           estado: {"solved":false,"correct":15,"wrong":1,"hints":2}
+ * DELETE /games/{id}                           termina la partida: {"deleted":true}
+ * </pre>
+ * Las pistas van en una sola cadena, una letra por celda en base 36 y 0 para las celdas vacias,
+ * igual que en {@link Puzzle#toLine()}. Una jugada con valor 0 vacia la celda; las pistas no se
+ * pueden cambiar. Las respuestas de error tienen la forma {"error":"..."}; un error inesperado del
+ * servidor responde 500.
+ *
+ * Las partidas se guardan empaquetadas en un {@link SessionStore}; una partida descartada por falta
+ * de uso responde 404 igual que una que nunca existio.
+ */
+class GameHandler implements HttpHandler {
+
+    static final String PATH = "/games";
+    private static final int NO_CELL = -1;
+
+    private final BoardGeometry geometry;
+    private final SessionStore sessions;
+    private final SplittableRandom root = new SplittableRandom();
+    // Cada hilo del servidor usa su propio generador y su propio motor de pistas, que no son seguros entre hilos
+    private final ThreadLocal<PuzzleGenerator> generators;
+    private final ThreadLocal<HintContext> hintContexts;
+
+    GameHandler(BoardGeometry geometry, SessionStore sessions) {
+        this.geometry = geometry;
+        this.sessions = sessions;
+        this.generators = ThreadLocal.withInitial(() -> new PuzzleGenerator(geometry, split()));
+        this.hintContexts = ThreadLocal.withInitial(() -> new HintContext(geometry, split()));
+    }
+
+    private synchronized SplittableRandom split() {
+        return root.split();
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] parts = exchange.getRequestURI().getPath().substring(PATH.length()).split("/");
+            // parts[0] es la cadena vacia antes de la primera barra
+            if (parts.length <= 1) {
+                requireMethod(exchange, "POST");
+                newGame(exchange);
+                return;
+            }
+            long id = parseLong(parts[1]);
+            String action = parts.length > 2 ? parts[2] : "";
+            switch (action) {
+                case "":
+                    if (exchange.getRequestMethod().equals("DELETE")) {
+                        if (!sessions.remove(id)) {
+                            throw missing();
+                        }
+                        // 204 sin cuerpo hace que el servidor del JDK cierre la conexion persistente
+                        send(exchange, 200, "{\"deleted\":true}");
+                    } else {
+                        requireMethod(exchange, "GET");
+                        status(exchange, id);
+                    }
+                    break;
+                case "cell":
+                    requireMethod(exchange, "POST");
+                    play(exchange, id);
+                    break;
+                case "hint":
+                    requireMethod(exchange, "POST");
+                    hint(exchange, id);
+                    break;
+                default:
+                    send(exchange, 404, "{\"error\":\"ruta desconocida\"}");
+            }
+        } catch (RequestException e) {
+            send(exchange, e.status, "{\"error\":\"" + e.getMessage() + "\"}");
+        } catch (RuntimeException e) {
+            // Sin esto el servidor del JDK cierra el intercambio sin respuesta y el cliente queda esperando
+            System.err.println("Error al atender " + exchange.getRequestURI() + ": " + e);
+            if (exchange.getResponseCode() == -1) {
+                send(exchange, 500, "{\"error\":\"error interno\"}");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void newGame(HttpExchange exchange) throws IOException {
+        String level = query(exchange, "difficulty", "medium");
+        Difficulty difficulty;
+        try {
+            difficulty = Difficulty.valueOf(level.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RequestException(400, "dificultad desconocida");
+        }
+        Puzzle puzzle = generators.get().generateRated(difficulty);
+        long id = sessions.create(puzzle);
+
+        int[] givens = puzzle.getGivens();
+        StringBuilder json = new StringBuilder(64 + givens.length);
+        json.append("{\"id\":").append(id)
+                .append(",\"size\":").append(geometry.size())
+                .append(",\"boxRows\":").append(geometry.boxRows())
+                .append(",\"boxCols\":").append(geometry.boxCols())
+                .append(",\"givens\":\"");
+        for (int num : givens) {
+            json.append(Character.toUpperCase(Character.forDigit(num, Character.MAX_RADIX)));
+        }
+        json.append("\"}");
+        send(exchange, 201, json.toString());
+    }
+
+    /**
+     * Guarda una jugada y responde si es correcta, con la semantica de isCorrectValue del modelo, y si
+     * choca con otra celda del intento guardado, con la de isValidPlacement
+     */
+    private void play(HttpExchange exchange, long id) throws IOException {
+        int row = parseIndex(query(exchange, "row", null));
+        int col = parseIndex(query(exchange, "col", null));
+        long parsed = parseLong(query(exchange, "value", null));
+        // Se revisa el rango antes de pasar a int, asi un valor enorme no da la vuelta a uno valido
+        if (parsed < 0 || parsed > geometry.size()) {
+            throw new RequestException(400, "valor fuera del tablero");
+        }
+        int value = (int) parsed;
+        int result = sessions.play(id, geometry.cell(row, col), value);
+        if (result == SessionStore.MISSING) {
+            throw missing();
+        }
+        if (result == SessionStore.GIVEN) {
+            throw new RequestException(409, "la celda es una pista");
+        }
+        int correct = sessions.getCorrectCount(id);
+        send(exchange, 200, "{\"correct\":" + ((result & SessionStore.CORRECT) != 0)
+                + ",\"conflict\":" + ((result & SessionStore.CONFLICT) != 0)
+                + ",\"solved\":" + ((result & SessionStore.SOLVED) != 0)
+                + ",\"remaining\":" + (correct < 0 ? 0 : geometry.cellCount() - correct) + "}");
+    }
+
+    /**
+     * Da una ayuda igual que el boton de ayuda del juego: un paso logico si el intento no tiene
+     * errores o, si no, una celda al azar sin resolver. El valor queda guardado en la partida; la
+     * lectura, la eleccion y la jugada se hacen juntas con {@link SessionStore#applyHint}.
+     */
+    private void hint(HttpExchange exchange, long id) throws IOException {
+        HintContext context = hintContexts.get();
+        int cell = sessions.applyHint(id, context, context.solution, context.attempt);
+        if (cell == SessionStore.MISSING) {
+            throw missing();
+        }
+        if (cell == SessionStore.NO_HINT) {
+            throw new RequestException(409, "la partida ya esta resuelta");
+        }
+        Hint hint = context.hint;
+        String technique = hint != null ? "\"" + hint.getTechnique() + "\"" : "null";
+        send(exchange, 200, "{\"row\":" + geometry.row(cell) + ",\"col\":" + geometry.col(cell)
+                + ",\"value\":" + context.solution[cell] + ",\"technique\":" + technique + "}");
+    }
+
+    private void status(HttpExchange exchange, long id) throws IOException {
+        int correct = sessions.getCorrectCount(id);
+        int wrong = sessions.getWrongCount(id);
+        int hints = sessions.getHintCount(id);
+        if (correct < 0 || wrong < 0 || hints < 0) {
+            throw missing();
+        }
+        send(exchange, 200, "{\"solved\":" + (correct == geometry.cellCount())
+                + ",\"correct\":" + correct
+                + ",\"wrong\":" + wrong
+                + ",\"hints\":" + hints + "}");
+    }
+
+    private static RequestException missing() {
+        return new RequestException(404, "partida no encontrada");
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            throw new RequestException(405, "metodo no permitido");
+        }
+    }
+
+    /**
+     * Busca un parametro en la query, sin decodificar porque todos los valores son numeros o palabras
+     */
+    private static String query(HttpExchange exchange, String name, String fallback) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && pair.regionMatches(0, name, 0, eq) && eq == name.length()) {
+                    return pair.substring(eq + 1);
+                }
+            }
+        }
+        if (fallback == null) {
+            throw new RequestException(400, "falta el parametro " + name);
+        }
+        return fallback;
+    }
+
+    private int parseIndex(String value) {
+        long index = parseLong(value);
+        if (index < 0 || index >= geometry.size()) {
+            throw new RequestException(400, "fila o columna fuera del tablero");
+        }
+        return (int) index;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new RequestException(400, "numero invalido");
+        }
+    }
+
+    /**
+     * Arreglos y motor de pistas de un hilo, reutilizados en cada ayuda
+     */
+    private static final class HintContext implements IHintPicker {
+        private final BoardGeometry geometry;
+        private final int[] solution;
+        private final int[] attempt;
+        private final CandidateGrid grid;
+        private final HintEngine engine;
+        private final SplittableRandom random;
+        private Hint hint; // Paso logico de la ultima ayuda, o null si fue una celda al azar
+
+        HintContext(BoardGeometry geometry, SplittableRandom random) {
+            this.geometry = geometry;
+            this.solution = new int[geometry.cellCount()];
+            this.attempt = new int[geometry.cellCount()];
+            this.grid = new CandidateGrid(geometry);
+            this.engine = new HintEngine(grid);
+            this.random = random;
+        }
+
+        /**
+         * Busca un paso logico si el intento no tiene errores y, si no hay, una celda al azar sin
+         * resolver. Los arreglos que recibe son solution y attempt de este contexto.
+         */
+        @Override
+        public int pick(int[] solution, int[] attempt, int wrong) {
+            HintEvent event = new HintEvent();
+            event.begin();
+            long start = System.nanoTime();
+            int cell = NO_CELL;
+            hint = null;
+            if (wrong == 0) {
+                grid.load(attempt);
+                hint = engine.findHint();
+                if (hint != null) {
+                    cell = geometry.cell(hint.getRow(), hint.getCol());
+                }
+            }
+            if (cell == NO_CELL) {
+                cell = randomUnsolvedCell();
+                if (cell == NO_CELL) {
+                    return NO_CELL;
+                }
+            }
+            SudokuMetrics.recordHint(System.nanoTime() - start, hint != null);
+            if (event.shouldCommit()) {
+                event.technique = hint != null ? hint.getTechnique().name() : "";
+                event.logical = hint != null;
+                event.commit();
+            }
+            return cell;
+        }
+
+        /**
+         * Elige al azar una celda vacia o incorrecta del intento leido
+         * @return la celda, o NO_CELL si el intento es igual a la solucion
+         */
+        int randomUnsolvedCell() {
+            int start = random.nextInt(attempt.length);
+            for (int i = 0; i < attempt.length; i++) {
+                int cell = (start + i) % attempt.length;
+                if (attempt[cell] != solution[cell]) {
+                    return cell;
+                }
+            }
+            return NO_CELL;
+        }
+    }
+
+    /**
+     * Error de una peticion, con el codigo HTTP que se debe responder
+     */
+    private static class RequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
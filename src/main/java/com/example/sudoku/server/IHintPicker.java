@@ -0,0 +1,19 @@
+package com.example.sudoku.server;
+
+/**
+ * Interfaz que define como elegir la celda de una ayuda a partir del estado de una partida.
+ * {@link SessionStore#applyHint} la llama con el candado de la franja tomado, asi la partida no cambia
+ * entre la lectura, la eleccion y la jugada.
+ */
+public interface IHintPicker {
+
+    /**
+     * Elige la celda que se va a llenar con su valor de la solucion.
+     *
+     * @param solution solucion de la partida.
+     * @param attempt intento guardado de la partida.
+     * @param wrong cantidad de celdas incorrectas del intento.
+     * @return indice de la celda, o un numero negativo si no queda ninguna por resolver.
+     */
+    int pick(int[] solution, int[] attempt, int wrong);
+}
@@ -0,0 +1,471 @@
+package com.example.sudoku.server;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.Puzzle;
+import com.example.sudoku.util.LongIntHashMap;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Almacen compacto de partidas para muchos jugadores a la vez.
+ *
+ * Cada partida ocupa un registro de longs en un arreglo grande por franja, sin objetos por partida:
+ * <pre>
+ * [0] id de la sesion
+ * [1] ultimo acceso en milisegundos
+ * [2] celdas correctas (16 bits) | celdas incorrectas (16 bits) | ayudas (32 bits)
+ * [3..] por celda: solucion, intento y un bit de pista, empaquetados sin cruzar palabras
+ * </pre>
+ * En 6x6 un registro son 7 longs (56 bytes) y en 9x9 son 15 (120 bytes).
+ *
+ * Las sesiones se reparten en franjas segun su id; cada franja tiene su propio candado, su propio
+ * indice id -> registro sobre arreglos primitivos y una lista LRU enlazada con arreglos de int.
+ * Cuando una franja llega a su capacidad se descarta la partida usada hace mas tiempo, y
+ * {@link #evictIdle(long)} descarta las partidas sin uso por mas tiempo del indicado.
+ */
+public class SessionStore {
+
+    public static final int MISSING = -1; // La sesion no existe o fue descartada
+    public static final int GIVEN = -2; // La celda es una pista y no se puede cambiar
+    public static final int CORRECT = 1; // Bandera de play: el valor es el de la solucion
+    public static final int SOLVED = 2; // Bandera de play: la partida quedo resuelta
+    public static final int CONFLICT = 4; // Bandera de play: el valor se repite en la fila, columna o subcuadricula
+    public static final int NO_HINT = -3; // La partida no tiene celdas por resolver
+
+    private static final int ID = 0;
+    private static final int ACCESS = 1;
+    private static final int COUNTERS = 2;
+    private static final int META_WORDS = 3;
+    private static final int NONE = -1;
+    private static final int INITIAL_SLOTS = 64;
+
+    private final BoardGeometry geometry;
+    private final int valueBits; // Bits por numero, suficientes para 0..size
+    private final int valueMask;
+    private final int[] cellWord; // Palabra del registro donde esta cada celda
+    private final int[] cellShift; // Desplazamiento de la celda dentro de su palabra
+    private final int recordWords;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * @param geometry geometria de las partidas
+     * @param maxSessions cantidad maxima de partidas en memoria
+     * @param stripes cantidad de franjas, se redondea a una potencia de dos
+     */
+    public SessionStore(BoardGeometry geometry, int maxSessions, int stripes) {
+        if (maxSessions < 1 || stripes < 1) {
+            throw new IllegalArgumentException("La capacidad y las franjas deben ser positivas");
+        }
+        this.geometry = geometry;
+        this.valueBits = 32 - Integer.numberOfLeadingZeros(geometry.size());
+        this.valueMask = (1 << valueBits) - 1;
+        int cellBits = 2 * valueBits + 1;
+        int cellsPerWord = Long.SIZE / cellBits;
+        int cells = geometry.cellCount();
+        this.cellWord = new int[cells];
+        this.cellShift = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            cellWord[cell] = META_WORDS + cell / cellsPerWord;
+            cellShift[cell] = (cell % cellsPerWord) * cellBits;
+        }
+        this.recordWords = META_WORDS + (cells + cellsPerWord - 1) / cellsPerWord;
+
+        int count = Integer.highestOneBit(Math.min(stripes, maxSessions) * 2 - 1);
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        int perStripe = (maxSessions + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return bytes que ocupa cada partida
+     */
+    public int getRecordBytes() {
+        return recordWords * Long.BYTES;
+    }
+
+    /**
+     * @return cantidad de partidas en memoria
+     */
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.index.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Guarda una partida nueva, con el intento igual a las pistas
+     * @param puzzle puzzle de la partida
+     * @return id de la sesion
+     */
+    public long create(Puzzle puzzle) {
+        int[] givens = puzzle.getGivens();
+        int[] solution = puzzle.getSolution();
+        long id = nextId.getAndIncrement();
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            int base = stripe.allocate(id) * recordWords;
+            long[] data = stripe.data;
+            Arrays.fill(data, base, base + recordWords, 0L);
+            data[base + ID] = id;
+            data[base + ACCESS] = now();
+            for (int cell = 0; cell < givens.length; cell++) {
+                long field = solution[cell] | (long) givens[cell] << valueBits;
+                if (givens[cell] != 0) {
+                    field |= 1L << (2 * valueBits);
+                }
+                data[base + cellWord[cell]] |= field << cellShift[cell];
+            }
+            data[base + COUNTERS] = puzzle.getClueCount();
+        }
+        return id;
+    }
+
+    /**
+     * Guarda una jugada
+     * @param id id de la sesion
+     * @param cell indice de la celda
+     * @param num numero ingresado, 0 para vaciar la celda
+     * @return MISSING, GIVEN o las banderas CORRECT, SOLVED y CONFLICT. CONFLICT se calcula sobre el
+     *         intento guardado, igual que isValidPlacement: otra celda vecina ya tiene el mismo numero
+     */
+    public int play(long id, int cell, int num) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            int slot = stripe.touch(id);
+            if (slot == NONE) {
+                return MISSING;
+            }
+            return write(stripe.data, slot * recordWords, cell, num);
+        }
+    }
+
+    /**
+     * Escribe una jugada en un registro, con el candado de su franja tomado
+     * @return GIVEN o las banderas CORRECT, SOLVED y CONFLICT
+     */
+    private int write(long[] data, int base, int cell, int num) {
+        int word = base + cellWord[cell];
+        int shift = cellShift[cell];
+        long field = data[word] >>> shift;
+        if ((field >>> (2 * valueBits) & 1) != 0) {
+            return GIVEN;
+        }
+        int solution = (int) field & valueMask;
+        int old = (int) (field >>> valueBits) & valueMask;
+        long counters = data[base + COUNTERS];
+        counters = count(counters, old, solution, -1);
+        counters = count(counters, num, solution, 1);
+        data[base + COUNTERS] = counters;
+        data[word] = data[word] & ~((long) valueMask << (shift + valueBits))
+                | (long) num << (shift + valueBits);
+
+        int result = num != 0 && num == solution ? CORRECT : 0;
+        if ((counters & 0xFFFF) == geometry.cellCount()) {
+            result |= SOLVED;
+        }
+        if (num != 0 && repeated(data, base, cell, num)) {
+            result |= CONFLICT;
+        }
+        return result;
+    }
+
+    /**
+     * Revisa si alguna vecina de la celda tiene el numero en el intento del registro
+     */
+    private boolean repeated(long[] data, int base, int cell, int num) {
+        for (int peer : geometry.peers(cell)) {
+            int current = (int) (data[base + cellWord[peer]] >>> (cellShift[peer] + valueBits)) & valueMask;
+            if (current == num) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long count(long counters, int num, int solution, int delta) {
+        if (num == 0) {
+            return counters;
+        }
+        return counters + (num == solution ? delta : (long) delta << 16);
+    }
+
+    /**
+     * Suma una ayuda al contador de la partida
+     * @param id id de la sesion
+     * @return false si la sesion no existe
+     */
+    public boolean addHint(long id) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            int slot = stripe.touch(id);
+            if (slot == NONE) {
+                return false;
+            }
+            stripe.data[slot * recordWords + COUNTERS] += 1L << 32;
+            return true;
+        }
+    }
+
+    /**
+     * Da una ayuda en un solo paso: lee la partida, deja que picker elija la celda, le pone su valor de
+     * la solucion y suma la ayuda al contador, todo con el candado de la franja tomado. Asi otra jugada
+     * de la misma partida no se puede meter entre la lectura y la escritura.
+     * @param id id de la sesion
+     * @param picker elige la celda; corre con el candado tomado, asi que debe ser rapido
+     * @param solution arreglo del llamador donde se copia la solucion
+     * @param attempt arreglo del llamador donde se copia el intento, antes de la ayuda
+     * @return la celda llenada, MISSING si la sesion no existe o NO_HINT si no quedan celdas por resolver
+     */
+    public int applyHint(long id, IHintPicker picker, int[] solution, int[] attempt) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            int slot = stripe.touch(id);
+            if (slot == NONE) {
+                return MISSING;
+            }
+            int base = slot * recordWords;
+            long[] data = stripe.data;
+            copy(data, base, null, solution, attempt);
+            int wrong = (int) (data[base + COUNTERS] >>> 16 & 0xFFFF);
+            int cell = picker.pick(solution, attempt, wrong);
+            if (cell < 0) {
+                return NO_HINT;
+            }
+            write(data, base, cell, solution[cell]);
+            data[base + COUNTERS] += 1L << 32;
+            return cell;
+        }
+    }
+
+    /**
+     * Copia el estado de una partida en arreglos del llamador
+     * @param id id de la sesion
+     * @param givens destino de las pistas, o null
+     * @param solution destino de la solucion, o null
+     * @param attempt destino del intento, o null
+     * @return false si la sesion no existe
+     */
+    public boolean read(long id, int[] givens, int[] solution, int[] attempt) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            int slot = stripe.touch(id);
+            if (slot == NONE) {
+                return false;
+            }
+            copy(stripe.data, slot * recordWords, givens, solution, attempt);
+            return true;
+        }
+    }
+
+    /**
+     * Desempaqueta un registro en arreglos del llamador, con el candado de su franja tomado
+     */
+    private void copy(long[] data, int base, int[] givens, int[] solution, int[] attempt) {
+        for (int cell = 0; cell < cellWord.length; cell++) {
+            long field = data[base + cellWord[cell]] >>> cellShift[cell];
+            int value = (int) field & valueMask;
+            int current = (int) (field >>> valueBits) & valueMask;
+            if (solution != null) {
+                solution[cell] = value;
+            }
+            if (attempt != null) {
+                attempt[cell] = current;
+            }
+            if (givens != null) {
+                givens[cell] = (field >>> (2 * valueBits) & 1) != 0 ? value : 0;
+            }
+        }
+    }
+
+    /**
+     * @return celdas correctas, o MISSING si la sesion no existe
+     */
+    public int getCorrectCount(long id) {
+        long counters = counters(id);
+        return counters < 0 ? MISSING : (int) (counters & 0xFFFF);
+    }
+
+    /**
+     * @return celdas incorrectas, o MISSING si la sesion no existe
+     */
+    public int getWrongCount(long id) {
+        long counters = counters(id);
+        return counters < 0 ? MISSING : (int) (counters >>> 16 & 0xFFFF);
+    }
+
+    /**
+     * @return ayudas dadas en la partida, o MISSING si la sesion no existe
+     */
+    public int getHintCount(long id) {
+        long counters = counters(id);
+        return counters < 0 ? MISSING : (int) (counters >>> 32);
+    }
+
+    private long counters(long id) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            int slot = stripe.touch(id);
+            return slot == NONE ? -1 : stripe.data[slot * recordWords + COUNTERS];
+        }
+    }
+
+    /**
+     * Descarta una partida
+     * @param id id de la sesion
+     * @return false si no existia
+     */
+    public boolean remove(long id) {
+        Stripe stripe = stripe(id);
+        synchronized (stripe) {
+            int slot = stripe.index.remove(id);
+            if (slot == NONE) {
+                return false;
+            }
+            stripe.release(slot);
+            return true;
+        }
+    }
+
+    /**
+     * Descarta las partidas que no se han usado en el tiempo indicado. Cada franja se recorre desde
+     * la partida usada hace mas tiempo y se detiene en la primera que sigue activa.
+     * @param maxIdleMillis tiempo maximo sin uso
+     * @return cantidad de partidas descartadas
+     */
+    public int evictIdle(long maxIdleMillis) {
+        long limit = now() - maxIdleMillis;
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                while (stripe.tail != NONE && stripe.data[stripe.tail * recordWords + ACCESS] < limit) {
+                    stripe.evict(stripe.tail);
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private Stripe stripe(long id) {
+        return stripes[(int) (id ^ (id >>> 16)) & stripeMask];
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    /**
+     * Una franja del almacen: registros, indice y orden LRU, protegidos por el candado de la franja
+     */
+    private final class Stripe {
+        private final int maxSlots;
+        private final LongIntHashMap index;
+        private long[] data;
+        private int[] prev; // Lista LRU: de la cabeza (uso mas reciente) a la cola
+        private int[] next; // Tambien enlaza los registros libres
+        private int head = NONE;
+        private int tail = NONE;
+        private int free = NONE;
+        private int used; // Registros que se han entregado alguna vez
+
+        Stripe(int maxSlots) {
+            this.maxSlots = maxSlots;
+            int slots = Math.min(INITIAL_SLOTS, maxSlots);
+            this.index = new LongIntHashMap(slots, NONE);
+            this.data = new long[slots * recordWords];
+            this.prev = new int[slots];
+            this.next = new int[slots];
+        }
+
+        /**
+         * Busca el registro de una sesion y lo mueve al frente de la lista LRU
+         */
+        int touch(long id) {
+            int slot = index.get(id);
+            if (slot != NONE) {
+                data[slot * recordWords + ACCESS] = now();
+                unlink(slot);
+                pushFront(slot);
+            }
+            return slot;
+        }
+
+        /**
+         * Entrega un registro para una sesion nueva, descartando la menos usada si la franja esta llena
+         */
+        int allocate(long id) {
+            int slot;
+            if (free != NONE) {
+                slot = free;
+                free = next[slot];
+            } else if (used < maxSlots) {
+                if (used == prev.length) {
+                    int slots = Math.min(maxSlots, prev.length * 2);
+                    data = Arrays.copyOf(data, slots * recordWords);
+                    prev = Arrays.copyOf(prev, slots);
+                    next = Arrays.copyOf(next, slots);
+                }
+                slot = used++;
+            } else {
+                slot = tail; // Se descarta la sesion usada hace mas tiempo
+                index.remove(data[slot * recordWords + ID]);
+                unlink(slot);
+            }
+            index.put(id, slot);
+            pushFront(slot);
+            return slot;
+        }
+
+        void evict(int slot) {
+            index.remove(data[slot * recordWords + ID]);
+            release(slot);
+        }
+
+        void release(int slot) {
+            unlink(slot);
+            next[slot] = free;
+            free = slot;
+        }
+
+        private void unlink(int slot) {
+            int before = prev[slot];
+            int after = next[slot];
+            if (before != NONE) {
+                next[before] = after;
+            } else {
+                head = after;
+            }
+            if (after != NONE) {
+                prev[after] = before;
+            } else {
+                tail = before;
+            }
+        }
+
+        private void pushFront(int slot) {
+            prev[slot] = NONE;
+            next[slot] = head;
+            if (head != NONE) {
+                prev[head] = slot;
+            }
+            head = slot;
+            if (tail == NONE) {
+                tail = slot;
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.sudoku.server;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.SudokuModel;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio HTTP sin interfaz grafica para jugar sudoku desde clientes remotos.
+ *
+ * Usa el servidor incluido en el JDK ({@code com.sun.net.httpserver}), sin dependencias externas.
+ * Cada peticion se atiende en un hilo de un grupo fijo. Las partidas viven empaquetadas en un
+ * {@link SessionStore}; cada cierto tiempo se descartan las que llevan demasiado tiempo sin uso.
+ * Las rutas estan descritas en {@link GameHandler}.
+ *
+ * Uso:
+ * <pre>
+ * java -cp target/classes com.example.sudoku.server.SudokuServer --port 8080 --size 9 --threads 16 --max-games 500000
+ * </pre>
+ */
+public class SudokuServer {
+
+    static {
+        // Las respuestas son pequeñas: sin TCP_NODELAY el algoritmo de Nagle y el ACK retrasado del
+        // cliente agregan unos 40 ms a cada respuesta que se escribe despues de los encabezados
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    public static final int DEFAULT_MAX_GAMES = 200_000;
+    public static final long DEFAULT_IDLE_MILLIS = 30 * 60 * 1000L; // Media hora sin jugadas
+    private static final int STRIPES = 64;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService evictor;
+    private final SessionStore sessions;
+
+    /**
+     * Crea el servidor sin iniciarlo
+     * @param port puerto donde escucha, 0 para elegir uno libre
+     * @param geometry geometria de los tableros de las partidas
+     * @param threads hilos que atienden peticiones
+     */
+    public SudokuServer(int port, BoardGeometry geometry, int threads) throws IOException {
+        this(port, geometry, threads, DEFAULT_MAX_GAMES, DEFAULT_IDLE_MILLIS);
+    }
+
+    /**
+     * Crea el servidor sin iniciarlo
+     * @param port puerto donde escucha, 0 para elegir uno libre
+     * @param geometry geometria de los tableros de las partidas
+     * @param threads hilos que atienden peticiones
+     * @param maxGames partidas que se mantienen en memoria; al pasarse se descartan las menos usadas
+     * @param idleMillis tiempo sin uso despues del cual se descarta una partida
+     */
+    public SudokuServer(int port, BoardGeometry geometry, int threads, int maxGames, long idleMillis)
+            throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "sudoku-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sessions = new SessionStore(geometry, maxGames, STRIPES);
+        server.createContext(GameHandler.PATH, new GameHandler(geometry, sessions));
+        server.setExecutor(executor);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "sudoku-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleMillis / 10);
+        evictor.scheduleWithFixedDelay(() -> sessions.evictIdle(idleMillis), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return puerto donde escucha el servidor
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return cantidad de partidas abiertas
+     */
+    public int getGameCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Deja de aceptar peticiones, espera hasta un segundo a las que estan en curso y libera los hilos
+     */
+    public void stop() {
+        server.stop(1);
+        evictor.shutdownNow();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        int size = SudokuModel.DEFAULT_SIZE;
+        int threads = Runtime.getRuntime().availableProcessors() * 4;
+        int maxGames = DEFAULT_MAX_GAMES;
+        long idleMillis = DEFAULT_IDLE_MILLIS;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--size":
+                    size = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--max-games":
+                    maxGames = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--idle-seconds":
+                    idleMillis = Long.parseLong(args[i + 1]) * 1000;
+                    break;
+                default:
+                    System.err.println("Opcion desconocida: " + args[i]);
+                    System.err.println("Uso: SudokuServer [--port N] [--size N] [--threads N] [--max-games N]"
+                            + " [--idle-seconds N]");
+                    System.exit(2);
+            }
+        }
+        SudokuServer server = new SudokuServer(port, BoardGeometry.of(size), threads, maxGames, idleMillis);
+        server.start();
+        System.out.println("Servidor de sudoku " + BoardGeometry.of(size) + " en el puerto " + server.getPort());
+    }
+}
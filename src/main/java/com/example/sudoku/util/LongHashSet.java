@@ -0,0 +1,104 @@
+package com.example.sudoku.util;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de claves long sobre un arreglo primitivo, sin objetos por entrada. Sirve de indice de
+ * duplicados para huellas de 64 bits.
+ *
+ * Usa direccionamiento abierto con sondeo lineal, igual que {@link LongIntHashMap}. La clave 0 esta
+ * reservada para las posiciones vacias.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    /**
+     * @param capacity cantidad de claves esperada
+     */
+    public LongHashSet(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(4, (int) (capacity / LOAD_FACTOR)) - 1) << 1;
+        allocate(tableSize);
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        mask = tableSize - 1;
+        threshold = (int) (tableSize * LOAD_FACTOR);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key clave distinta de 0
+     * @return true si la clave esta en el conjunto
+     */
+    public boolean contains(long key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                return true;
+            }
+            if (current == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Agrega una clave
+     * @param key clave distinta de 0
+     * @return true si la clave no estaba
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("La clave 0 esta reservada");
+        }
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size >= threshold) {
+            rehash();
+            return add(key);
+        }
+        keys[i] = key;
+        size++;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (long key : oldKeys) {
+            if (key != 0) {
+                add(key);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        // Mezcla de bits de SplittableRandom para que claves consecutivas no formen cadenas largas
+        long h = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return (int) (h ^ (h >>> 31)) & mask;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.sudoku.util;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de claves long a valores int sobre arreglos primitivos, sin objetos por entrada.
+ *
+ * Usa direccionamiento abierto con sondeo lineal. Al borrar se corren hacia atras las entradas que
+ * siguen en la misma cadena, asi no quedan marcas de borrado que alarguen las busquedas. La clave 0
+ * esta reservada para las posiciones vacias.
+ *
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+    private final int missing; // Valor que devuelve get cuando la clave no esta
+
+    /**
+     * @param capacity cantidad de entradas esperada
+     * @param missing valor que se devuelve para las claves que no estan
+     */
+    public LongIntHashMap(int capacity, int missing) {
+        this.missing = missing;
+        int tableSize = Integer.highestOneBit(Math.max(4, (int) (capacity / LOAD_FACTOR)) - 1) << 1;
+        allocate(tableSize);
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new int[tableSize];
+        mask = tableSize - 1;
+        threshold = (int) (tableSize * LOAD_FACTOR);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key clave distinta de 0
+     * @return el valor de la clave, o el valor de ausencia si no esta
+     */
+    public int get(long key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                return values[i];
+            }
+            if (current == 0) {
+                return missing;
+            }
+        }
+    }
+
+    /**
+     * Guarda o reemplaza el valor de una clave
+     * @param key clave distinta de 0
+     * @param value valor
+     */
+    public void put(long key, int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("La clave 0 esta reservada");
+        }
+        int i = slot(key);
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == 0) {
+            if (size >= threshold) {
+                rehash();
+                put(key, value);
+                return;
+            }
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Quita una clave
+     * @param key clave
+     * @return el valor que tenia, o el valor de ausencia si no estaba
+     */
+    public int remove(long key) {
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == 0) {
+                return missing;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        // Se corren hacia atras las entradas cuya posicion ideal queda antes del hueco
+        int hole = i;
+        for (int j = (hole + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int ideal = slot(keys[j]);
+            if (((j - ideal) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = 0;
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        // Mezcla de bits de SplittableRandom para que claves consecutivas no formen cadenas largas
+        long h = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return (int) (h ^ (h >>> 31)) & mask;
+    }
+}
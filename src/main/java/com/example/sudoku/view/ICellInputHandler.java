@@ -0,0 +1,14 @@
+package com.example.sudoku.view;
+
+/**
+ * Recibe lo que el usuario escribe en una celda del tablero dibujado
+ */
+public interface ICellInputHandler {
+
+    /**
+     * @param row fila de la celda
+     * @param col columna de la celda
+     * @param value texto de la celda, vacio si se borro
+     */
+    void cellInput(int row, int col, String value);
+}
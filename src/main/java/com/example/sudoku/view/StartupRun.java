@@ -0,0 +1,31 @@
+package com.example.sudoku.view;
+
+import com.example.sudoku.controller.SudokuController;
+import com.example.sudoku.model.Difficulty;
+import javafx.application.Platform;
+
+/**
+ * Corrida de medicion del arranque ({@link com.example.sudoku.metrics.StartupProbe}): despues del
+ * primer cuadro empieza sola un juego intermedio y, cuando el primer tablero ya se dibujo, cierra la
+ * aplicacion. La usan la prueba de arranque de los benchmarks y el entrenamiento del archivo AppCDS.
+ */
+final class StartupRun {
+
+    private StartupRun() {
+    }
+
+    /**
+     * Engancha la corrida a los avisos de arranque del controlador
+     * @param controller controlador de la ventana
+     */
+    static void install(SudokuController controller) {
+        controller.setOnFirstFrame(() -> {
+            controller.removeButtons();
+            controller.startGame(Difficulty.MEDIUM);
+        });
+        controller.setOnPlayable(() -> {
+            controller.shutdown();
+            Platform.exit();
+        });
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.sudoku.view;
+
+import com.example.sudoku.model.BoardGeometry;
+import com.example.sudoku.model.CellSet;
+import com.example.sudoku.model.ICellListener;
+import com.example.sudoku.model.ISudokuModel;
+import com.example.sudoku.model.Puzzle;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Tablero dibujado en un solo {@link Canvas}, para tableros grandes donde un TextField por celda
+ * hace pesados el grafo de escena, el layout y los estilos CSS.
+ *
+ * Lee los numeros, la correccion y los conflictos del modelo y se entera de los cambios como
+ * {@link ICellListener}: cada celda que cambia se marca sucia y en el siguiente pulso se vuelven a
+ * pintar solo las celdas sucias. Imita el estilo de las celdas de texto: fondo blanco, rojo si la
+ * celda esta en conflicto, borde gris, o rojo si el numero no es el de la solucion.
+ *
+ * El teclado mueve un cursor con las flechas; los digitos escriben en la celda del cursor, de a uno
+ * o dos segun el tamaño del tablero, y Retroceso o Suprimir borran. Lo escrito se entrega a un
+ * {@link ICellInputHandler}, igual que el texto de un TextField al soltar una tecla.
+ */
+public class SudokuCanvas extends Canvas implements ICellListener {
+
+    public static final double DEFAULT_CELL_SIZE = 50;
+    private static final double OUTER_BORDER = 2; // Ancho del borde del tablero, como custom-grid
+
+    // Colores de styles.css
+    private static final Color BACKGROUND = Color.WHITE;
+    private static final Color CONFLICT = Color.web("#cf6a6a");
+    private static final Color TEXT = Color.web("#44749d");
+    private static final Color BORDER = Color.GREY;
+    private static final Color WRONG_BORDER = Color.RED;
+
+    private final BoardGeometry geometry;
+    private final double cellSize;
+    private final Font font;
+    private final CellSet dirty; // Celdas por pintar en el siguiente pulso
+    private final AnimationTimer painter;
+    private final StringBuilder input = new StringBuilder(); // Lo escrito en la celda del cursor
+    private ISudokuModel model;
+    private ICellInputHandler inputHandler;
+    private int cursorRow;
+    private int cursorCol;
+
+    /**
+     * @param geometry geometria del tablero
+     */
+    public SudokuCanvas(BoardGeometry geometry) {
+        this(geometry, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * @param geometry geometria del tablero
+     * @param cellSize lado de cada celda en pixeles
+     */
+    public SudokuCanvas(BoardGeometry geometry, double cellSize) {
+        super(geometry.size() * cellSize + 2 * OUTER_BORDER, geometry.size() * cellSize + 2 * OUTER_BORDER);
+        this.geometry = geometry;
+        this.cellSize = cellSize;
+        this.font = Font.font("Lato", cellSize * 0.4); // 20px en celdas de 50px, como .text-field
+        this.dirty = new CellSet(geometry.cellCount());
+        this.painter = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                paintDirty();
+            }
+        };
+        setFocusTraversable(true);
+        addEventHandler(KeyEvent.KEY_PRESSED, this::keyPressed);
+        addEventHandler(KeyEvent.KEY_TYPED, this::keyTyped);
+        addEventHandler(MouseEvent.MOUSE_PRESSED, this::mousePressed);
+        focusedProperty().addListener((observable, before, now) -> markDirty(cursorRow, cursorCol));
+    }
+
+    /**
+     * Cambia el modelo que se dibuja y pinta todo el tablero en el siguiente pulso
+     * @param model modelo con la misma geometria del tablero, o null para dejar de dibujar
+     */
+    public void setModel(ISudokuModel model) {
+        if (this.model != null) {
+            this.model.removeCellListener(this);
+        }
+        this.model = model;
+        if (model != null) {
+            model.addCellListener(this);
+        }
+        input.setLength(0);
+        boardChanged();
+    }
+
+    public void setInputHandler(ICellInputHandler inputHandler) {
+        this.inputHandler = inputHandler;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cellChanged(int cell) {
+        dirty.add(cell);
+        painter.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void boardChanged() {
+        for (int cell = 0; cell < geometry.cellCount(); cell++) {
+            dirty.add(cell);
+        }
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.setFill(Color.BLACK);
+        gc.fillRect(0, 0, getWidth(), getHeight());
+        painter.start();
+    }
+
+    /**
+     * Pinta las celdas sucias y detiene el temporizador hasta que haya otro cambio
+     */
+    private void paintDirty() {
+        painter.stop();
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.setFont(font);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int i = 0; i < dirty.size(); i++) {
+            paintCell(gc, dirty.get(i));
+        }
+        dirty.clear();
+    }
+
+    private void paintCell(GraphicsContext gc, int cell) {
+        int row = geometry.row(cell);
+        int col = geometry.col(cell);
+        double x = OUTER_BORDER + col * cellSize;
+        double y = OUTER_BORDER + row * cellSize;
+        int num = model == null ? 0 : model.getAttempt(row, col);
+        gc.setFill(num != 0 && model.isInConflict(row, col) ? CONFLICT : BACKGROUND);
+        gc.fillRect(x, y, cellSize, cellSize);
+        if (num != 0) {
+            gc.setFill(TEXT);
+            gc.fillText(Integer.toString(num), x + cellSize / 2, y + cellSize / 2);
+        }
+        gc.setLineWidth(1);
+        gc.setStroke(num != 0 && !model.isCorrectValue(row, col, num) ? WRONG_BORDER : BORDER);
+        gc.strokeRect(x + 0.5, y + 0.5, cellSize - 1, cellSize - 1);
+        if (row == cursorRow && col == cursorCol && isFocused()) {
+            gc.setLineWidth(2);
+            gc.setStroke(TEXT);
+            gc.strokeRect(x + 3, y + 3, cellSize - 6, cellSize - 6);
+        }
+    }
+
+    private void markDirty(int row, int col) {
+        cellChanged(geometry.cell(row, col));
+    }
+
+    private void moveCursor(int row, int col) {
+        if (row < 0 || col < 0 || row >= geometry.size() || col >= geometry.size()) {
+            return;
+        }
+        markDirty(cursorRow, cursorCol);
+        cursorRow = row;
+        cursorCol = col;
+        input.setLength(0); // En una celda nueva se empieza a escribir de cero
+        markDirty(row, col);
+    }
+
+    private void mousePressed(MouseEvent event) {
+        int row = (int) ((event.getY() - OUTER_BORDER) / cellSize);
+        int col = (int) ((event.getX() - OUTER_BORDER) / cellSize);
+        moveCursor(row, col);
+        requestFocus();
+    }
+
+    private void keyPressed(KeyEvent event) {
+        switch (event.getCode()) {
+            case UP:
+                moveCursor(cursorRow - 1, cursorCol);
+                break;
+            case DOWN:
+                moveCursor(cursorRow + 1, cursorCol);
+                break;
+            case LEFT:
+                moveCursor(cursorRow, cursorCol - 1);
+                break;
+            case RIGHT:
+                moveCursor(cursorRow, cursorCol + 1);
+                break;
+            case BACK_SPACE:
+                if (isEditable()) {
+                    if (input.length() == 0 && model.getAttempt(cursorRow, cursorCol) != 0) {
+                        input.append(model.getAttempt(cursorRow, cursorCol));
+                    }
+                    if (input.length() > 0) {
+                        input.setLength(input.length() - 1);
+                    }
+                    deliver();
+                }
+                break;
+            case DELETE:
+                if (isEditable()) {
+                    input.setLength(0);
+                    deliver();
+                }
+                break;
+            default:
+                return;
+        }
+        event.consume();
+    }
+
+    /**
+     * Agrega un digito a lo escrito en la celda del cursor. Si con el digito el numero se sale del
+     * tablero, el digito empieza un numero nuevo; un digito que solo no es valido se ignora
+     */
+    private void keyTyped(KeyEvent event) {
+        String typed = event.getCharacter();
+        if (typed.length() != 1 || !Character.isDigit(typed.charAt(0)) || !isEditable()) {
+            return;
+        }
+        input.append(typed);
+        if (!geometry.isValidNumber(Integer.parseInt(input.toString()))) {
+            input.setLength(0);
+            input.append(typed);
+            if (!geometry.isValidNumber(Integer.parseInt(typed))) {
+                input.setLength(0);
+                return;
+            }
+        }
+        deliver();
+        event.consume();
+    }
+
+    /**
+     * @return true si hay un modelo y la celda del cursor no es una pista
+     */
+    private boolean isEditable() {
+        if (model == null) {
+            return false;
+        }
+        Puzzle puzzle = model.getPuzzle();
+        return puzzle == null || !puzzle.isGiven(cursorRow, cursorCol);
+    }
+
+    private void deliver() {
+        if (inputHandler != null) {
+            inputHandler.cellInput(cursorRow, cursorCol, input.toString());
+        }
+    }
+}
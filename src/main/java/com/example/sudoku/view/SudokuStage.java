@@ -1,6 +1,7 @@
 package com.example.sudoku.view;
 
 import com.example.sudoku.controller.SudokuController;
+import com.example.sudoku.metrics.StartupProbe;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -21,6 +22,10 @@ public class SudokuStage extends Stage {
         setScene(scene); // Establecer la escena
         setTitle("Sudoku"); // Título de la ventana
         setResizable(false); // No permitir cambiar el tamaño de la ventana
+        setOnCloseRequest(event -> sudokuController.shutdown()); // Cerrar con la X tambien guarda la partida
+        if (StartupProbe.isEnabled()) {
+            StartupRun.install(sudokuController); // Solo se mide el arranque
+        }
         show(); // Mostrar la ventana
     }
 
@@ -1,9 +1,20 @@
 module com.example.sudoku {
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.httpserver;
+    requires jdk.jfr;
+    requires static jdk.incubator.vector;
 
 
     opens com.example.sudoku to javafx.fxml;
     opens com.example.sudoku.controller to javafx.fxml;
     exports com.example.sudoku;
+    exports com.example.sudoku.metrics;
+    exports com.example.sudoku.model;
+    exports com.example.sudoku.model.bank;
+    exports com.example.sudoku.model.batch;
+    exports com.example.sudoku.model.logic;
+    exports com.example.sudoku.model.save;
+    exports com.example.sudoku.model.solver;
+    exports com.example.sudoku.model.variant;
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+#!/bin/sh
+# Prepara el arranque rapido de una imagen jlink (perfil fast-start del pom):
+#  1. Genera el archivo CDS base de las clases del JDK de la imagen (lib/server/classes.jsa).
+#  2. Hace una corrida de entrenamiento con sudoku.probe=true, que abre la ventana, elige una
+#     dificultad, dibuja el primer tablero y se cierra; las clases que se cargaron quedan en el
+#     archivo dinamico lib/sudoku.jsa.
+#  3. Copia el lanzador bin/sudoku-fast que usa ese archivo.
+# La corrida de entrenamiento necesita pantalla; en un servidor sin pantalla se usa xvfb-run.
+# Uso: train-cds.sh <directorio de la imagen>
+set -e
+IMAGE=$1
+HERE=$(dirname "$0")
+SAVE=$(mktemp -d) # La partida de entrenamiento no se guarda en la carpeta del usuario
+"$IMAGE/bin/java" -Xshare:dump
+${SUDOKU_TRAIN_PREFIX} "$IMAGE/bin/java" -XX:ArchiveClassesAtExit="$IMAGE/lib/sudoku.jsa" \
+    -Dsudoku.probe=true -Dsudoku.save="$SAVE" -m com.example.sudoku/com.example.sudoku.main
+rm -rf "$SAVE"
+cp "$HERE/sudoku-fast" "$IMAGE/bin/sudoku-fast"
+chmod +x "$IMAGE/bin/sudoku-fast"